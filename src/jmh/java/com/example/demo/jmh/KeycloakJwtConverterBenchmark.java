@@ -0,0 +1,53 @@
+package com.example.demo.jmh;
+
+import com.example.demo.config.KeycloakJwtConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion d'un JWT Keycloak (realm_access.roles) en authentification Spring, appelée à chaque requête.
+ * mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="KeycloakJwtConverterBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeycloakJwtConverterBenchmark {
+
+    private final KeycloakJwtConverter converter = new KeycloakJwtConverter();
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        jwt = Jwt.withTokenValue("jmh-token")
+                .header("alg", "RS256")
+                .subject("jmh-user")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .claim("realm_access", Map.of("roles",
+                        List.of("ADMIN", "WAREHOUSE_MANAGER", "SALES", "offline_access", "uma_authorization")))
+                .build();
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return converter.convert(jwt);
+    }
+}
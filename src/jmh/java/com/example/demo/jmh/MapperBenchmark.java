@@ -0,0 +1,105 @@
+package com.example.demo.jmh;
+
+import com.example.demo.dto.InventoryDTO;
+import com.example.demo.dto.PurchaseOrderDTO;
+import com.example.demo.entity.Inventory;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.PurchaseOrder;
+import com.example.demo.entity.PurchaseOrderLine;
+import com.example.demo.entity.Supplier;
+import com.example.demo.entity.User;
+import com.example.demo.entity.Warehouse;
+import com.example.demo.enums.PurchaseOrderStatus;
+import com.example.demo.mapper.InventoryMapper;
+import com.example.demo.mapper.PurchaseOrderMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mappers MapStruct sur des entités détachées : coût pur du mapping, sans base.
+ * mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="MapperBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "20"})
+    public int lines;
+
+    private Inventory inventory;
+    private PurchaseOrder purchaseOrder;
+
+    @Setup
+    public void setUp() {
+        Product product = Product.builder()
+                .id(UUID.randomUUID())
+                .name("Produit")
+                .sku("JMH-1")
+                .price(BigDecimal.TEN)
+                .build();
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(UUID.randomUUID());
+
+        inventory = new Inventory();
+        inventory.setId(UUID.randomUUID());
+        inventory.setProduct(product);
+        inventory.setWarehouse(warehouse);
+        inventory.setQtyOnHand(100);
+        inventory.setQtyReserved(5);
+        inventory.setCreatedAt(LocalDateTime.now());
+
+        Supplier supplier = new Supplier();
+        supplier.setId(UUID.randomUUID());
+        User user = new User();
+        user.setId(UUID.randomUUID());
+
+        purchaseOrder = new PurchaseOrder();
+        purchaseOrder.setId(UUID.randomUUID());
+        purchaseOrder.setSupplier(supplier);
+        purchaseOrder.setCreatedBy(user);
+        purchaseOrder.setStatus(PurchaseOrderStatus.CREATED);
+        purchaseOrder.setCreatedAt(LocalDateTime.now());
+        purchaseOrder.setExpectedDelivery(LocalDateTime.now().plusDays(7));
+        List<PurchaseOrderLine> orderLines = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            PurchaseOrderLine line = new PurchaseOrderLine();
+            line.setId(UUID.randomUUID());
+            line.setPurchaseOrder(purchaseOrder);
+            line.setProduct(product);
+            line.setQuantity(i + 1);
+            line.setUnitPrice(BigDecimal.valueOf(12.5));
+            orderLines.add(line);
+        }
+        purchaseOrder.setOrderLines(orderLines);
+    }
+
+    @Benchmark
+    public InventoryDTO inventoryToDTO() {
+        return InventoryMapper.INSTANCE.toDTO(inventory);
+    }
+
+    @Benchmark
+    public PurchaseOrderDTO purchaseOrderToDTO() {
+        return PurchaseOrderMapper.INSTANCE.toDTO(purchaseOrder);
+    }
+}
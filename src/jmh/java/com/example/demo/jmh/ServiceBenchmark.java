@@ -0,0 +1,201 @@
+package com.example.demo.jmh;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.dto.InventoryDTO;
+import com.example.demo.dto.PurchaseOrderDTO;
+import com.example.demo.dto.SalesOrderLineDTO;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.PurchaseOrder;
+import com.example.demo.entity.PurchaseOrderLine;
+import com.example.demo.entity.SalesOrder;
+import com.example.demo.entity.Supplier;
+import com.example.demo.entity.User;
+import com.example.demo.entity.Warehouse;
+import com.example.demo.enums.OrderStatus;
+import com.example.demo.enums.PurchaseOrderStatus;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.PurchaseOrderRepository;
+import com.example.demo.repository.SalesOrderRepository;
+import com.example.demo.repository.SupplierRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.WarehouseRepository;
+import com.example.demo.service.InventoryService;
+import com.example.demo.service.PurchaseOrderService;
+import com.example.demo.service.SalesOrderLineService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemins chauds des services contre une vraie base : H2 (profil test) ou PostgreSQL via Testcontainers
+ * (Docker requis). Le contexte Spring est démarré une fois par fork.
+ * mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="ServiceBenchmark -p db=h2,postgres"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int SKUS = 100;
+    private static final int LINES_PER_PURCHASE_ORDER = 5;
+
+    @Param({"h2", "postgres"})
+    public String db;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private SalesOrderLineService salesOrderLineService;
+    private PurchaseOrderService purchaseOrderService;
+    private ProductRepository productRepository;
+    private PurchaseOrderRepository purchaseOrderRepository;
+    private SupplierRepository supplierRepository;
+    private UserRepository userRepository;
+
+    private final List<UUID> productIds = new ArrayList<>();
+    private UUID salesOrderId;
+    private UUID supplierId;
+    private UUID userId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--outbox.sink.in-process.enabled=false"));
+        if ("postgres".equals(db)) {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+            args.add("--spring.datasource.url=" + postgres.getJdbcUrl());
+            args.add("--spring.datasource.username=" + postgres.getUsername());
+            args.add("--spring.datasource.password=" + postgres.getPassword());
+            args.add("--spring.datasource.driverClassName=org.postgresql.Driver");
+        }
+        // Arguments de ligne de commande : priment sur application-test.properties
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+
+        salesOrderLineService = context.getBean(SalesOrderLineService.class);
+        purchaseOrderService = context.getBean(PurchaseOrderService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        purchaseOrderRepository = context.getBean(PurchaseOrderRepository.class);
+        supplierRepository = context.getBean(SupplierRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public SalesOrderLineDTO createSalesOrderLine() {
+        SalesOrderLineDTO line = new SalesOrderLineDTO();
+        line.setSales_order_id(salesOrderId);
+        line.setProduct_id(productIds.get(ThreadLocalRandom.current().nextInt(SKUS)));
+        line.setQuantity(1);
+        line.setUnitPrice(BigDecimal.TEN);
+        return salesOrderLineService.createSalesOrderLine(line);
+    }
+
+    // Une commande d'achat neuve par invocation, créée hors mesure
+    @State(Scope.Thread)
+    public static class PendingPurchaseOrder {
+        UUID id;
+
+        @Setup(Level.Invocation)
+        public void create(ServiceBenchmark benchmark) {
+            id = benchmark.newPurchaseOrder();
+        }
+    }
+
+    @Benchmark
+    public PurchaseOrderDTO updatePurchaseOrderStatusReceived(PendingPurchaseOrder pending) {
+        return purchaseOrderService.updatePurchaseOrderStatus(pending.id, PurchaseOrderStatus.RECEIVED);
+    }
+
+    // Construite via le repository (lignes en cascade), comme le fait ReplenishmentConsumer
+    UUID newPurchaseOrder() {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setSupplier(supplierRepository.getReferenceById(supplierId));
+        order.setCreatedBy(userRepository.getReferenceById(userId));
+        order.setStatus(PurchaseOrderStatus.CREATED);
+        order.setExpectedDelivery(LocalDateTime.now().plusDays(7));
+        List<PurchaseOrderLine> lines = new ArrayList<>();
+        for (int i = 0; i < LINES_PER_PURCHASE_ORDER; i++) {
+            PurchaseOrderLine line = new PurchaseOrderLine();
+            line.setPurchaseOrder(order);
+            line.setProduct(productRepository.getReferenceById(
+                    productIds.get(ThreadLocalRandom.current().nextInt(SKUS))));
+            line.setQuantity(10);
+            line.setUnitPrice(BigDecimal.ONE);
+            lines.add(line);
+        }
+        order.setOrderLines(lines);
+        return purchaseOrderRepository.save(order).getId();
+    }
+
+    private void seed() {
+        InventoryService inventoryService = context.getBean(InventoryService.class);
+
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Entrepôt JMH");
+        UUID warehouseId = context.getBean(WarehouseRepository.class).save(warehouse).getId();
+        for (int i = 0; i < SKUS; i++) {
+            UUID productId = productRepository.save(Product.builder()
+                    .name("jmh-" + i)
+                    .sku("JMH-" + UUID.randomUUID())
+                    .price(BigDecimal.TEN)
+                    .build()).getId();
+            InventoryDTO inventory = new InventoryDTO();
+            inventory.setProduct_id(productId);
+            inventory.setWarehouse_id(warehouseId);
+            inventory.setQtyOnHand(Integer.MAX_VALUE / 2);
+            inventory.setQtyReserved(0);
+            inventoryService.createInventory(inventory);
+            productIds.add(productId);
+        }
+
+        User user = new User();
+        user.setEmail("jmh-" + UUID.randomUUID() + "@example.com");
+        userId = userRepository.save(user).getId();
+
+        Supplier supplier = new Supplier();
+        supplier.setName("Fournisseur JMH");
+        supplierId = supplierRepository.save(supplier).getId();
+
+        SalesOrder salesOrder = new SalesOrder();
+        salesOrder.setUser(userRepository.getReferenceById(userId));
+        salesOrder.setOrderStatus(OrderStatus.ICREATED);
+        salesOrderId = context.getBean(SalesOrderRepository.class).save(salesOrder).getId();
+    }
+}
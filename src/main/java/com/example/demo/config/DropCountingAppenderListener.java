@@ -0,0 +1,33 @@
+package com.example.demo.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import net.logstash.logback.appender.listener.TcpAppenderListener;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener du LogstashTcpSocketAppender : ring buffer plein (overflow, avec appendTimeout=0)
+ * et envoi impossible vers Logstash (send-failure).
+ */
+public class DropCountingAppenderListener implements TcpAppenderListener<ILoggingEvent> {
+
+    private LongAdder overflow = new LongAdder();
+    private LongAdder sendFailures = new LongAdder();
+
+    @Override
+    public void appenderStarted(Appender<ILoggingEvent> appender) {
+        overflow = LogDropCounter.counter(appender.getName(), "overflow");
+        sendFailures = LogDropCounter.counter(appender.getName(), "send-failure");
+    }
+
+    @Override
+    public void eventAppendFailed(Appender<ILoggingEvent> appender, ILoggingEvent event, Throwable reason) {
+        overflow.increment();
+    }
+
+    @Override
+    public void eventSendFailure(Appender<ILoggingEvent> appender, ILoggingEvent event, Throwable reason) {
+        sendFailures.increment();
+    }
+}
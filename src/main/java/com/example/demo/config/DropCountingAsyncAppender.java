@@ -0,0 +1,42 @@
+package com.example.demo.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AsyncAppender borné qui compte ses pertes : file pleine avec neverBlock (overflow)
+ * et événements TRACE/DEBUG/INFO écartés sous le seuil discardingThreshold (threshold).
+ */
+public class DropCountingAsyncAppender extends AsyncAppender {
+
+    private LongAdder overflow = new LongAdder();
+    private LongAdder discarded = new LongAdder();
+
+    @Override
+    public void start() {
+        overflow = LogDropCounter.counter(getName(), "overflow");
+        discarded = LogDropCounter.counter(getName(), "threshold");
+        super.start();
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            discarded.increment();
+        }
+        return discardable;
+    }
+
+    // Même perte que le offer() silencieux de neverBlock, mais comptée
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            overflow.increment();
+            return;
+        }
+        super.append(event);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentifications JWT déjà validées, indexées par SHA-256 du jeton (le jeton lui-même n'est pas gardé en clé).
+ * Une entrée expire au plus tard à l'exp du jeton, et au plus après max-ttl ; un jeton sans exp n'est pas mis en cache.
+ * Coût par requête : security.jwt.validation (durée) et security.jwt.validation.cpu (temps CPU du thread),
+ * tagués result=hit|miss|invalid.
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private record Validated(Jwt jwt, Collection<GrantedAuthority> authorities, String name) {
+    }
+
+    private final JwtAuthenticationProvider provider;
+    private final Cache<String, Validated> validated;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public JwtAuthenticationCache(JwtDecoder jwtDecoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.jwt.cache.max-size:10000}") long maxSize,
+                                  @Value("${security.jwt.cache.max-ttl:5m}") Duration maxTtl) {
+        this(jwtDecoder, meterRegistry, maxSize, maxTtl, Clock.systemUTC());
+    }
+
+    JwtAuthenticationCache(JwtDecoder jwtDecoder, MeterRegistry meterRegistry, long maxSize, Duration maxTtl,
+                           Clock clock) {
+        this.provider = new JwtAuthenticationProvider(jwtDecoder);
+        this.provider.setJwtAuthenticationConverter(new KeycloakJwtConverter());
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.validated = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<String, Validated>creating((digest, entry) -> {
+                    Duration untilExpiry = Duration.between(clock.instant(), entry.jwt().getExpiresAt());
+                    if (untilExpiry.isNegative()) return Duration.ZERO;
+                    return untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+                }))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, validated, "jwt.authentications");
+    }
+
+    // Utilisé comme AuthenticationManager du resource server (voir SecurityConfig)
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        BearerTokenAuthenticationToken bearer = (BearerTokenAuthenticationToken) authentication;
+        long cpuStart = cpuTime();
+        long start = System.nanoTime();
+        String result = "invalid";
+        try {
+            String digest = digest(bearer.getToken());
+            Validated entry = validated.getIfPresent(digest);
+            if (entry != null && entry.jwt().getExpiresAt().isAfter(clock.instant())) {
+                result = "hit";
+            } else {
+                JwtAuthenticationToken token = (JwtAuthenticationToken) provider.authenticate(bearer);
+                entry = new Validated(token.getToken(), token.getAuthorities(), token.getName());
+                if (entry.jwt().getExpiresAt() != null) {
+                    validated.put(digest, entry);
+                }
+                result = "miss";
+            }
+            // Jeton neuf à chaque requête : les détails (adresse, session) sont ceux de la requête courante
+            JwtAuthenticationToken token = new JwtAuthenticationToken(entry.jwt(), entry.authorities(), entry.name());
+            token.setDetails(bearer.getDetails());
+            return token;
+        } finally {
+            meterRegistry.timer("security.jwt.validation", "result", result)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (cpuStart >= 0) {
+                Timer.builder("security.jwt.validation.cpu")
+                        .tag("result", result)
+                        .register(meterRegistry)
+                        .record(cpuTime() - cpuStart, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
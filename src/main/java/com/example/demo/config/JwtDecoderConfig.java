@@ -0,0 +1,102 @@
+package com.example.demo.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.util.StringUtils;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Décodeur JWT du resource server, sans découverte OIDC au démarrage ni au premier appel.
+ * Les clés Keycloak (JWKS) sont mises en cache et rafraîchies en tâche de fond avant expiration :
+ * une rotation de clés ne fait jamais attendre une requête. Premier chargement dès que l'application est prête.
+ * Mode par défaut (security.jwt.mode=remote) ; voir {@link LocalJwtConfig} pour la validation hors ligne.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "security.jwt.mode", havingValue = "remote", matchIfMissing = true)
+public class JwtDecoderConfig {
+
+    @Bean
+    public JWKSource<SecurityContext> keycloakJwkSource(
+            OAuth2ResourceServerProperties properties,
+            @Value("${security.jwt.jwks.cache-ttl:10m}") Duration cacheTtl,
+            @Value("${security.jwt.jwks.refresh-ahead:1m}") Duration refreshAhead,
+            @Value("${security.jwt.jwks.refresh-timeout:5s}") Duration refreshTimeout)
+            throws MalformedURLException {
+        return JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri(properties.getJwt())).toURL())
+                .cache(cacheTtl.toMillis(), refreshTimeout.toMillis())
+                .refreshAheadCache(refreshAhead.toMillis(), true)
+                .retrying(true)
+                .build();
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> keycloakJwkSource, OAuth2ResourceServerProperties properties) {
+        return rs256Decoder(keycloakJwkSource, properties.getJwt().getIssuerUri());
+    }
+
+    // Partagé avec le mode local (LocalJwtConfig)
+    static JwtDecoder rs256Decoder(JWKSource<SecurityContext> keys, String issuer) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keys));
+        // Les claims sont validés côté Spring (exp/nbf/iss)
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(StringUtils.hasText(issuer)
+                ? JwtValidators.createDefaultWithIssuer(issuer)
+                : JwtValidators.createDefault());
+        return decoder;
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> jwksPrefetch(
+            JWKSource<SecurityContext> keycloakJwkSource,
+            @Value("${security.jwt.jwks.prefetch:true}") boolean prefetch) {
+        return event -> {
+            if (!prefetch) return;
+            CompletableFuture.runAsync(() -> {
+                try {
+                    int keys = keycloakJwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null).size();
+                    log.info("JWKS préchargé: {} clés", keys);
+                } catch (KeySourceException e) {
+                    log.warn("Préchargement JWKS impossible, nouvel essai au premier jeton: {}", e.getMessage());
+                }
+            });
+        };
+    }
+
+    // Keycloak publie ses clés sous {issuer}/protocol/openid-connect/certs
+    private static String jwkSetUri(OAuth2ResourceServerProperties.Jwt jwt) {
+        if (StringUtils.hasText(jwt.getJwkSetUri())) {
+            return jwt.getJwkSetUri();
+        }
+        if (!StringUtils.hasText(jwt.getIssuerUri())) {
+            throw new IllegalStateException(
+                    "spring.security.oauth2.resourceserver.jwt.issuer-uri ou jwk-set-uri doit être renseigné");
+        }
+        return jwt.getIssuerUri().replaceAll("/+$", "") + "/protocol/openid-connect/certs";
+    }
+}
@@ -1,31 +1,45 @@
 package com.example.demo.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
+/**
+ * realm_access.roles -> ROLE_*. Les combinaisons de rôles sont peu nombreuses :
+ * chaque ensemble d'autorités est construit une fois puis partagé (liste immuable) entre les requêtes.
+ */
 public class KeycloakJwtConverter implements Converter<Jwt, AbstractAuthenticationToken> {
 
+    private static final Cache<List<String>, List<GrantedAuthority>> AUTHORITIES = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .build();
+
     @Override
     public AbstractAuthenticationToken convert(Jwt jwt) {
-        var realmAccess = jwt.getClaimAsMap("realm_access");
-
-        Collection<SimpleGrantedAuthority> authorities = List.of();
-
-        if (realmAccess != null && realmAccess.get("roles") != null) {
-            List<String> roles = (List<String>) realmAccess.get("roles");
+        return new JwtAuthenticationToken(jwt, authorities(jwt));
+    }
 
-            authorities = roles.stream()
-                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                    .collect(Collectors.toList());
+    static List<GrantedAuthority> authorities(Jwt jwt) {
+        Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+        if (realmAccess == null || !(realmAccess.get("roles") instanceof Collection<?> roles) || roles.isEmpty()) {
+            return List.of();
         }
-
-        return new JwtAuthenticationToken(jwt, authorities);
+        List<String> names = new ArrayList<>(roles.size());
+        for (Object role : roles) {
+            names.add(String.valueOf(role));
+        }
+        return AUTHORITIES.get(List.copyOf(names), key -> key.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .toList());
     }
 }
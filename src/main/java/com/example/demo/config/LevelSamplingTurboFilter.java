@@ -0,0 +1,67 @@
+package com.example.demo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Échantillonnage des catégories bavardes : au niveau maxLevel et en dessous (DEBUG/TRACE par défaut),
+ * seul un événement sur keepOneIn des loggers listés est émis. Décidé avant la création de l'événement.
+ * Les tests isDebugEnabled() ne sont pas échantillonnés.
+ */
+public class LevelSamplingTurboFilter extends TurboFilter {
+
+    private String[] loggers = new String[0];
+    private int keepOneIn = 100;
+    private Level maxLevel = Level.DEBUG;
+    private final AtomicLong sequence = new AtomicLong();
+    private LongAdder sampledOut = new LongAdder();
+
+    public void setLoggers(String loggers) {
+        this.loggers = Arrays.stream(loggers.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    public void setKeepOneIn(int keepOneIn) {
+        this.keepOneIn = Math.max(1, keepOneIn);
+    }
+
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.DEBUG);
+    }
+
+    @Override
+    public void start() {
+        sampledOut = LogDropCounter.counter(getName() == null ? "sampling" : getName(), "sampled");
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (format == null || level == null || level.toInt() > maxLevel.toInt()
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()) || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (sequence.incrementAndGet() % keepOneIn == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        sampledOut.increment();
+        return FilterReply.DENY;
+    }
+
+    private boolean matches(String name) {
+        for (String prefix : loggers) {
+            if (name.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Validation JWT entièrement locale (security.jwt.mode=local) : aucun appel à Keycloak, ni au démarrage ni par requête.
+ * Clés lues dans security.jwt.local.jwk-set (JWK set public, validation seule) ou, à défaut,
+ * dans security.jwt.local.key-file : paire RSA générée au premier démarrage puis réutilisée,
+ * qui permet aussi d'émettre des jetons via {@link LocalTokenIssuer} (tests, charge, poste de dev).
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "security.jwt.mode", havingValue = "local")
+public class LocalJwtConfig {
+
+    @Bean
+    public JWKSet localJwkSet(ResourceLoader resourceLoader,
+                              @Value("${security.jwt.local.jwk-set:}") String jwkSet,
+                              @Value("${security.jwt.local.key-file:.local-jwt/signing-key.json}") Path keyFile) {
+        if (StringUtils.hasText(jwkSet)) {
+            JWKSet keys = parse(resourceLoader.getResource(jwkSet));
+            log.info("JWT local: {} clés publiques chargées depuis {}", keys.size(), jwkSet);
+            return keys;
+        }
+        return loadOrGenerate(keyFile);
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSet localJwkSet, @Value("${security.jwt.local.issuer}") String issuer) {
+        return JwtDecoderConfig.rs256Decoder(new ImmutableJWKSet<>(localJwkSet.toPublicJWKSet()), issuer);
+    }
+
+    @Bean
+    public LocalTokenIssuer localTokenIssuer(JWKSet localJwkSet,
+                                             @Value("${security.jwt.local.issuer}") String issuer,
+                                             @Value("${security.jwt.local.token-ttl:1h}") Duration tokenTtl) {
+        return new LocalTokenIssuer(localJwkSet, issuer, tokenTtl);
+    }
+
+    private static JWKSet loadOrGenerate(Path keyFile) {
+        try {
+            if (Files.exists(keyFile)) {
+                JWKSet keys = JWKSet.parse(Files.readString(keyFile));
+                log.info("JWT local: paire de clés lue depuis {}", keyFile.toAbsolutePath());
+                return keys;
+            }
+            RSAKey key = new RSAKeyGenerator(2048)
+                    .keyID(UUID.randomUUID().toString())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.RS256)
+                    .generate();
+            JWKSet keys = new JWKSet(key);
+            if (keyFile.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(keyFile.toAbsolutePath().getParent());
+            }
+            // Clé privée incluse : le fichier naît en rw------- quand le système le permet,
+            // aucune fenêtre avec les droits par défaut avant l'écriture
+            createOwnerOnly(keyFile);
+            Files.writeString(keyFile, keys.toString(false));
+            log.info("JWT local: nouvelle paire de clés {} écrite dans {}", key.getKeyID(), keyFile.toAbsolutePath());
+            return keys;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Fichier de clés JWT illisible: " + keyFile, e);
+        } catch (ParseException | JOSEException e) {
+            throw new IllegalStateException("Fichier de clés JWT invalide: " + keyFile, e);
+        }
+    }
+
+    private static void createOwnerOnly(Path keyFile) throws IOException {
+        try {
+            Files.createFile(keyFile, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            // Système de fichiers non POSIX
+            Files.createFile(keyFile);
+        }
+    }
+
+    private static JWKSet parse(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            return JWKSet.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("JWK set illisible: " + resource, e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("JWK set invalide: " + resource, e);
+        }
+    }
+}
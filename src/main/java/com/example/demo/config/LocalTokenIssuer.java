@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Émetteur de jetons du mode local, au format Keycloak (realm_access.roles) : même chemin de validation
+ * qu'en production, sans fournisseur d'identité. Réservé aux tests, à la charge et au développement.
+ */
+public class LocalTokenIssuer {
+
+    private final NimbusJwtEncoder encoder;
+    private final JWK signingKey;
+    private final String issuer;
+    private final Duration defaultTtl;
+
+    public LocalTokenIssuer(JWKSet keys, String issuer, Duration defaultTtl) {
+        this.signingKey = keys.getKeys().stream()
+                .filter(JWK::isPrivate)
+                .findFirst()
+                .orElse(null);
+        this.encoder = signingKey == null ? null : new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(signingKey)));
+        this.issuer = issuer;
+        this.defaultTtl = defaultTtl;
+    }
+
+    public String issue(String subject, Collection<String> roles) {
+        return issue(subject, roles, defaultTtl);
+    }
+
+    // ttl négatif : jeton déjà expiré, pour tester les refus
+    public String issue(String subject, Collection<String> roles, Duration ttl) {
+        if (encoder == null) {
+            throw new IllegalStateException("JWK set public uniquement (security.jwt.local.jwk-set) : émission impossible");
+        }
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .subject(subject)
+                .id(UUID.randomUUID().toString())
+                .issuedAt(ttl.isNegative() ? expiresAt.minus(defaultTtl) : now)
+                .expiresAt(expiresAt)
+                .claim("preferred_username", subject)
+                .claim("realm_access", Map.of("roles", List.copyOf(roles)))
+                .build();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).keyId(signingKey.getKeyID()).build();
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Événements de log perdus volontairement, par appender et par raison (overflow, threshold, send-failure, sampled).
+ * Les composants Logback sont créés avant le contexte Spring : ils s'inscrivent ici au démarrage,
+ * le binder publie ensuite logging.events.dropped.
+ */
+@Component
+public class LogDropCounter implements MeterBinder {
+
+    private record Key(String appender, String reason) {
+    }
+
+    private static final Map<Key, LongAdder> DROPPED = new ConcurrentHashMap<>();
+
+    static LongAdder counter(String appender, String reason) {
+        return DROPPED.computeIfAbsent(new Key(appender, reason), key -> new LongAdder());
+    }
+
+    public static long dropped(String appender, String reason) {
+        LongAdder counter = DROPPED.get(new Key(appender, reason));
+        return counter == null ? 0 : counter.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        DROPPED.forEach((key, counter) -> FunctionCounter.builder("logging.events.dropped", counter, LongAdder::sum)
+                .tag("appender", key.appender())
+                .tag("reason", key.reason())
+                .register(registry));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DataSource qui chronomètre chaque exécution JDBC (execute*, executeBatch) pour {@link SqlStatementMonitor},
+ * y compris les insertions JDBC directes qui échappent à Hibernate.
+ * Reste un DelegatingDataSource : les métriques Hikari retrouvent le pool sous-jacent.
+ */
+public class MonitoredDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<SqlStatementMonitor> monitorProvider;
+    private volatile SqlStatementMonitor monitor;
+
+    public MonitoredDataSource(DataSource target, ObjectProvider<SqlStatementMonitor> monitorProvider) {
+        super(target);
+        this.monitorProvider = monitorProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    // Résolu au premier usage : le moniteur dépend du MeterRegistry, créé après la DataSource
+    private SqlStatementMonitor monitor() {
+        SqlStatementMonitor current = monitor;
+        if (current == null) {
+            current = monitorProvider.getIfAvailable();
+            monitor = current;
+        }
+        return current;
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = MonitoredDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement && monitor() != null) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                        : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                        new StatementHandler(statement, sql, monitor()));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final SqlStatementMonitor monitor;
+        private final boolean capturing;
+        private List<Object> parameters;
+
+        StatementHandler(Statement target, String preparedSql, SqlStatementMonitor monitor) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.monitor = monitor;
+            this.capturing = monitor.capturesParameters(preparedSql);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    return MonitoredDataSource.invoke(target, method, args);
+                } finally {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                    monitor.record(sql, parameters == null ? List.of() : parameters, System.nanoTime() - start);
+                }
+            }
+            if (capturing && name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer index && index <= monitor.maxParameters()) {
+                capture(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters = null;
+            }
+            return MonitoredDataSource.invoke(target, method, args);
+        }
+
+        private void capture(int index, Object value) {
+            if (parameters == null) {
+                parameters = new ArrayList<>();
+            }
+            if (parameters.size() < index) {
+                parameters.addAll(Collections.nCopies(index - parameters.size(), null));
+            }
+            parameters.set(index - 1, value);
+        }
+    }
+}
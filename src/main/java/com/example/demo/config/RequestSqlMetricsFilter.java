@@ -0,0 +1,92 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Requêtes SQL par requête HTTP : nombre (http.server.requests.statements) et durée cumulée
+ * (http.server.requests.sql), tagués par méthode, gabarit d'URI et méthode de contrôleur.
+ * Au-delà du budget en nombre ou en temps, compteur sql.budget.exceeded et événement structuré dans les logs.
+ */
+@Slf4j
+@Component
+public class RequestSqlMetricsFilter extends OncePerRequestFilter {
+
+    private final SqlStatementMonitor sqlStatementMonitor;
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+    private final long timeBudgetNanos;
+
+    public RequestSqlMetricsFilter(SqlStatementMonitor sqlStatementMonitor,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${sql.budget.statements:50}") int statementBudget,
+                                   @Value("${sql.budget.time:500ms}") Duration timeBudget) {
+        this.sqlStatementMonitor = sqlStatementMonitor;
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+        this.timeBudgetNanos = timeBudget.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        sqlStatementMonitor.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementMonitor.RequestSql sql = sqlStatementMonitor.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            String handler = handlerName(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE));
+            Tags tags = Tags.of("method", request.getMethod(), "uri", uri, "handler", handler);
+
+            DistributionSummary.builder("http.server.requests.statements")
+                    .baseUnit("statements")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(sql.statements());
+            Timer.builder("http.server.requests.sql")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(sql.nanos(), TimeUnit.NANOSECONDS);
+
+            checkBudget(sql, request.getMethod(), uri, handler);
+        }
+    }
+
+    private void checkBudget(SqlStatementMonitor.RequestSql sql, String method, String uri, String handler) {
+        boolean tooMany = sql.statements() > statementBudget;
+        boolean tooSlow = sql.nanos() > timeBudgetNanos;
+        if (!tooMany && !tooSlow) return;
+
+        meterRegistry.counter("sql.budget.exceeded", "handler", handler,
+                "kind", tooMany ? "statements" : "time").increment();
+        log.warn("Budget SQL dépassé {} {} {} {} {}", kv("handler", handler), kv("method", method), kv("uri", uri),
+                kv("statements", sql.statements()), kv("sqlTimeMs", TimeUnit.NANOSECONDS.toMillis(sql.nanos())));
+    }
+
+    private static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+        }
+        return "none";
+    }
+}
@@ -36,7 +36,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   JwtAuthenticationCache jwtAuthenticationCache) throws Exception {
 
         http.csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
@@ -46,6 +47,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/products/health").permitAll()
                         .requestMatchers("/api/products/test/**").permitAll()
                         .requestMatchers("/articles/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
 
                         .requestMatchers("/users/**").authenticated()
 
@@ -62,7 +64,7 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
-                        .jwt(jwt -> jwt.jwtAuthenticationConverter(new KeycloakJwtConverter()))
+                        .jwt(jwt -> jwt.authenticationManager(jwtAuthenticationCache::authenticate))
                 )
                 .exceptionHandling(exception -> exception
                         .authenticationEntryPoint((request, response, authException) -> {
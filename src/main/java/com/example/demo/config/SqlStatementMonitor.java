@@ -0,0 +1,110 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Requêtes SQL vues au niveau JDBC ({@link MonitoredDataSource}) : nombre et durée cumulés par requête HTTP
+ * sur le thread courant, et échantillonnage des requêtes lentes avec leurs paramètres.
+ * Les paramètres ne sont retenus que pour un SQL déjà vu lent (le premier dépassement est journalisé sans eux),
+ * en nombre et en longueur bornés, et masqués par défaut (seul leur type est écrit).
+ * Remplace spring.jpa.show-sql, qui écrit chaque requête sans dire quel endpoint est bavard.
+ */
+@Slf4j
+@Component
+public class SqlStatementMonitor {
+
+    private static final ThreadLocal<RequestSql> CURRENT = new ThreadLocal<>();
+    private static final int MAX_SLOW_STATEMENTS = 1000;
+
+    private final long slowThresholdNanos;
+    private final double slowSampleRate;
+    private final int maxParameters;
+    private final int maxParameterLength;
+    private final boolean maskParameters;
+    private final Set<String> slowStatements = ConcurrentHashMap.newKeySet();
+    private final Counter slowQueries;
+
+    public SqlStatementMonitor(MeterRegistry meterRegistry,
+                               @Value("${sql.slow-query.threshold:200ms}") Duration slowThreshold,
+                               @Value("${sql.slow-query.sample-rate:0.1}") double slowSampleRate,
+                               @Value("${sql.slow-query.max-parameters:20}") int maxParameters,
+                               @Value("${sql.slow-query.max-parameter-length:64}") int maxParameterLength,
+                               @Value("${sql.slow-query.mask-parameters:true}") boolean maskParameters) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowSampleRate = slowSampleRate;
+        this.maxParameters = maxParameters;
+        this.maxParameterLength = maxParameterLength;
+        this.maskParameters = maskParameters;
+        this.slowQueries = Counter.builder("sql.slow.queries").register(meterRegistry);
+    }
+
+    public static final class RequestSql {
+        private int statements;
+        private long nanos;
+
+        public int statements() {
+            return statements;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+    }
+
+    public void begin() {
+        CURRENT.set(new RequestSql());
+    }
+
+    public RequestSql end() {
+        RequestSql current = CURRENT.get();
+        CURRENT.remove();
+        return current == null ? new RequestSql() : current;
+    }
+
+    // Paramètres à capturer seulement pour un SQL qui a déjà dépassé le seuil et peut être journalisé
+    boolean capturesParameters(String sql) {
+        return slowSampleRate > 0 && sql != null && slowStatements.contains(sql);
+    }
+
+    int maxParameters() {
+        return maxParameters;
+    }
+
+    void record(String sql, List<Object> parameters, long nanos) {
+        RequestSql current = CURRENT.get();
+        if (current != null) {
+            current.statements++;
+            current.nanos += nanos;
+        }
+        if (nanos < slowThresholdNanos) return;
+
+        slowQueries.increment();
+        if (slowSampleRate > 0 && sql != null && slowStatements.size() < MAX_SLOW_STATEMENTS) {
+            slowStatements.add(sql);
+        }
+        if (slowSampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < slowSampleRate) {
+            log.warn("Requête SQL lente {} {} {}", kv("sqlTimeMs", TimeUnit.NANOSECONDS.toMillis(nanos)),
+                    kv("sql", sql), kv("parameters", parameters.stream().map(this::render).toList()));
+        }
+    }
+
+    private String render(Object value) {
+        if (value == null) return "null";
+        if (maskParameters) return "<" + value.getClass().getSimpleName() + ">";
+        String text = String.valueOf(value);
+        return text.length() <= maxParameterLength ? text : text.substring(0, maxParameterLength) + "...";
+    }
+}
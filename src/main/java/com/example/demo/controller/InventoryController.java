@@ -1,14 +1,24 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.InventoryDTO;
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
+import com.example.demo.dto.StockAsOfDTO;
+import com.example.demo.enums.ExportFormat;
 import com.example.demo.service.InventoryService;
+import com.example.demo.service.InventoryStreamBroadcaster;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @RestController
@@ -17,6 +27,7 @@ import java.util.UUID;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final InventoryStreamBroadcaster inventoryStreamBroadcaster;
 
     @PostMapping
     public ResponseEntity<InventoryDTO> createInventory(@Valid @RequestBody InventoryDTO inventoryDTO) {
@@ -30,12 +41,44 @@ public class InventoryController {
         return ResponseEntity.ok(inventory);
     }
 
+    // Stock reconstruit depuis le journal des mouvements (maintenant si asOf est absent)
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<StockAsOfDTO> getStockAsOf(
+            @PathVariable UUID id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok(inventoryService.getStockAsOf(id, asOf == null ? LocalDateTime.now() : asOf));
+    }
+
     @GetMapping
-    public ResponseEntity<List<InventoryDTO>> getAllInventories() {
-        List<InventoryDTO> inventories = inventoryService.getAllInventories();
+    public ResponseEntity<PageResponse<InventoryDTO>> getAllInventories(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") Integer limit) {
+        PageResponse<InventoryDTO> inventories = inventoryService.getAllInventories(PageQuery.of(cursor, page, limit));
         return ResponseEntity.ok(inventories);
     }
 
+    // SSE des variations de stock ; reprise après reconnexion via Last-Event-ID (ou lastEventId)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamInventories(
+            @RequestParam(required = false) UUID warehouseId,
+            @RequestParam(required = false) UUID productId,
+            @RequestParam(required = false) Long lastEventId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader) {
+        return inventoryStreamBroadcaster.subscribe(warehouseId, productId,
+                lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInventories(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> inventoryService.exportInventories(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=inventories." + exportFormat.getExtension())
+                .body(body);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<InventoryDTO> updateInventory(
             @PathVariable UUID id,
@@ -1,5 +1,7 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.dto.ProductDTO;
 import com.example.demo.service.ProductService;
 import jakarta.validation.Valid;
@@ -9,7 +11,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -49,8 +50,11 @@ public class ProductController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        List<ProductDTO> products = productService.getAllProducts();
+    public ResponseEntity<PageResponse<ProductDTO>> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") Integer limit) {
+        PageResponse<ProductDTO> products = productService.getAllProducts(PageQuery.of(cursor, page, limit));
         return ResponseEntity.ok(products);
     }
 
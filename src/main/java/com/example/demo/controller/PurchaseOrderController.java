@@ -1,5 +1,7 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.dto.PurchaseOrderDTO;
 import com.example.demo.enums.PurchaseOrderStatus;
 import com.example.demo.service.PurchaseOrderService;
@@ -26,8 +28,11 @@ public class PurchaseOrderController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PurchaseOrderDTO>> getAllPurchaseOrders() {
-        List<PurchaseOrderDTO> orders = purchaseOrderService.getAllPurchaseOrders();
+    public ResponseEntity<PageResponse<PurchaseOrderDTO>> getAllPurchaseOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") Integer limit) {
+        PageResponse<PurchaseOrderDTO> orders = purchaseOrderService.getAllPurchaseOrders(PageQuery.of(cursor, page, limit));
         return ResponseEntity.ok(orders);
     }
 
@@ -1,6 +1,11 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
+import com.example.demo.dto.SalesOrderBatchRequest;
+import com.example.demo.dto.SalesOrderBatchResponse;
 import com.example.demo.dto.SalesOrderDTO;
+import com.example.demo.service.SalesOrderBatchService;
 import com.example.demo.service.SalesOrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -8,7 +13,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -17,6 +21,7 @@ import java.util.UUID;
 public class SalesOrderController {
 
     private final SalesOrderService salesOrderService;
+    private final SalesOrderBatchService salesOrderBatchService;
 
     @PostMapping
     public ResponseEntity<SalesOrderDTO> createSalesOrder(@Valid @RequestBody SalesOrderDTO salesOrderDTO) {
@@ -24,6 +29,12 @@ public class SalesOrderController {
         return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<SalesOrderBatchResponse> createSalesOrdersBatch(@Valid @RequestBody SalesOrderBatchRequest request) {
+        SalesOrderBatchResponse response = salesOrderBatchService.createSalesOrders(request);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<SalesOrderDTO> getSalesOrderById(@PathVariable UUID id) {
         SalesOrderDTO salesOrder = salesOrderService.getSalesOrderById(id);
@@ -31,8 +42,11 @@ public class SalesOrderController {
     }
 
     @GetMapping
-    public ResponseEntity<List<SalesOrderDTO>> getAllSalesOrders() {
-        List<SalesOrderDTO> salesOrders = salesOrderService.getAllSalesOrders();
+    public ResponseEntity<PageResponse<SalesOrderDTO>> getAllSalesOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") Integer limit) {
+        PageResponse<SalesOrderDTO> salesOrders = salesOrderService.getAllSalesOrders(PageQuery.of(cursor, page, limit));
         return ResponseEntity.ok(salesOrders);
     }
 
@@ -1,12 +1,17 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.dto.SalesOrderLineDTO;
+import com.example.demo.enums.ExportFormat;
 import com.example.demo.service.SalesOrderLineService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -31,11 +36,24 @@ public class SalesOrderLineController {
     }
 
     @GetMapping
-    public ResponseEntity<List<SalesOrderLineDTO>> getAllSalesOrderLines() {
-        List<SalesOrderLineDTO> salesOrderLines = salesOrderLineService.getAllSalesOrderLines();
+    public ResponseEntity<PageResponse<SalesOrderLineDTO>> getAllSalesOrderLines(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") Integer limit) {
+        PageResponse<SalesOrderLineDTO> salesOrderLines = salesOrderLineService.getAllSalesOrderLines(PageQuery.of(cursor, page, limit));
         return ResponseEntity.ok(salesOrderLines);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSalesOrderLines(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> salesOrderLineService.exportSalesOrderLines(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=sales-order-lines." + exportFormat.getExtension())
+                .body(body);
+    }
+
     @GetMapping("/order/{salesOrderId}")
     public ResponseEntity<List<SalesOrderLineDTO>> getSalesOrderLinesByOrder(@PathVariable UUID salesOrderId) {
         List<SalesOrderLineDTO> salesOrderLines = salesOrderLineService.getSalesOrderLinesByOrder(salesOrderId);
@@ -1,11 +1,16 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.dto.ShipmentDTO;
+import com.example.demo.enums.ExportFormat;
 import com.example.demo.enums.ShipmentStatus;
 import com.example.demo.service.ShipmentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -31,11 +36,24 @@ public class ShipmentController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ShipmentDTO>> getAllShipments() {
-        List<ShipmentDTO> shipments = shipmentService.getAllShipments();
+    public ResponseEntity<PageResponse<ShipmentDTO>> getAllShipments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") Integer limit) {
+        PageResponse<ShipmentDTO> shipments = shipmentService.getAllShipments(PageQuery.of(cursor, page, limit));
         return ResponseEntity.ok(shipments);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportShipments(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> shipmentService.exportShipments(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=shipments." + exportFormat.getExtension())
+                .body(body);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ShipmentDTO> updateShipment(@PathVariable UUID id, @Valid @RequestBody ShipmentDTO shipmentDTO) {
         ShipmentDTO updatedShipment = shipmentService.updateShipment(id, shipmentDTO);
@@ -1,11 +1,12 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.entity.User;
 import com.example.demo.service.UserService;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,8 +20,10 @@ public class UserController {
     }
 
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public PageResponse<User> getAllUsers(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer page,
+                                          @RequestParam(defaultValue = "50") Integer limit) {
+        return userService.getAllUsers(PageQuery.of(cursor, page, limit));
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.OutboxEvent;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Forme livrée aux sinks ; sequence (ordre de livraison, croissant) permet aux consommateurs
+// de dédoublonner (livraison au moins une fois) et de reprendre après la dernière séquence vue
+public record DomainEvent(Long sequence, String type, String aggregateType, UUID aggregateId,
+                          LocalDateTime occurredAt, @JsonRawValue String payload) {
+
+    public static final String STOCK_CHANGED = "inventory.stock-changed";
+    public static final String RESERVATION_CHANGED = "inventory.reservation-changed";
+    public static final String SHIPMENT_STATUS_CHANGED = "shipment.status-changed";
+    public static final String PURCHASE_ORDER_APPROVED = "purchase-order.approved";
+
+    public static DomainEvent of(OutboxEvent event) {
+        return new DomainEvent(event.getDeliverySequence(), event.getEventType(), event.getAggregateType(),
+                event.getAggregateId(), event.getOccurredAt(), event.getPayload());
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+// Somme des mouvements d'un inventaire sur une période
+public record InventoryQuantity(UUID inventoryId, Long quantity) {
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Projection lecture seule d'un inventaire : les clés étrangères sont lues telles quelles
+public record InventoryRow(UUID id, LocalDateTime createdAt, Integer qtyOnHand, Integer qtyReserved,
+                           String referenceDocument, UUID warehouseId, UUID productId) {
+
+    public PageCursor cursor() {
+        return new PageCursor(createdAt, id);
+    }
+
+    public InventoryDTO toDTO() {
+        return new InventoryDTO(id, qtyOnHand, qtyReserved, referenceDocument, warehouseId, productId);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+public record InventoryVersion(UUID id, UUID warehouseId, Integer qtyOnHand, Long version) {
+}
@@ -0,0 +1,11 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+// Quantité lue sous verrou de ligne (SQL natif), hors contexte de persistance
+public interface LockedStock {
+
+    UUID getWarehouseId();
+
+    Integer getQtyOnHand();
+}
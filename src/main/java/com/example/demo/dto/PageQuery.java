@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+public record PageQuery(String cursor, Integer page, int limit) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    public static PageQuery of(String cursor, Integer page, Integer limit) {
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        return new PageQuery(cursor, page, size);
+    }
+
+    public static PageQuery first(int limit) {
+        return of(null, null, limit);
+    }
+
+    public boolean isOffset() {
+        return page != null && cursor == null;
+    }
+}
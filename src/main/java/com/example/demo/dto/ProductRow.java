@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Projection lecture seule d'un produit, sans les collections ni le contexte de persistance
+public record ProductRow(UUID id, LocalDateTime createdAt, String name, String description,
+                         String sku, BigDecimal price, String status) {
+
+    public PageCursor cursor() {
+        return new PageCursor(createdAt, id);
+    }
+
+    public ProductDTO toDTO() {
+        return new ProductDTO(id, name, description, sku, price, status);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record PurchaseOrderLineRow(UUID purchaseOrderId, UUID id, UUID productId, String productName,
+                                   String productSku, Integer quantity, Integer backorder, BigDecimal unitPrice) {
+
+    public PurchaseOrderLineDTO toDTO() {
+        BigDecimal totalPrice = quantity != null && unitPrice != null
+                ? unitPrice.multiply(BigDecimal.valueOf(quantity))
+                : BigDecimal.ZERO;
+        return new PurchaseOrderLineDTO(id, productId, quantity, backorder, unitPrice, totalPrice, productName, productSku);
+    }
+}
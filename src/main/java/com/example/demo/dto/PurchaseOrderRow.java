@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import com.example.demo.enums.PurchaseOrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// En-tête de commande d'achat en lecture seule ; les lignes sont projetées à part (PurchaseOrderLineRow)
+public record PurchaseOrderRow(UUID id, LocalDateTime createdAt, UUID supplierId, UUID createdByUserId,
+                               UUID approvedByUserId, PurchaseOrderStatus status, LocalDateTime expectedDelivery) {
+
+    public PageCursor cursor() {
+        return new PageCursor(createdAt, id);
+    }
+
+    public PurchaseOrderDTO toDTO(List<PurchaseOrderLineDTO> orderLines) {
+        return PurchaseOrderDTO.builder()
+                .id(id)
+                .supplierId(supplierId)
+                .createdByUserId(createdByUserId)
+                .approvedByUserId(approvedByUserId)
+                .status(status)
+                .createdAt(createdAt)
+                .expectedDelivery(expectedDelivery)
+                .orderLines(orderLines)
+                .build();
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+public record ReservationChangedEvent(UUID inventoryId, UUID productId, UUID warehouseId, int delta) {
+}
@@ -0,0 +1,61 @@
+package com.example.demo.dto;
+
+import com.example.demo.enums.OrderStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesOrderBatchRequest {
+
+    @NotEmpty(message = "Au moins une commande est requise")
+    @Valid
+    private List<Order> orders;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Order {
+
+        @NotNull(message = "L'id de client est obligatoire !!")
+        private UUID user_id;
+
+        @NotNull(message = "Le status de sales order est requis !!")
+        private OrderStatus orderStatus;
+
+        @NotEmpty(message = "Au moins une ligne est requise")
+        @Valid
+        private List<Line> lines;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Line {
+
+        @NotNull(message = "L'id du produit est obligatoire")
+        private UUID product_id;
+
+        @NotNull(message = "La quantité est obligatoire")
+        @Positive(message = "La quantité doit être positive")
+        private Integer quantity;
+
+        @NotNull(message = "Le prix unitaire est obligatoire")
+        @Positive(message = "Le prix unitaire doit être positif")
+        private BigDecimal unitPrice;
+    }
+}
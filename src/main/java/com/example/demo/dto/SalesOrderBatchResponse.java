@@ -0,0 +1,39 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesOrderBatchResponse {
+
+    private List<OrderResult> orders;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class OrderResult {
+        private UUID salesOrderId;
+        private List<LineResult> lines;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LineResult {
+        private UUID salesOrderLineId;
+        private UUID product_id;
+        private Integer quantity;
+        private Integer allocated;
+        private Integer backorder;
+    }
+}
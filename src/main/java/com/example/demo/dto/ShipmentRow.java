@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import com.example.demo.enums.ShipmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Projection lecture seule d'une expédition : les clés étrangères sont lues telles quelles
+public record ShipmentRow(UUID id, LocalDateTime createdAt, String trackingNumber, ShipmentStatus status,
+                          LocalDateTime plannedDate, LocalDateTime shippedDate, LocalDateTime deliveredDate,
+                          UUID salesOrderId, UUID carrierId) {
+
+    public PageCursor cursor() {
+        return new PageCursor(createdAt, id);
+    }
+
+    public ShipmentDTO toDTO() {
+        return new ShipmentDTO(id, trackingNumber, status, plannedDate, shippedDate, deliveredDate, salesOrderId, carrierId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.dto;
+
+import com.example.demo.enums.ShipmentStatus;
+
+import java.util.UUID;
+
+public record ShipmentStatusChangedEvent(UUID shipmentId, ShipmentStatus previousStatus, ShipmentStatus status) {
+}
@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record StockAllocation(UUID productId, int requested, List<Part> parts) {
+
+    public record Part(UUID warehouseId, int quantity) {
+    }
+
+    public int allocated() {
+        return parts.stream().mapToInt(Part::quantity).sum();
+    }
+
+    public int backorder() {
+        return requested - allocated();
+    }
+}
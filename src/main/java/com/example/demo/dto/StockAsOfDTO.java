@@ -0,0 +1,8 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Stock d'un inventaire reconstruit à partir du journal des mouvements
+public record StockAsOfDTO(UUID inventoryId, LocalDateTime asOf, long qtyOnHand) {
+}
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+public record StockChangedEvent(UUID inventoryId, UUID productId, UUID warehouseId, int delta,
+                                String reference, String description) {
+}
@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+public record StockLevelDTO(UUID productId, UUID warehouseId, Integer qtyOnHand) {
+}
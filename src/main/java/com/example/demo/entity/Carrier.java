@@ -4,6 +4,7 @@ import com.example.demo.enums.CarrierStatus;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.UUID;
@@ -22,6 +23,8 @@ public class Carrier {
     private Integer maxDailyCapacity;
     private Integer currentDailyShipments;
     private LocalTime cutOffTime;
+    // Jour de la dernière heure limite appliquée au compteur journalier
+    private LocalDate lastResetDate;
 
     @Enumerated(EnumType.STRING)
     private CarrierStatus status;
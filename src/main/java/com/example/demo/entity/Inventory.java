@@ -1,13 +1,16 @@
 package com.example.demo.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import jdk.jfr.Enabled;
 import lombok.Data;
 import org.springframework.cglib.proxy.Factory;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "idx_inventory_created_at_id", columnList = "created_at, id"))
 @Data
 public class Inventory {
     @Id
@@ -27,4 +30,21 @@ public class Inventory {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private Product product;
+
+    // Verrouillage optimiste : incrémentée aussi par les UPDATE en masse d'InventoryRepository
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    // Clé de pagination (created_at, id) ; valeur par défaut pour les lignes existantes
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
 }
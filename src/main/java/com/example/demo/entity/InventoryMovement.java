@@ -2,10 +2,20 @@ package com.example.demo.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+// Journal append-only des mouvements de stock ; écrit par InventoryJournal. Seul snapshotAt est posé
+// ensuite, une fois, par InventorySnapshotter : le tour de snapshot qui a compté le mouvement
 @Entity
+@Immutable
+@Table(indexes = {
+        @Index(name = "idx_inventory_movement_inventory_occurred_at", columnList = "inventory_id, occurred_at"),
+        @Index(name = "idx_inventory_movement_occurred_at", columnList = "occurred_at"),
+        @Index(name = "idx_inventory_movement_snapshot_at", columnList = "snapshot_at")
+})
 @Data
 public class InventoryMovement {
     @Id
@@ -16,8 +26,9 @@ public class InventoryMovement {
     private LocalDateTime occurredAt;
     private String referenceDocument;
     private String description;
+    private LocalDateTime snapshotAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "inventory_id")
     private Inventory inventory;
-}
\ No newline at end of file
+}
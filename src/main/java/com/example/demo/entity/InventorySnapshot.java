@@ -0,0 +1,32 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Stock cumulé d'un inventaire (produit, entrepôt) à l'instant takenAt, calculé depuis le journal
+@Entity
+@Immutable
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "uk_inventory_snapshot_inventory_taken_at",
+                columnNames = {"inventory_id", "taken_at"}),
+        indexes = @Index(name = "idx_inventory_snapshot_taken_at", columnList = "taken_at"))
+@Data
+public class InventorySnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "inventory_id", nullable = false)
+    private Inventory inventory;
+
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+
+    @Column(nullable = false)
+    private Long qtyOnHand;
+}
@@ -0,0 +1,39 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Événements de domaine écrits dans la transaction du changement d'état. L'id suit l'ordre d'insertion,
+// pas celui des commits : l'ordre de livraison est deliverySequence, attribuée par OutboxRelay
+@Entity
+@Table(name = "outbox_event",
+        indexes = @Index(name = "idx_outbox_event_published_at_id", columnList = "published_at, id"))
+@Data
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(nullable = false)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private UUID aggregateId;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    private LocalDateTime publishedAt;
+
+    @Column(unique = true)
+    private Long deliverySequence;
+}
@@ -0,0 +1,20 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Dernière séquence de livraison attribuée par OutboxRelay ; la ligne verrouillée sérialise les relais
+@Entity
+@Table(name = "outbox_sequence")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxSequence {
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Long lastDelivered;
+}
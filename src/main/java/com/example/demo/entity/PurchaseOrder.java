@@ -8,7 +8,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "purchase_order")
+@Table(name = "purchase_order", indexes = @Index(name = "idx_purchase_order_created_at_id", columnList = "created_at, id"))
 @Data
 public class PurchaseOrder {
     @Id
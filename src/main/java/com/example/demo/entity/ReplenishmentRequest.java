@@ -0,0 +1,28 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Outbox des backorders : écrite dans la transaction de la commande, vidée par ReplenishmentConsumer
+@Entity
+@Table(name = "replenishment_request",
+        indexes = @Index(name = "idx_replenishment_request_requested_at", columnList = "requested_at"))
+@Data
+public class ReplenishmentRequest {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private LocalDateTime requestedAt;
+}
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "idx_sales_order_created_at_id", columnList = "created_at, id"))
 @Data
 public class SalesOrder {
     @Id
@@ -7,6 +7,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "idx_sales_order_line_created_at_id", columnList = "created_at, id"))
 @Data
 public class SalesOrderLine {
     @Id
@@ -2,12 +2,14 @@ package com.example.demo.entity;
 
 import com.example.demo.enums.ShipmentStatus;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.Data;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "idx_shipment_created_at_id", columnList = "created_at, id"))
 @Data
 public class Shipment {
     @Id
@@ -31,5 +33,16 @@ public class Shipment {
     @JoinColumn(name = "carrier_id")
     private Carrier carrier;
 
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
 
 }
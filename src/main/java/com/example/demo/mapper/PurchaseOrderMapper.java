@@ -3,14 +3,20 @@ package com.example.demo.mapper;
 import com.example.demo.dto.PurchaseOrderDTO;
 import com.example.demo.entity.PurchaseOrder;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
-@Mapper
+@Mapper(uses = PurchaseOrderLineMapper.class)
 public interface PurchaseOrderMapper {
 
     PurchaseOrderMapper INSTANCE = Mappers.getMapper(PurchaseOrderMapper.class);
 
+    @Mapping(source = "supplier.id", target = "supplierId")
+    @Mapping(source = "createdBy.id", target = "createdByUserId")
+    @Mapping(source = "approvedBy.id", target = "approvedByUserId")
     PurchaseOrderDTO toDTO(PurchaseOrder order);
 
+    // Les lignes sont insérées à part (BulkInsertRepository) : les mapper ici les persisterait en cascade sans produit
+    @Mapping(target = "orderLines", ignore = true)
     PurchaseOrder toEntity(PurchaseOrderDTO orderDTO);
 }
@@ -0,0 +1,109 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.InventoryMovement;
+import com.example.demo.entity.InventorySnapshot;
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.entity.PurchaseOrderLine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Insertions en masse hors Hibernate (JDBC batch). Avec reWriteBatchedInserts=true,
+ * le driver PostgreSQL envoie chaque lot sous forme d'INSERT multi-lignes.
+ * Les entités insérées ici ne sont pas attachées au contexte de persistance.
+ */
+@Repository
+public class BulkInsertRepository {
+
+    private static final String INSERT_PURCHASE_ORDER_LINE =
+            "INSERT INTO purchase_order_line (id, product_id, purchase_order_id, quantity, backorder, unit_price) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_INVENTORY_MOVEMENT =
+            "INSERT INTO inventory_movement (id, inventory_id, quantity, occurred_at, reference_document, description) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_INVENTORY_SNAPSHOT =
+            "INSERT INTO inventory_snapshot (id, inventory_id, taken_at, qty_on_hand) VALUES (?, ?, ?, ?)";
+
+    // id non fourni : colonne identité, sert de numéro de séquence
+    private static final String INSERT_OUTBOX_EVENT =
+            "INSERT INTO outbox_event (event_type, aggregate_type, aggregate_id, payload, occurred_at) " +
+                    "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BulkInsertRepository(JdbcTemplate jdbcTemplate,
+                                @Value("${persistence.bulk-insert.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    public void insertPurchaseOrderLines(List<PurchaseOrderLine> lines) {
+        if (lines.isEmpty()) return;
+        // La commande parente doit exister en base avant les lignes (clé étrangère)
+        entityManager.flush();
+        lines.forEach(line -> {
+            if (line.getId() == null) line.setId(UUID.randomUUID());
+        });
+        jdbcTemplate.batchUpdate(INSERT_PURCHASE_ORDER_LINE, lines, batchSize, (ps, line) -> {
+            ps.setObject(1, line.getId());
+            ps.setObject(2, line.getProduct().getId());
+            ps.setObject(3, line.getPurchaseOrder().getId());
+            ps.setInt(4, line.getQuantity());
+            ps.setInt(5, line.getBackorder() == null ? 0 : line.getBackorder());
+            ps.setBigDecimal(6, line.getUnitPrice());
+        });
+    }
+
+    public void insertInventoryMovements(List<InventoryMovement> movements) {
+        if (movements.isEmpty()) return;
+        entityManager.flush();
+        movements.forEach(movement -> {
+            if (movement.getId() == null) movement.setId(UUID.randomUUID());
+        });
+        jdbcTemplate.batchUpdate(INSERT_INVENTORY_MOVEMENT, movements, batchSize, (ps, movement) -> {
+            ps.setObject(1, movement.getId());
+            ps.setObject(2, movement.getInventory().getId());
+            ps.setInt(3, movement.getQuantity());
+            ps.setTimestamp(4, movement.getOccurredAt() == null ? null : Timestamp.valueOf(movement.getOccurredAt()));
+            ps.setString(5, movement.getReferenceDocument());
+            ps.setString(6, movement.getDescription());
+        });
+    }
+
+    public void insertInventorySnapshots(List<InventorySnapshot> snapshots) {
+        if (snapshots.isEmpty()) return;
+        snapshots.forEach(snapshot -> {
+            if (snapshot.getId() == null) snapshot.setId(UUID.randomUUID());
+        });
+        jdbcTemplate.batchUpdate(INSERT_INVENTORY_SNAPSHOT, snapshots, batchSize, (ps, snapshot) -> {
+            ps.setObject(1, snapshot.getId());
+            ps.setObject(2, snapshot.getInventory().getId());
+            ps.setTimestamp(3, Timestamp.valueOf(snapshot.getTakenAt()));
+            ps.setLong(4, snapshot.getQtyOnHand());
+        });
+    }
+
+    public void insertOutboxEvents(List<OutboxEvent> events) {
+        if (events.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_EVENT, events, batchSize, (ps, event) -> {
+            ps.setString(1, event.getEventType());
+            ps.setString(2, event.getAggregateType());
+            ps.setObject(3, event.getAggregateId());
+            ps.setString(4, event.getPayload());
+            ps.setTimestamp(5, Timestamp.valueOf(event.getOccurredAt()));
+        });
+    }
+}
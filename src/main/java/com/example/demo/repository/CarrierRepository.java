@@ -3,8 +3,13 @@ package com.example.demo.repository;
 import com.example.demo.entity.Carrier;
 import com.example.demo.enums.CarrierStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,4 +26,31 @@ public interface CarrierRepository extends JpaRepository<Carrier, UUID> {
     List<Carrier> findByNameContainingIgnoreCase(String name);
 
     List<Carrier> findByStatusAndCurrentDailyShipmentsLessThan(CarrierStatus status, Integer maxDailyCapacity);
+
+    // Réservation atomique d'une place : 0 ligne si le transporteur est plein, inactif ou inconnu
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Carrier c SET c.currentDailyShipments = COALESCE(c.currentDailyShipments, 0) + 1 " +
+            "WHERE c.id = :id AND c.status = com.example.demo.enums.CarrierStatus.ACTIVE " +
+            "AND (c.maxDailyCapacity IS NULL OR COALESCE(c.currentDailyShipments, 0) < c.maxDailyCapacity)")
+    int reserveCapacity(@Param("id") UUID id);
+
+    // Repli : transporteurs actifs avec de la place, du moins cher au plus cher
+    @Query("SELECT c.id FROM Carrier c WHERE c.status = com.example.demo.enums.CarrierStatus.ACTIVE " +
+            "AND (c.maxDailyCapacity IS NULL OR COALESCE(c.currentDailyShipments, 0) < c.maxDailyCapacity) " +
+            "ORDER BY c.baseShippingRate ASC, c.id ASC")
+    List<UUID> findIdsWithRemainingCapacity();
+
+    // Remise à zéro des transporteurs dont l'heure limite du jour est passée et pas encore appliquée ;
+    // sans heure limite, le compteur repart à minuit. Idempotent : le jour appliqué est enregistré
+    @Modifying
+    @Query("UPDATE Carrier c SET c.currentDailyShipments = 0, c.lastResetDate = :day " +
+            "WHERE (c.lastResetDate IS NULL OR c.lastResetDate < :day) " +
+            "AND (c.cutOffTime IS NULL OR c.cutOffTime <= :now)")
+    int resetDailyShipmentsDueOn(@Param("day") LocalDate day, @Param("now") LocalTime now);
+
+    // Rattrapage : heure limite de la veille manquée (arrêt, tours sautés) et celle du jour pas encore atteinte
+    @Modifying
+    @Query("UPDATE Carrier c SET c.currentDailyShipments = 0, c.lastResetDate = :yesterday " +
+            "WHERE (c.lastResetDate IS NULL OR c.lastResetDate < :yesterday) AND c.cutOffTime > :now")
+    int resetDailyShipmentsMissedOn(@Param("yesterday") LocalDate yesterday, @Param("now") LocalTime now);
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.InventoryQuantity;
+import com.example.demo.entity.InventoryMovement;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Pas de save/delete unitaires : les insertions passent par BulkInsertRepository (InventoryJournal)
+@org.springframework.stereotype.Repository
+public interface InventoryMovementRepository extends Repository<InventoryMovement, UUID> {
+
+    // Parcours de l'index (inventory_id, occurred_at) jusqu'à T
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM InventoryMovement m " +
+            "WHERE m.inventory.id = :inventoryId AND m.occurredAt <= :asOf")
+    long sumQuantityAsOf(@Param("inventoryId") UUID inventoryId, @Param("asOf") LocalDateTime asOf);
+
+    // Rejeu de la queue après un snapshot : mouvements survenus avant T mais pas comptés dans ce snapshot
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM InventoryMovement m " +
+            "WHERE m.inventory.id = :inventoryId AND m.occurredAt <= :asOf " +
+            "AND (m.snapshotAt IS NULL OR m.snapshotAt > :snapshotAt)")
+    long sumQuantityNotCountedIn(@Param("inventoryId") UUID inventoryId,
+                                 @Param("snapshotAt") LocalDateTime snapshotAt, @Param("asOf") LocalDateTime asOf);
+
+    // Filigrane dans l'ordre des commits : seuls les mouvements déjà validés et pas encore comptés sont marqués
+    @Modifying
+    @Query(value = "UPDATE inventory_movement SET snapshot_at = :round " +
+            "WHERE snapshot_at IS NULL AND occurred_at <= :round", nativeQuery = true)
+    int markCounted(@Param("round") LocalDateTime round);
+
+    @Query("SELECT new com.example.demo.dto.InventoryQuantity(m.inventory.id, SUM(m.quantity)) " +
+            "FROM InventoryMovement m " +
+            "WHERE m.snapshotAt = :round " +
+            "GROUP BY m.inventory.id")
+    List<InventoryQuantity> sumQuantityByInventoryCountedAt(@Param("round") LocalDateTime round);
+
+    @Query("SELECT m FROM InventoryMovement m WHERE m.inventory.id = :inventoryId ORDER BY m.occurredAt, m.id")
+    List<InventoryMovement> findByInventoryId(@Param("inventoryId") UUID inventoryId);
+
+    long countByInventoryId(UUID inventoryId);
+
+    // Suppressions autorisées : purge avec l'inventaire, et compaction des segments déjà couverts par un snapshot
+    @Modifying
+    @Query("DELETE FROM InventoryMovement m WHERE m.inventory.id = :inventoryId")
+    int deleteByInventoryId(@Param("inventoryId") UUID inventoryId);
+
+    // Uniquement des mouvements déjà comptés dans un snapshot <= horizon
+    @Modifying
+    @Query(value = "DELETE FROM inventory_movement WHERE id IN (" +
+            "SELECT id FROM inventory_movement WHERE snapshot_at <= :horizon LIMIT :limit)",
+            nativeQuery = true)
+    int deleteChunkCountedUpTo(@Param("horizon") LocalDateTime horizon, @Param("limit") int limit);
+}
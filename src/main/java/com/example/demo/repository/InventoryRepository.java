@@ -1,18 +1,111 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.InventoryRow;
+import com.example.demo.dto.InventoryVersion;
+import com.example.demo.dto.LockedStock;
+import com.example.demo.dto.StockLevelDTO;
 import com.example.demo.entity.Inventory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
+public interface InventoryRepository extends JpaRepository<Inventory, UUID>, KeysetPagingRepository<Inventory> {
     List<Inventory> findByWarehouseId(UUID warehouseId);
     List<Inventory> findByProductId(UUID productId);
     List<Inventory> findByQtyOnHandGreaterThan(Integer qty);
     Optional<Inventory> findByProductIdAndWarehouseId(UUID productId, UUID warehouseId);
 
+    @Query("SELECT new com.example.demo.dto.StockLevelDTO(i.product.id, i.warehouse.id, i.qtyOnHand) FROM Inventory i")
+    List<StockLevelDTO> findAllStockLevels();
+
+    @Query("SELECT new com.example.demo.dto.StockLevelDTO(i.product.id, i.warehouse.id, i.qtyOnHand) " +
+            "FROM Inventory i WHERE i.product.id = :productId ORDER BY i.warehouse.id")
+    List<StockLevelDTO> findStockLevelsByProductId(@Param("productId") UUID productId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.qtyOnHand = i.qtyOnHand + :delta, i.version = i.version + 1 " +
+            "WHERE i.product.id = :productId AND i.warehouse.id = :warehouseId")
+    int adjustQtyOnHand(@Param("productId") UUID productId, @Param("warehouseId") UUID warehouseId, @Param("delta") int delta);
+
+    // Décrément conditionnel : 0 ligne modifiée si le stock ne suffit plus
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.qtyOnHand = i.qtyOnHand - :quantity, i.version = i.version + 1 " +
+            "WHERE i.product.id = :productId AND i.warehouse.id = :warehouseId AND i.qtyOnHand >= :quantity")
+    int decrementQtyOnHand(@Param("productId") UUID productId, @Param("warehouseId") UUID warehouseId, @Param("quantity") int quantity);
+
+    // Mode optimiste : lecture hors contexte de persistance, puis écriture conditionnée par la version lue
+    @Query("SELECT new com.example.demo.dto.InventoryVersion(i.id, i.warehouse.id, i.qtyOnHand, i.version) " +
+            "FROM Inventory i WHERE i.product.id = :productId ORDER BY i.warehouse.id")
+    List<InventoryVersion> findVersionsByProductId(@Param("productId") UUID productId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.qtyOnHand = :qtyOnHand, i.version = i.version + 1 " +
+            "WHERE i.id = :id AND i.version = :version")
+    int compareAndSetQtyOnHand(@Param("id") UUID id, @Param("version") Long version, @Param("qtyOnHand") int qtyOnHand);
+
+    // Mode pessimiste : SQL natif, le dialecte PostgreSQL génère FOR NO KEY UPDATE que H2 refuse.
+    // Projection plutôt qu'entités : une instance déjà gérée serait rendue telle quelle, avec une quantité périmée
+    // (uuid lu en texte : sans type déclaré, le pilote H2 le rend en byte[])
+    @Query(value = "SELECT CAST(warehouse_id AS VARCHAR) AS warehouseId, qty_on_hand AS qtyOnHand FROM inventory " +
+            "WHERE product_id = :productId ORDER BY warehouse_id FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<LockedStock> lockStockByProductIdSkipLocked(@Param("productId") UUID productId);
+
+    @Query(value = "SELECT CAST(warehouse_id AS VARCHAR) AS warehouseId, qty_on_hand AS qtyOnHand FROM inventory " +
+            "WHERE product_id = :productId ORDER BY warehouse_id FOR UPDATE",
+            nativeQuery = true)
+    List<LockedStock> lockStockByProductId(@Param("productId") UUID productId);
+
+    // Curseur serveur pour l'export : lu par paquets de 500 lignes, entités en lecture seule
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Inventory i ORDER BY i.createdAt, i.id")
+    Stream<Inventory> streamAllForExport();
+
+    // Projections InventoryRow : lecture seule, hors contexte de persistance
+    @Query("SELECT new com.example.demo.dto.InventoryRow(i.id, i.createdAt, i.qtyOnHand, i.qtyReserved, " +
+            "i.referenceDocument, i.warehouse.id, i.product.id) " +
+            "FROM Inventory i " +
+            "ORDER BY i.createdAt ASC, i.id ASC")
+    List<InventoryRow> findRowsFirstPage(Pageable pageable);
+
+    @Query("SELECT new com.example.demo.dto.InventoryRow(i.id, i.createdAt, i.qtyOnHand, i.qtyReserved, " +
+            "i.referenceDocument, i.warehouse.id, i.product.id) " +
+            "FROM Inventory i " +
+            "WHERE (i.createdAt, i.id) > (:createdAt, :id) " +
+            "ORDER BY i.createdAt ASC, i.id ASC")
+    List<InventoryRow> findRowsAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.demo.dto.InventoryRow(i.id, i.createdAt, i.qtyOnHand, " +
+            "i.qtyReserved, i.referenceDocument, i.warehouse.id, i.product.id) " +
+            "FROM Inventory i",
+            countQuery = "SELECT COUNT(i) FROM Inventory i")
+    Page<InventoryRow> findRows(Pageable pageable);
+
+    @Query("SELECT new com.example.demo.dto.InventoryRow(i.id, i.createdAt, i.qtyOnHand, i.qtyReserved, " +
+            "i.referenceDocument, i.warehouse.id, i.product.id) " +
+            "FROM Inventory i WHERE i.id = :id")
+    Optional<InventoryRow> findRowById(@Param("id") UUID id);
+
+    @Query("SELECT new com.example.demo.dto.InventoryRow(i.id, i.createdAt, i.qtyOnHand, i.qtyReserved, " +
+            "i.referenceDocument, i.warehouse.id, i.product.id) " +
+            "FROM Inventory i WHERE i.product.id IN :productIds")
+    List<InventoryRow> findRowsByProductIdIn(@Param("productIds") Collection<UUID> productIds);
 }
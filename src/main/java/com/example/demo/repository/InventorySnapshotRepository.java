@@ -0,0 +1,41 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.InventoryQuantity;
+import com.example.demo.entity.InventorySnapshot;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Insertions par BulkInsertRepository, comme le journal
+@org.springframework.stereotype.Repository
+public interface InventorySnapshotRepository extends Repository<InventorySnapshot, UUID> {
+
+    // Dernier tour de snapshot (tous les inventaires d'un tour partagent le même takenAt)
+    @Query("SELECT MAX(s.takenAt) FROM InventorySnapshot s")
+    Optional<LocalDateTime> findLastTakenAt();
+
+    @Query("SELECT MAX(s.takenAt) FROM InventorySnapshot s WHERE s.takenAt <= :horizon")
+    Optional<LocalDateTime> findLastTakenAtUpTo(@Param("horizon") LocalDateTime horizon);
+
+    Optional<InventorySnapshot> findFirstByInventoryIdAndTakenAtLessThanEqualOrderByTakenAtDesc(UUID inventoryId,
+                                                                                                 LocalDateTime asOf);
+
+    @Query("SELECT new com.example.demo.dto.InventoryQuantity(s.inventory.id, s.qtyOnHand) " +
+            "FROM InventorySnapshot s " +
+            "WHERE s.inventory.id IN :inventoryIds AND s.takenAt = (" +
+            "SELECT MAX(s2.takenAt) FROM InventorySnapshot s2 WHERE s2.inventory.id = s.inventory.id)")
+    List<InventoryQuantity> findLatestQuantities(@Param("inventoryIds") Collection<UUID> inventoryIds);
+
+    long countByInventoryId(UUID inventoryId);
+
+    @Modifying
+    @Query("DELETE FROM InventorySnapshot s WHERE s.inventory.id = :inventoryId")
+    int deleteByInventoryId(@Param("inventoryId") UUID inventoryId);
+}
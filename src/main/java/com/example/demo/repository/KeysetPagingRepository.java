@@ -0,0 +1,25 @@
+package com.example.demo.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Pagination par clé (createdAt, id) : index (created_at, id) requis sur l'entité.
+// Comparaison de ligne (created_at, id) > (?, ?) : la base en fait une borne de parcours de l'index,
+// la page N coûte comme la page 1 (la forme OR se filtre ligne à ligne)
+@NoRepositoryBean
+public interface KeysetPagingRepository<T> {
+
+    @Query("SELECT e FROM #{#entityName} e ORDER BY e.createdAt ASC, e.id ASC")
+    List<T> findFirstPage(Pageable pageable);
+
+    @Query("SELECT e FROM #{#entityName} e " +
+            "WHERE (e.createdAt, e.id) > (:createdAt, :id) " +
+            "ORDER BY e.createdAt ASC, e.id ASC")
+    List<T> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+}
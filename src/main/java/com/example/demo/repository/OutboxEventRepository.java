@@ -0,0 +1,35 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED : deux relais ne livrent jamais le même lot.
+    // Un lot en échec garde ses séquences et repart en tête, avant les événements encore sans séquence
+    @Query(value = "SELECT * FROM outbox_event WHERE published_at IS NULL " +
+            "ORDER BY delivery_sequence NULLS LAST, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockUnpublished(@Param("limit") int limit);
+
+    // Reprise d'un abonné : tout événement ayant reçu une séquence de livraison après celle-ci
+    @Query("SELECT e FROM OutboxEvent e WHERE e.deliverySequence > :after AND e.eventType IN :types " +
+            "ORDER BY e.deliverySequence")
+    List<OutboxEvent> findAfter(@Param("after") Long after, @Param("types") Collection<String> types, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    long findMaxId();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :horizon")
+    int deletePublishedBefore(@Param("horizon") LocalDateTime horizon);
+}
@@ -0,0 +1,17 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.OutboxSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxSequenceRepository extends JpaRepository<OutboxSequence, String> {
+
+    // SQL natif : le dialecte PostgreSQL génère FOR NO KEY UPDATE que H2 refuse
+    @Query(value = "SELECT * FROM outbox_sequence WHERE name = :name FOR UPDATE", nativeQuery = true)
+    Optional<OutboxSequence> lockByName(@Param("name") String name);
+}
@@ -1,14 +1,57 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.ProductRow;
 import com.example.demo.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, KeysetPagingRepository<Product> {
     Optional<Product> findBySku(String sku);
     boolean existsBySku(String sku);
-}
\ No newline at end of file
+
+    // Projections ProductRow : lecture seule, hors contexte de persistance
+    @Query("SELECT new com.example.demo.dto.ProductRow(p.id, p.createdAt, p.name, p.description, p.sku, " +
+            "p.price, p.status) " +
+            "FROM Product p " +
+            "ORDER BY p.createdAt ASC, p.id ASC")
+    List<ProductRow> findRowsFirstPage(Pageable pageable);
+
+    @Query("SELECT new com.example.demo.dto.ProductRow(p.id, p.createdAt, p.name, p.description, p.sku, " +
+            "p.price, p.status) " +
+            "FROM Product p " +
+            "WHERE (p.createdAt, p.id) > (:createdAt, :id) " +
+            "ORDER BY p.createdAt ASC, p.id ASC")
+    List<ProductRow> findRowsAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.demo.dto.ProductRow(p.id, p.createdAt, p.name, p.description, " +
+            "p.sku, p.price, p.status) " +
+            "FROM Product p",
+            countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductRow> findRows(Pageable pageable);
+
+    @Query("SELECT new com.example.demo.dto.ProductRow(p.id, p.createdAt, p.name, p.description, p.sku, " +
+            "p.price, p.status) " +
+            "FROM Product p WHERE p.id = :id")
+    Optional<ProductRow> findRowById(@Param("id") UUID id);
+
+    @Query("SELECT new com.example.demo.dto.ProductRow(p.id, p.createdAt, p.name, p.description, p.sku, " +
+            "p.price, p.status) " +
+            "FROM Product p WHERE p.sku = :sku")
+    Optional<ProductRow> findRowBySku(@Param("sku") String sku);
+
+    @Query("SELECT new com.example.demo.dto.ProductRow(p.id, p.createdAt, p.name, p.description, p.sku, " +
+            "p.price, p.status) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<ProductRow> findRowsByIdIn(@Param("ids") Collection<UUID> ids);
+}
@@ -1,9 +1,13 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.PurchaseOrderLineRow;
 import com.example.demo.entity.PurchaseOrderLine;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +15,12 @@ import java.util.UUID;
 public interface PurchaseOrderLineRepository extends JpaRepository<PurchaseOrderLine, UUID> {
     List<PurchaseOrderLine> findByPurchaseOrderId(UUID purchaseOrderId);
     void deleteByPurchaseOrderId(UUID purchaseOrderId);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.example.demo.dto.PurchaseOrderLineRow(l.purchaseOrder.id, l.id, p.id, p.name, p.sku, " +
+            "l.quantity, l.backorder, l.unitPrice) FROM PurchaseOrderLine l JOIN l.product p " +
+            "WHERE l.purchaseOrder.id IN :purchaseOrderIds")
+    List<PurchaseOrderLineRow> findRowsByPurchaseOrderIdIn(@Param("purchaseOrderIds") Collection<UUID> purchaseOrderIds);
+
+    @Query("SELECT DISTINCT l.product.id FROM PurchaseOrderLine l WHERE l.purchaseOrder.id = :purchaseOrderId")
+    List<UUID> findProductIdsByPurchaseOrderId(@Param("purchaseOrderId") UUID purchaseOrderId);
+}
@@ -1,24 +1,39 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.PurchaseOrderRow;
 import com.example.demo.entity.PurchaseOrder;
 import com.example.demo.enums.PurchaseOrderStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, UUID> {
+public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, UUID>, KeysetPagingRepository<PurchaseOrder> {
 
+    // PurchaseOrderMapper parcourt orderLines puis product : tout est chargé dans la même requête
+    @EntityGraph(attributePaths = {"orderLines", "orderLines.product"})
     List<PurchaseOrder> findBySupplierId(UUID supplierId);
 
+    @EntityGraph(attributePaths = {"orderLines", "orderLines.product"})
     List<PurchaseOrder> findByStatus(PurchaseOrderStatus status);
 
+    @EntityGraph(attributePaths = {"orderLines", "orderLines.product"})
     List<PurchaseOrder> findByCreatedById(UUID userId);
 
+    @EntityGraph(attributePaths = {"orderLines", "orderLines.product"})
+    @Query("SELECT po FROM PurchaseOrder po WHERE po.id = :id")
+    Optional<PurchaseOrder> findWithLinesById(@Param("id") UUID id);
+
     @Query("SELECT po FROM PurchaseOrder po WHERE po.createdBy.id = :userId")
     List<PurchaseOrder> findByCreatedByUser(@Param("userId") UUID userId);
 
@@ -27,4 +42,35 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, UU
 
     @Query("SELECT po FROM PurchaseOrder po WHERE po.expectedDelivery < CURRENT_DATE AND po.status IN :statuses")
     List<PurchaseOrder> findOverdueOrders(@Param("statuses") List<PurchaseOrderStatus> statuses);
-}
\ No newline at end of file
+
+    // Projections PurchaseOrderRow : lecture seule, hors contexte de persistance
+    @Query("SELECT new com.example.demo.dto.PurchaseOrderRow(po.id, po.createdAt, po.supplier.id, " +
+            "po.createdBy.id, po.approvedBy.id, po.status, po.expectedDelivery) " +
+            "FROM PurchaseOrder po " +
+            "ORDER BY po.createdAt ASC, po.id ASC")
+    List<PurchaseOrderRow> findRowsFirstPage(Pageable pageable);
+
+    @Query("SELECT new com.example.demo.dto.PurchaseOrderRow(po.id, po.createdAt, po.supplier.id, " +
+            "po.createdBy.id, po.approvedBy.id, po.status, po.expectedDelivery) " +
+            "FROM PurchaseOrder po " +
+            "WHERE (po.createdAt, po.id) > (:createdAt, :id) " +
+            "ORDER BY po.createdAt ASC, po.id ASC")
+    List<PurchaseOrderRow> findRowsAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.demo.dto.PurchaseOrderRow(po.id, po.createdAt, po.supplier.id, " +
+            "po.createdBy.id, po.approvedBy.id, po.status, po.expectedDelivery) " +
+            "FROM PurchaseOrder po",
+            countQuery = "SELECT COUNT(po) FROM PurchaseOrder po")
+    Page<PurchaseOrderRow> findRows(Pageable pageable);
+
+    @Query("SELECT new com.example.demo.dto.PurchaseOrderRow(po.id, po.createdAt, po.supplier.id, " +
+            "po.createdBy.id, po.approvedBy.id, po.status, po.expectedDelivery) " +
+            "FROM PurchaseOrder po WHERE po.id = :id")
+    Optional<PurchaseOrderRow> findRowById(@Param("id") UUID id);
+
+    // Transition vers RECEIVED en UPDATE conditionnel : une seule transaction concurrente obtient la ligne
+    @Modifying
+    @Query("UPDATE PurchaseOrder po SET po.status = com.example.demo.enums.PurchaseOrderStatus.RECEIVED " +
+            "WHERE po.id = :id AND po.status <> com.example.demo.enums.PurchaseOrderStatus.RECEIVED")
+    int markReceived(@Param("id") UUID id);
+}
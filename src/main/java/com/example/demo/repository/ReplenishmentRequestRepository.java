@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ReplenishmentRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ReplenishmentRequestRepository extends JpaRepository<ReplenishmentRequest, UUID> {
+
+    // SKIP LOCKED : plusieurs instances peuvent vider l'outbox sans traiter deux fois une demande
+    @Query(value = "SELECT * FROM replenishment_request WHERE requested_at <= :upTo " +
+            "ORDER BY requested_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ReplenishmentRequest> lockPending(@Param("upTo") LocalDateTime upTo, @Param("limit") int limit);
+}
@@ -1,14 +1,38 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.SalesOrderLineDTO;
 import com.example.demo.entity.SalesOrderLine;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface SalesOrderLineRepository extends JpaRepository<SalesOrderLine, UUID> {
+public interface SalesOrderLineRepository extends JpaRepository<SalesOrderLine, UUID>, KeysetPagingRepository<SalesOrderLine> {
     List<SalesOrderLine> findBySalesOrderId(UUID salesOrderId);
     List<SalesOrderLine> findByProductId(UUID productId);
-}
\ No newline at end of file
+
+    // Projections lisant directement les colonnes de clé étrangère : aucune association chargée
+    @Query("SELECT new com.example.demo.dto.SalesOrderLineDTO(l.id, l.product.id, l.salesOrder.id, l.quantity, " +
+            "l.unitPrice, l.backorder) FROM SalesOrderLine l WHERE l.salesOrder.id = :salesOrderId")
+    List<SalesOrderLineDTO> findDtosBySalesOrderId(@Param("salesOrderId") UUID salesOrderId);
+
+    @Query("SELECT new com.example.demo.dto.SalesOrderLineDTO(l.id, l.product.id, l.salesOrder.id, l.quantity, " +
+            "l.unitPrice, l.backorder) FROM SalesOrderLine l WHERE l.product.id = :productId")
+    List<SalesOrderLineDTO> findDtosByProductId(@Param("productId") UUID productId);
+
+    // Curseur serveur pour l'export : lu par paquets de 500 lignes, entités en lecture seule
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM SalesOrderLine l ORDER BY l.createdAt, l.id")
+    Stream<SalesOrderLine> streamAllForExport();
+}
@@ -7,5 +7,5 @@ import org.springframework.stereotype.Repository;
 import java.util.UUID;
 
 @Repository
-public interface SalesOrderRepository extends JpaRepository<SalesOrder, UUID> {
+public interface SalesOrderRepository extends JpaRepository<SalesOrder, UUID>, KeysetPagingRepository<SalesOrder> {
 }
\ No newline at end of file
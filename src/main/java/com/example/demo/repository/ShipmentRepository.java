@@ -1,17 +1,75 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.ShipmentDTO;
+import com.example.demo.dto.ShipmentRow;
 import com.example.demo.entity.Shipment;
 import com.example.demo.enums.ShipmentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ShipmentRepository extends JpaRepository<Shipment, UUID> {
+public interface ShipmentRepository extends JpaRepository<Shipment, UUID>, KeysetPagingRepository<Shipment> {
     List<Shipment> findBySalesOrderId(UUID salesOrderId);
     List<Shipment> findByCarrierId(UUID carrierId);
     List<Shipment> findByStatus(ShipmentStatus status);
     boolean existsByTrackingNumber(String trackingNumber);
-}
\ No newline at end of file
+
+    // Projections lisant directement les colonnes de clé étrangère : aucune association chargée
+    @Query("SELECT new com.example.demo.dto.ShipmentDTO(s.id, s.trackingNumber, s.status, s.plannedDate, " +
+            "s.shippedDate, s.deliveredDate, s.salesOrder.id, s.carrier.id) FROM Shipment s WHERE s.salesOrder.id = :salesOrderId")
+    List<ShipmentDTO> findDtosBySalesOrderId(@Param("salesOrderId") UUID salesOrderId);
+
+    @Query("SELECT new com.example.demo.dto.ShipmentDTO(s.id, s.trackingNumber, s.status, s.plannedDate, " +
+            "s.shippedDate, s.deliveredDate, s.salesOrder.id, s.carrier.id) FROM Shipment s WHERE s.carrier.id = :carrierId")
+    List<ShipmentDTO> findDtosByCarrierId(@Param("carrierId") UUID carrierId);
+
+    @Query("SELECT new com.example.demo.dto.ShipmentDTO(s.id, s.trackingNumber, s.status, s.plannedDate, " +
+            "s.shippedDate, s.deliveredDate, s.salesOrder.id, s.carrier.id) FROM Shipment s WHERE s.status = :status")
+    List<ShipmentDTO> findDtosByStatus(@Param("status") ShipmentStatus status);
+
+    // Curseur serveur pour l'export : lu par paquets de 500 lignes, entités en lecture seule
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Shipment s ORDER BY s.createdAt, s.id")
+    Stream<Shipment> streamAllForExport();
+
+    // Projections ShipmentRow : lecture seule, hors contexte de persistance
+    @Query("SELECT new com.example.demo.dto.ShipmentRow(s.id, s.createdAt, s.trackingNumber, s.status, " +
+            "s.plannedDate, s.shippedDate, s.deliveredDate, s.salesOrder.id, s.carrier.id) " +
+            "FROM Shipment s " +
+            "ORDER BY s.createdAt ASC, s.id ASC")
+    List<ShipmentRow> findRowsFirstPage(Pageable pageable);
+
+    @Query("SELECT new com.example.demo.dto.ShipmentRow(s.id, s.createdAt, s.trackingNumber, s.status, " +
+            "s.plannedDate, s.shippedDate, s.deliveredDate, s.salesOrder.id, s.carrier.id) " +
+            "FROM Shipment s " +
+            "WHERE (s.createdAt, s.id) > (:createdAt, :id) " +
+            "ORDER BY s.createdAt ASC, s.id ASC")
+    List<ShipmentRow> findRowsAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.demo.dto.ShipmentRow(s.id, s.createdAt, s.trackingNumber, " +
+            "s.status, s.plannedDate, s.shippedDate, s.deliveredDate, s.salesOrder.id, s.carrier.id) " +
+            "FROM Shipment s",
+            countQuery = "SELECT COUNT(s) FROM Shipment s")
+    Page<ShipmentRow> findRows(Pageable pageable);
+
+    @Query("SELECT new com.example.demo.dto.ShipmentRow(s.id, s.createdAt, s.trackingNumber, s.status, " +
+            "s.plannedDate, s.shippedDate, s.deliveredDate, s.salesOrder.id, s.carrier.id) " +
+            "FROM Shipment s WHERE s.id = :id")
+    Optional<ShipmentRow> findRowById(@Param("id") UUID id);
+}
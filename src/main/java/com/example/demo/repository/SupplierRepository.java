@@ -20,4 +20,7 @@ public interface SupplierRepository extends JpaRepository<Supplier, UUID> {
     List<Supplier> findByActiveFalse();
 
     List<Supplier> findByNameContainingIgnoreCase(String name);
+
+    // Fournisseur par défaut du réapprovisionnement automatique, sans charger toute la table
+    Optional<Supplier> findFirstByOrderByIdAsc();
 }
\ No newline at end of file
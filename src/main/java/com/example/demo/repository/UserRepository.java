@@ -6,9 +6,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface UserRepository extends JpaRepository<User, UUID>
+public interface UserRepository extends JpaRepository<User, UUID>, KeysetPagingRepository<User>
 {
     boolean existsByEmail(String email);
     Optional<User> findByEmail(String email);
 
+    Optional<User> findFirstByOrderByIdAsc();
+
 }
@@ -0,0 +1,48 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.CarrierRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Remise à zéro des compteurs journaliers des transporteurs à leur heure limite (cutOffTime).
+ * L'état est en base (Carrier.lastResetDate) : un transporteur est remis à zéro quand l'heure limite
+ * du jour est passée et que lastResetDate est antérieur, ce qui rend le tour idempotent entre instances
+ * et rattrape une heure limite tombée pendant un arrêt (celle de la veille si celle du jour n'est pas atteinte).
+ */
+@Slf4j
+@Component
+public class CarrierCapacityResetter {
+
+    private final CarrierRepository carrierRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public CarrierCapacityResetter(CarrierRepository carrierRepository, TransactionTemplate transactionTemplate) {
+        this.carrierRepository = carrierRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(cron = "${carrier.capacity.reset-cron:0 * * * * *}")
+    public void resetDue() {
+        resetDue(LocalDateTime.now());
+    }
+
+    // Sans verrou : deux tours concurrents (même JVM ou non) se départagent sur lastResetDate
+    public int resetDue(LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        LocalTime time = now.toLocalTime();
+        Integer reset = transactionTemplate.execute(status ->
+                carrierRepository.resetDailyShipmentsMissedOn(today.minusDays(1), time)
+                        + carrierRepository.resetDailyShipmentsDueOn(today, time));
+        if (reset != null && reset > 0) {
+            log.info("Capacité journalière remise à zéro pour {} transporteurs ({})", reset, now);
+        }
+        return reset == null ? 0 : reset;
+    }
+}
@@ -21,5 +21,6 @@ public interface CarrierService {
     void deleteCarrier(UUID id);
     CarrierDTO updateCarrierStatus(UUID id, CarrierStatus status);
     CarrierDTO incrementDailyShipments(UUID id);
+    UUID reserveCapacity(UUID preferredCarrierId);
     CarrierDTO resetDailyShipments(UUID id);
 }
\ No newline at end of file
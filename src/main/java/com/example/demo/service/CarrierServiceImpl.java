@@ -140,16 +140,40 @@ public class CarrierServiceImpl implements CarrierService {
     @Override
     @Transactional
     public CarrierDTO incrementDailyShipments(UUID id) {
-        Carrier carrier = carrierRepository.findById(id)
+        if (carrierRepository.reserveCapacity(id) == 0) {
+            throw unavailable(id);
+        }
+        Carrier updatedCarrier = carrierRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transporteur non trouvé avec l'id: " + id));
+        return carrierMapper.toDTO(updatedCarrier);
+    }
 
-        if (carrier.getCurrentDailyShipments() >= carrier.getMaxDailyCapacity()) {
-            throw new RuntimeException("Capacité quotidienne maximale atteinte pour le transporteur: " + carrier.getName());
+    // Place prise par UPDATE conditionnel (pas de lecture-comparaison-écriture) ;
+    // transporteur plein ou inactif : repli sur le moins cher des transporteurs qui ont encore de la place
+    @Override
+    @Transactional
+    public UUID reserveCapacity(UUID preferredCarrierId) {
+        if (carrierRepository.reserveCapacity(preferredCarrierId) == 1) {
+            return preferredCarrierId;
+        }
+        if (!carrierRepository.existsById(preferredCarrierId)) {
+            throw new RuntimeException("Transporteur non trouvé avec l'id: " + preferredCarrierId);
         }
+        for (UUID candidate : carrierRepository.findIdsWithRemainingCapacity()) {
+            if (!candidate.equals(preferredCarrierId) && carrierRepository.reserveCapacity(candidate) == 1) {
+                return candidate;
+            }
+        }
+        throw new RuntimeException("Aucun transporteur disponible: capacité quotidienne atteinte pour tous les transporteurs actifs");
+    }
 
-        carrier.setCurrentDailyShipments(carrier.getCurrentDailyShipments() + 1);
-        Carrier updatedCarrier = carrierRepository.save(carrier);
-        return carrierMapper.toDTO(updatedCarrier);
+    private RuntimeException unavailable(UUID id) {
+        Carrier carrier = carrierRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Transporteur non trouvé avec l'id: " + id));
+        if (carrier.getStatus() != CarrierStatus.ACTIVE) {
+            return new RuntimeException("Transporteur inactif: " + carrier.getName());
+        }
+        return new RuntimeException("Capacité quotidienne maximale atteinte pour le transporteur: " + carrier.getName());
     }
 
     @Override
@@ -0,0 +1,65 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.dto.StockLevelDTO;
+import com.example.demo.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.allocation.mode", havingValue = "database", matchIfMissing = true)
+public class DatabaseStockAllocator implements StockAllocator {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private final InventoryRepository inventoryRepository;
+
+    @Override
+    public StockAllocation allocate(UUID productId, int quantity) {
+        List<StockAllocation.Part> parts = new ArrayList<>();
+        int remaining = quantity;
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && remaining > 0; attempt++) {
+            List<StockLevelDTO> levels = inventoryRepository.findStockLevelsByProductId(productId);
+            if (levels.isEmpty() && attempt == 0) {
+                throw new RuntimeException("Aucun inventaire trouvé pour le produit id: " + productId);
+            }
+
+            boolean contended = false;
+            for (StockLevelDTO level : levels) {
+                if (remaining <= 0) break;
+                int take = Math.min(level.qtyOnHand() == null ? 0 : level.qtyOnHand(), remaining);
+                if (take <= 0) continue;
+
+                if (inventoryRepository.decrementQtyOnHand(productId, level.warehouseId(), take) == 1) {
+                    parts.add(new StockAllocation.Part(level.warehouseId(), take));
+                    remaining -= take;
+                } else {
+                    contended = true;
+                }
+            }
+            if (!contended) break;
+        }
+
+        return new StockAllocation(productId, quantity, parts);
+    }
+
+    @Override
+    public UUID receive(UUID productId, int quantity) {
+        List<StockLevelDTO> levels = inventoryRepository.findStockLevelsByProductId(productId);
+        if (levels.isEmpty()) {
+            throw new RuntimeException("Inventaire non trouvé pour le produit: " + productId);
+        }
+        UUID warehouseId = levels.get(0).warehouseId();
+        if (inventoryRepository.adjustQtyOnHand(productId, warehouseId, quantity) == 0) {
+            throw new RuntimeException("Inventaire non trouvé pour le produit: " + productId);
+        }
+        return warehouseId;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DomainEvent;
+
+import java.util.List;
+
+/**
+ * Destination des événements relayés depuis outbox_event. Un lot peut être relivré
+ * après un échec : les implémentations s'appuient sur {@link DomainEvent#sequence()} pour dédoublonner.
+ */
+public interface EventSink {
+
+    String name();
+
+    void deliver(List<DomainEvent> events) throws Exception;
+}
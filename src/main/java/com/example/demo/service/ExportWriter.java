@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+import com.example.demo.enums.ExportFormat;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Écrit un flux d'entités en NDJSON ou CSV, ligne par ligne. Le contexte de persistance
+ * est vidé tous les {@code export.clear-interval} éléments pour que la mémoire reste
+ * constante quelle que soit la taille de la table. À appeler dans une transaction.
+ */
+@Component
+public class ExportWriter {
+
+    private static final TypeReference<Map<String, Object>> ROW = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final int clearInterval;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ExportWriter(ObjectMapper objectMapper,
+                        @Value("${export.clear-interval:500}") int clearInterval) {
+        this.objectMapper = objectMapper;
+        this.clearInterval = clearInterval;
+    }
+
+    public <E, D> long write(Stream<E> rows, Function<E, D> mapper, ExportFormat format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        try {
+            Iterator<E> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                D dto = mapper.apply(iterator.next());
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, dto, count == 0);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+                if (++count % clearInterval == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Échec de l'export après " + count + " lignes", e);
+        }
+        return count;
+    }
+
+    private void writeCsv(Writer writer, Object dto, boolean header) throws IOException {
+        Map<String, Object> fields = objectMapper.convertValue(dto, ROW);
+        if (header) {
+            writer.write(String.join(",", fields.keySet()));
+            writer.write('\n');
+        }
+        boolean first = true;
+        for (Object value : fields.values()) {
+            if (!first) writer.write(',');
+            writer.write(escapeCsv(value));
+            first = false;
+        }
+        writer.write('\n');
+    }
+
+    static String escapeCsv(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DomainEvent;
+import com.example.demo.dto.InventoryRow;
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.dto.StockChangedEvent;
+import com.example.demo.entity.Inventory;
+import com.example.demo.entity.InventoryMovement;
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.repository.BulkInsertRepository;
+import com.example.demo.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Journal append-only des mouvements de stock (table inventory_movement).
+ * Les mouvements d'une transaction sont gardés en tampon puis insérés en un seul lot JDBC
+ * juste avant le commit : ils sont validés ou annulés avec la mutation de stock qu'ils décrivent.
+ * Chaque mouvement est aussi publié dans l'outbox ({@link DomainEvent#STOCK_CHANGED}).
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryJournal {
+
+    private final BulkInsertRepository bulkInsertRepository;
+    private final InventoryRepository inventoryRepository;
+    private final OutboxPublisher outboxPublisher;
+
+    // Une sortie par entrepôt débité
+    public void recordAllocation(StockAllocation allocation, String reference, String description) {
+        for (StockAllocation.Part part : allocation.parts()) {
+            append(new Entry(null, allocation.productId(), part.warehouseId(), -part.quantity(), reference, description));
+        }
+    }
+
+    // Un seul mouvement, sur l'entrepôt crédité par StockAllocator.receive
+    public void recordReceipt(UUID productId, UUID warehouseId, int quantity, String reference, String description) {
+        append(new Entry(null, productId, warehouseId, quantity, reference, description));
+    }
+
+    public void recordAdjustment(Inventory inventory, int delta, String reference, String description) {
+        if (delta == 0) return;
+        append(new Entry(inventory.getId(), inventory.getProduct().getId(), inventory.getWarehouse().getId(),
+                delta, reference, description));
+    }
+
+    private void append(Entry entry) {
+        pending().add(entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Entry> pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Le journal de stock doit être écrit dans une transaction");
+        }
+        List<Entry> pending = (List<Entry>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Entry> entries = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, entries);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(entries);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InventoryJournal.this);
+                }
+            });
+            pending = entries;
+        }
+        return pending;
+    }
+
+    private void write(List<Entry> entries) {
+        if (entries.isEmpty()) return;
+
+        // Résolution (produit, entrepôt) -> inventaire en une requête pour toute la transaction
+        Set<UUID> productIds = entries.stream()
+                .filter(entry -> entry.inventoryId() == null)
+                .map(Entry::productId)
+                .collect(Collectors.toSet());
+        Map<UUID, List<InventoryRow>> inventoriesByProduct = productIds.isEmpty()
+                ? Collections.emptyMap()
+                : inventoryRepository.findRowsByProductIdIn(productIds).stream()
+                        .collect(Collectors.groupingBy(InventoryRow::productId));
+
+        List<InventoryMovement> movements = new ArrayList<>();
+        List<OutboxEvent> events = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.inventoryId() != null) {
+                movements.add(toMovement(entry, entry.inventoryId()));
+                events.add(toEvent(entry, entry.inventoryId(), entry.warehouseId()));
+                continue;
+            }
+            for (InventoryRow inventory : inventoriesByProduct.getOrDefault(entry.productId(), List.of())) {
+                if (entry.warehouseId() == null || entry.warehouseId().equals(inventory.warehouseId())) {
+                    movements.add(toMovement(entry, inventory.id()));
+                    events.add(toEvent(entry, inventory.id(), inventory.warehouseId()));
+                }
+            }
+        }
+        entries.clear();
+        bulkInsertRepository.insertInventoryMovements(movements);
+        outboxPublisher.publishAll(events);
+    }
+
+    private OutboxEvent toEvent(Entry entry, UUID inventoryId, UUID warehouseId) {
+        return outboxPublisher.toEvent(DomainEvent.STOCK_CHANGED, "inventory", inventoryId,
+                new StockChangedEvent(inventoryId, entry.productId(), warehouseId, entry.quantity(),
+                        entry.reference(), entry.description()));
+    }
+
+    private InventoryMovement toMovement(Entry entry, UUID inventoryId) {
+        InventoryMovement movement = new InventoryMovement();
+        movement.setInventory(inventoryRepository.getReferenceById(inventoryId));
+        movement.setQuantity(entry.quantity());
+        movement.setOccurredAt(entry.occurredAt());
+        movement.setReferenceDocument(entry.reference());
+        movement.setDescription(entry.description());
+        return movement;
+    }
+
+    private record Entry(UUID inventoryId, UUID productId, UUID warehouseId, int quantity,
+                         String reference, String description, LocalDateTime occurredAt) {
+
+        private Entry(UUID inventoryId, UUID productId, UUID warehouseId, int quantity,
+                      String reference, String description) {
+            this(inventoryId, productId, warehouseId, quantity, reference, description, LocalDateTime.now());
+        }
+    }
+}
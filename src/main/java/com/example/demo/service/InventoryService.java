@@ -1,14 +1,22 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.InventoryDTO;
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
+import com.example.demo.dto.StockAsOfDTO;
+import com.example.demo.enums.ExportFormat;
 
-import java.util.List;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public interface InventoryService {
     InventoryDTO createInventory(InventoryDTO inventoryDTO);
     InventoryDTO getInventoryById(UUID id);
-    List<InventoryDTO> getAllInventories();
+    PageResponse<InventoryDTO> getAllInventories(PageQuery query);
     InventoryDTO updateInventory(UUID id, InventoryDTO inventoryDTO);
     void deleteInventory(UUID id);
-}
\ No newline at end of file
+    StockAsOfDTO getStockAsOf(UUID id, LocalDateTime asOf);
+
+    void exportInventories(ExportFormat format, OutputStream out);
+}
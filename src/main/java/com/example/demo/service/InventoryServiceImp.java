@@ -1,20 +1,30 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.DomainEvent;
 import com.example.demo.dto.InventoryDTO;
+import com.example.demo.dto.InventoryRow;
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
+import com.example.demo.dto.ReservationChangedEvent;
+import com.example.demo.dto.StockAsOfDTO;
 import com.example.demo.entity.Inventory;
 import com.example.demo.entity.Product;
 import com.example.demo.entity.Warehouse;
+import com.example.demo.enums.ExportFormat;
 import com.example.demo.mapper.InventoryMapper;
+import com.example.demo.repository.InventoryMovementRepository;
 import com.example.demo.repository.InventoryRepository;
-import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.InventorySnapshotRepository;
 import com.example.demo.repository.WarehouseRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -22,11 +32,19 @@ public class InventoryServiceImp implements InventoryService {
 
     private final InventoryRepository inventoryRepository;
     private final WarehouseRepository warehouseRepository;
-    private final ProductRepository productRepository;
+    private final ProductCatalog productCatalog;
+    private final StockAllocator stockAllocator;
+    private final InventoryJournal inventoryJournal;
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final InventorySnapshotRepository inventorySnapshotRepository;
+    private final InventorySnapshotter inventorySnapshotter;
+    private final ExportWriter exportWriter;
+    private final OutboxPublisher outboxPublisher;
 
     private final InventoryMapper mapper = InventoryMapper.INSTANCE;
 
     @Override
+    @Transactional
     public InventoryDTO createInventory(InventoryDTO inventoryDTO) {
         Optional<Inventory> existingInventory = inventoryRepository
                 .findByProductIdAndWarehouseId(inventoryDTO.getProduct_id(), inventoryDTO.getWarehouse_id());
@@ -38,31 +56,41 @@ public class InventoryServiceImp implements InventoryService {
 
         Warehouse warehouse = warehouseRepository.findById(inventoryDTO.getWarehouse_id())
                 .orElseThrow(() -> new RuntimeException("Warehouse non trouvé"));
-        Product product = productRepository.findById(inventoryDTO.getProduct_id())
+        Product product = productCatalog.findReference(inventoryDTO.getProduct_id())
                 .orElseThrow(() -> new RuntimeException("Product non trouvé"));
         inventory.setWarehouse(warehouse);
         inventory.setProduct(product);
 
         Inventory saved = inventoryRepository.save(inventory);
+        stockAllocator.track(saved, qty(saved.getQtyOnHand()));
+        inventoryJournal.recordAdjustment(saved, qty(saved.getQtyOnHand()), saved.getReferenceDocument(), "Stock initial");
+        publishReservationChange(saved, qty(saved.getQtyReserved()));
         return mapper.toDTO(saved);
     }
 
     @Override
     public InventoryDTO getInventoryById(UUID id) {
-        Inventory inventory = inventoryRepository.findById(id)
+        return inventoryRepository.findRowById(id)
+                .map(InventoryRow::toDTO)
                 .orElseThrow(() -> new RuntimeException("Inventory non trouvé avec l'id: " + id));
-        return mapper.toDTO(inventory);
     }
 
     @Override
-    public List<InventoryDTO> getAllInventories() {
-        return inventoryRepository.findAll()
-                .stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
+    public PageResponse<InventoryDTO> getAllInventories(PageQuery query) {
+        return KeysetPaginator.paginateProjections(query, inventoryRepository::findRowsFirstPage,
+                inventoryRepository::findRowsAfter, inventoryRepository::findRows, InventoryRow::cursor, InventoryRow::toDTO);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void exportInventories(ExportFormat format, OutputStream out) {
+        try (Stream<Inventory> rows = inventoryRepository.streamAllForExport()) {
+            exportWriter.write(rows, mapper::toDTO, format, out);
+        }
+    }
+
+    @Override
+    @Transactional
     public InventoryDTO updateInventory(UUID id, InventoryDTO inventoryDTO) {
 
         Optional<Inventory> existingInventoryProducts = inventoryRepository
@@ -76,9 +104,11 @@ public class InventoryServiceImp implements InventoryService {
 
         Warehouse warehouse = warehouseRepository.findById(inventoryDTO.getWarehouse_id())
                 .orElseThrow(() -> new RuntimeException("Warehouse non trouvé"));
-        Product product = productRepository.findById(inventoryDTO.getProduct_id())
+        Product product = productCatalog.findReference(inventoryDTO.getProduct_id())
                 .orElseThrow(() -> new RuntimeException("Product non trouvé"));
 
+        int previousQty = qty(existingInventory.getQtyOnHand());
+        int previousReserved = qty(existingInventory.getQtyReserved());
         existingInventory.setQtyOnHand(inventoryDTO.getQtyOnHand());
         existingInventory.setQtyReserved(inventoryDTO.getQtyReserved());
         existingInventory.setReferenceDocument(inventoryDTO.getReferenceDocument());
@@ -86,13 +116,44 @@ public class InventoryServiceImp implements InventoryService {
         existingInventory.setProduct(product);
 
         Inventory updated = inventoryRepository.save(existingInventory);
+        stockAllocator.track(updated, qty(updated.getQtyOnHand()) - previousQty);
+        inventoryJournal.recordAdjustment(updated, qty(updated.getQtyOnHand()) - previousQty,
+                updated.getReferenceDocument(), "Ajustement manuel");
+        publishReservationChange(updated, qty(updated.getQtyReserved()) - previousReserved);
         return mapper.toDTO(updated);
     }
 
+    // Les variations de qtyOnHand passent par le journal ; qtyReserved n'est modifiée qu'ici
+    private void publishReservationChange(Inventory inventory, int delta) {
+        if (delta == 0) return;
+        outboxPublisher.publish(DomainEvent.RESERVATION_CHANGED, "inventory", inventory.getId(),
+                new ReservationChangedEvent(inventory.getId(), inventory.getProduct().getId(),
+                        inventory.getWarehouse().getId(), delta));
+    }
+
     @Override
+    @Transactional
     public void deleteInventory(UUID id) {
         Inventory inventory = inventoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Inventory non trouvé avec l'id: " + id));
+        inventorySnapshotRepository.deleteByInventoryId(id);
+        inventoryMovementRepository.deleteByInventoryId(id);
         inventoryRepository.delete(inventory);
+        if (inventory.getProduct() != null && inventory.getWarehouse() != null) {
+            stockAllocator.forget(inventory.getProduct().getId(), inventory.getWarehouse().getId());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockAsOfDTO getStockAsOf(UUID id, LocalDateTime asOf) {
+        if (!inventoryRepository.existsById(id)) {
+            throw new RuntimeException("Inventory non trouvé avec l'id: " + id);
+        }
+        return new StockAsOfDTO(id, asOf, inventorySnapshotter.stockAsOf(id, asOf));
+    }
+
+    private static int qty(Integer value) {
+        return value == null ? 0 : value;
     }
 }
@@ -0,0 +1,149 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.InventoryQuantity;
+import com.example.demo.entity.InventorySnapshot;
+import com.example.demo.repository.BulkInsertRepository;
+import com.example.demo.repository.InventoryMovementRepository;
+import com.example.demo.repository.InventoryRepository;
+import com.example.demo.repository.InventorySnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshots périodiques du stock par inventaire (produit, entrepôt) calculés depuis inventory_movement.
+ * Chaque tour marque les mouvements validés et pas encore comptés (snapshot_at = instant du tour),
+ * n'agrège que ceux-là et n'écrit une ligne que pour les inventaires qui ont bougé. Le marquage suit
+ * l'ordre des commits : un mouvement validé en retard est compté au tour suivant, jamais perdu.
+ * Le stock à une date T se lit comme dernier snapshot &lt;= T + mouvements survenus avant T
+ * que ce snapshot n'a pas comptés.
+ * Seuls les mouvements comptés dans un tour plus ancien que la rétention sont compactés :
+ * en deçà, l'historique n'est plus exact qu'aux instants des snapshots.
+ */
+@Slf4j
+@Component
+public class InventorySnapshotter {
+
+    // Borne basse du tout premier tour
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int LOOKUP_CHUNK = 1_000;
+
+    private final InventoryMovementRepository movementRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final InventoryRepository inventoryRepository;
+    private final BulkInsertRepository bulkInsertRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration commitLag;
+    private final Duration retention;
+    private final int compactionBatchSize;
+
+    public InventorySnapshotter(InventoryMovementRepository movementRepository,
+                                InventorySnapshotRepository snapshotRepository,
+                                InventoryRepository inventoryRepository,
+                                BulkInsertRepository bulkInsertRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${inventory.snapshot.commit-lag:1m}") Duration commitLag,
+                                @Value("${inventory.journal.retention:90d}") Duration retention,
+                                @Value("${inventory.journal.compaction-batch-size:10000}") int compactionBatchSize) {
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.bulkInsertRepository = bulkInsertRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.commitLag = commitLag;
+        this.retention = retention;
+        this.compactionBatchSize = compactionBatchSize;
+    }
+
+    // Le décalage laisse aux transactions en cours le temps de valider : moins de mouvements comptés en retard
+    @Scheduled(fixedDelayString = "${inventory.snapshot.interval-ms:3600000}",
+            initialDelayString = "${inventory.snapshot.interval-ms:3600000}")
+    public void takeSnapshots() {
+        takeSnapshots(LocalDateTime.now().minus(commitLag));
+    }
+
+    public int takeSnapshots(LocalDateTime at) {
+        // Précision des colonnes timestamp : évite qu'un arrondi place le snapshot après l'instant demandé
+        LocalDateTime cutoff = at.truncatedTo(ChronoUnit.MICROS);
+        Integer written = transactionTemplate.execute(status -> {
+            LocalDateTime from = snapshotRepository.findLastTakenAt().orElse(ORIGIN);
+            if (!cutoff.isAfter(from)) return 0;
+
+            if (movementRepository.markCounted(cutoff) == 0) return 0;
+            List<InventoryQuantity> deltas = movementRepository.sumQuantityByInventoryCountedAt(cutoff);
+
+            Map<UUID, Long> previous = latestQuantities(deltas);
+            List<InventorySnapshot> snapshots = new ArrayList<>(deltas.size());
+            for (InventoryQuantity delta : deltas) {
+                InventorySnapshot snapshot = new InventorySnapshot();
+                snapshot.setInventory(inventoryRepository.getReferenceById(delta.inventoryId()));
+                snapshot.setTakenAt(cutoff);
+                snapshot.setQtyOnHand(previous.getOrDefault(delta.inventoryId(), 0L) + delta.quantity());
+                snapshots.add(snapshot);
+            }
+            bulkInsertRepository.insertInventorySnapshots(snapshots);
+            return snapshots.size();
+        });
+        if (written != null && written > 0) {
+            log.info("Snapshot de stock à {}: {} inventaires", cutoff, written);
+        }
+        return written == null ? 0 : written;
+    }
+
+    public long stockAsOf(UUID inventoryId, LocalDateTime asOf) {
+        return snapshotRepository.findFirstByInventoryIdAndTakenAtLessThanEqualOrderByTakenAtDesc(inventoryId, asOf)
+                .map(snapshot -> snapshot.getQtyOnHand()
+                        + movementRepository.sumQuantityNotCountedIn(inventoryId, snapshot.getTakenAt(), asOf))
+                .orElseGet(() -> movementRepository.sumQuantityAsOf(inventoryId, asOf));
+    }
+
+    @Scheduled(cron = "${inventory.journal.compaction-cron:0 30 3 * * *}")
+    public void compactJournal() {
+        compactJournal(LocalDateTime.now().minus(retention));
+    }
+
+    // Supprime par lots les mouvements comptés jusqu'au dernier tour <= horizon ; ceux validés après restent
+    public long compactJournal(LocalDateTime horizon) {
+        Optional<LocalDateTime> boundary = snapshotRepository.findLastTakenAtUpTo(horizon);
+        if (boundary.isEmpty()) return 0;
+
+        long deleted = 0;
+        int chunk;
+        do {
+            Integer removed = transactionTemplate.execute(status ->
+                    movementRepository.deleteChunkCountedUpTo(boundary.get(), compactionBatchSize));
+            chunk = removed == null ? 0 : removed;
+            deleted += chunk;
+        } while (chunk == compactionBatchSize);
+
+        if (deleted > 0) {
+            log.info("Journal de stock compacté jusqu'à {}: {} mouvements supprimés", boundary.get(), deleted);
+        }
+        return deleted;
+    }
+
+    private Map<UUID, Long> latestQuantities(List<InventoryQuantity> deltas) {
+        Map<UUID, Long> latest = new HashMap<>();
+        for (int i = 0; i < deltas.size(); i += LOOKUP_CHUNK) {
+            List<UUID> ids = deltas.subList(i, Math.min(i + LOOKUP_CHUNK, deltas.size())).stream()
+                    .map(InventoryQuantity::inventoryId)
+                    .collect(Collectors.toList());
+            snapshotRepository.findLatestQuantities(ids)
+                    .forEach(quantity -> latest.put(quantity.inventoryId(), quantity.quantity()));
+        }
+        return latest;
+    }
+}
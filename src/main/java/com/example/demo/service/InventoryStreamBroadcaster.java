@@ -0,0 +1,267 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DomainEvent;
+import com.example.demo.repository.OutboxEventRepository;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Diffusion SSE des variations de stock (qtyOnHand, qtyReserved) reçues de l'outbox via le bus Spring.
+ * Les connexions sont des SseEmitter en mode async servlet : aucune ne retient de thread au repos.
+ * Chaque abonné a son propre tampon borné, vidé par un pool de writers de taille fixe (un par cœur par défaut) :
+ * un abonné n'occupe un writer que le temps d'un lot de trames, puis repasse en file derrière les autres.
+ * Un tampon plein ferme la connexion ; le client se reconnecte avec Last-Event-ID et rejoue
+ * ce qu'il a manqué depuis outbox_event.
+ * L'id SSE est la séquence de l'outbox ; les doublons entre rejeu et flux courant sont écartés par id.
+ */
+@Slf4j
+@Component
+public class InventoryStreamBroadcaster {
+
+    static final Set<String> STREAMED_TYPES = Set.of(DomainEvent.STOCK_CHANGED, DomainEvent.RESERVATION_CHANGED);
+
+    private static final long HEARTBEAT = -1;
+    private static final int DRAIN_BATCH = 64;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int replayLimit;
+    private final int bufferCapacity;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService writers;
+    private final Counter overflows;
+
+    public InventoryStreamBroadcaster(OutboxEventRepository outboxEventRepository,
+                                      ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${inventory.stream.timeout:30m}") Duration timeout,
+                                      @Value("${inventory.stream.replay-limit:1000}") int replayLimit,
+                                      @Value("${inventory.stream.buffer-capacity:1000}") int bufferCapacity,
+                                      @Value("${inventory.stream.writer-threads:0}") int writerThreads,
+                                      @Value("${inventory.stream.writer-queue:10000}") int writerQueue) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.replayLimit = replayLimit;
+        this.bufferCapacity = bufferCapacity;
+        AtomicInteger threads = new AtomicInteger();
+        int poolSize = writerThreads > 0 ? writerThreads : Runtime.getRuntime().availableProcessors();
+        // File bornée : au plus une tâche par abonné (draining), un refus laisse les trames au tampon
+        this.writers = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(writerQueue), runnable -> {
+            Thread thread = new Thread(runnable, "inventory-stream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.overflows = meterRegistry.counter("inventory.stream.overflows");
+        meterRegistry.gaugeCollectionSize("inventory.stream.subscribers", List.of(), subscriptions);
+    }
+
+    public SseEmitter subscribe(UUID warehouseId, UUID productId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(emitter, warehouseId, productId, lastEventId);
+        return emitter;
+    }
+
+    // Inscrit avant le rejeu : les événements reçus pendant la relecture attendent dans le tampon
+    void register(SseEmitter emitter, UUID warehouseId, UUID productId, Long lastEventId) {
+        Subscription subscription = new Subscription(emitter, warehouseId, productId, lastEventId, bufferCapacity);
+        emitter.onCompletion(() -> close(subscription));
+        emitter.onTimeout(() -> close(subscription));
+        emitter.onError(error -> close(subscription));
+        subscriptions.add(subscription);
+        schedule(subscription);
+    }
+
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        if (!STREAMED_TYPES.contains(event.type()) || subscriptions.isEmpty()) return;
+        InventoryKeys keys = keysOf(event);
+        Frame frame = null;
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.accepts(keys)) continue;
+            if (frame == null) frame = new Frame(event.sequence(), toSse(event));
+            offer(subscription, frame);
+        }
+    }
+
+    // Commentaire SSE périodique : garde les proxies ouverts et détecte les clients partis
+    @Scheduled(fixedDelayString = "${inventory.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Frame ping = new Frame(HEARTBEAT, SseEmitter.event().comment("ping"));
+        subscriptions.forEach(subscription -> offer(subscription, ping));
+    }
+
+    int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter().complete());
+    }
+
+    private void offer(Subscription subscription, Frame frame) {
+        if (!subscription.buffer.offer(frame)) {
+            // Tampon plein : on coupe plutôt que de perdre un événement sans que le client le sache
+            if (subscription.overflowed.compareAndSet(false, true)) {
+                overflows.increment();
+                log.warn("Tampon SSE plein ({} trames), connexion fermée pour reprise par Last-Event-ID", bufferCapacity);
+            }
+            subscriptions.remove(subscription);
+            subscription.buffer.clear();
+        }
+        schedule(subscription);
+    }
+
+    private void schedule(Subscription subscription) {
+        if (!subscription.draining.compareAndSet(false, true)) return;
+        try {
+            writers.execute(() -> drain(subscription));
+        } catch (RejectedExecutionException e) {
+            subscription.draining.set(false);
+        }
+    }
+
+    // Un seul writer à la fois par abonné : les trames partent dans l'ordre de réception
+    private void drain(Subscription subscription) {
+        try {
+            Long replayFrom = subscription.replayFrom;
+            if (replayFrom != null) {
+                subscription.replayFrom = null;
+                subscription.lastSequence = replayFrom;
+                replay(subscription, replayFrom);
+            }
+            Frame frame;
+            int sent = 0;
+            while (!subscription.overflowed.get() && sent < DRAIN_BATCH && (frame = subscription.buffer.poll()) != null) {
+                if (frame.sequence() != HEARTBEAT) {
+                    if (frame.sequence() <= subscription.lastSequence) continue;
+                    subscription.lastSequence = frame.sequence();
+                }
+                send(subscription, frame.sse());
+                sent++;
+            }
+            if (subscription.overflowed.get()) {
+                subscription.buffer.clear();
+                subscription.emitter().complete();
+                return;
+            }
+        } finally {
+            subscription.draining.set(false);
+        }
+        // Lot plein ou trames arrivées pendant l'envoi : retour en file, les autres abonnés passent d'abord
+        if (!subscription.buffer.isEmpty()) schedule(subscription);
+    }
+
+    private void replay(Subscription subscription, long lastEventId) {
+        List<DomainEvent> missed = outboxEventRepository
+                .findAfter(lastEventId, STREAMED_TYPES, PageRequest.ofSize(replayLimit + 1)).stream()
+                .map(DomainEvent::of)
+                .toList();
+        if (missed.size() > replayLimit) {
+            // Trop d'écart : le client doit recharger l'état complet puis reprendre au flux courant
+            send(subscription, SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON));
+            return;
+        }
+        for (DomainEvent event : missed) {
+            subscription.lastSequence = Math.max(subscription.lastSequence, event.sequence());
+            if (subscription.accepts(keysOf(event))) send(subscription, toSse(event));
+        }
+    }
+
+    private void send(Subscription subscription, SseEmitter.SseEventBuilder sse) {
+        try {
+            subscription.emitter().send(sse);
+        } catch (IOException | IllegalStateException e) {
+            close(subscription);
+            subscription.emitter().completeWithError(e);
+        }
+    }
+
+    private void close(Subscription subscription) {
+        subscriptions.remove(subscription);
+        subscription.buffer.clear();
+    }
+
+    private SseEmitter.SseEventBuilder toSse(DomainEvent event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.sequence()))
+                .name(event.type())
+                .data(event.payload(), MediaType.APPLICATION_JSON);
+    }
+
+    private InventoryKeys keysOf(DomainEvent event) {
+        try {
+            return objectMapper.readValue(event.payload(), InventoryKeys.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload d'inventaire illisible: " + event.sequence(), e);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record InventoryKeys(UUID productId, UUID warehouseId) {
+    }
+
+    private record Frame(long sequence, SseEmitter.SseEventBuilder sse) {
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final UUID warehouseId;
+        private final UUID productId;
+        private final BlockingQueue<Frame> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean overflowed = new AtomicBoolean();
+        private volatile Long replayFrom;
+        // Lu et écrit uniquement par le writer en cours (passage de main via draining)
+        private long lastSequence;
+
+        private Subscription(SseEmitter emitter, UUID warehouseId, UUID productId, Long replayFrom, int capacity) {
+            this.emitter = emitter;
+            this.warehouseId = warehouseId;
+            this.productId = productId;
+            this.replayFrom = replayFrom;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        boolean accepts(InventoryKeys keys) {
+            return (warehouseId == null || warehouseId.equals(keys.warehouseId()))
+                    && (productId == null || productId.equals(keys.productId()));
+        }
+    }
+}
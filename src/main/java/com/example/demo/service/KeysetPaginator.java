@@ -0,0 +1,95 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PageCursor;
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
+import com.example.demo.repository.KeysetPagingRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public final class KeysetPaginator {
+
+    private static final Sort CREATION_ORDER = Sort.by("createdAt", "id");
+
+    private KeysetPaginator() {
+    }
+
+    public static <E, D> PageResponse<D> paginate(PageQuery query,
+                                                  KeysetPagingRepository<E> repository,
+                                                  Function<Pageable, Page<E>> offsetFinder,
+                                                  Function<E, PageCursor> cursorOf,
+                                                  Function<E, D> mapper) {
+        return paginatePage(query, repository, offsetFinder, cursorOf,
+                rows -> rows.stream().map(mapper).collect(Collectors.toList()));
+    }
+
+    // Variante qui convertit la page entière d'un coup, pour charger les associations en une requête
+    public static <E, D> PageResponse<D> paginatePage(PageQuery query,
+                                                      KeysetPagingRepository<E> repository,
+                                                      Function<Pageable, Page<E>> offsetFinder,
+                                                      Function<E, PageCursor> cursorOf,
+                                                      Function<List<E>, List<D>> pageMapper) {
+        return paginateRows(query, repository::findFirstPage, repository::findPageAfter, offsetFinder, cursorOf, pageMapper);
+    }
+
+    // Lignes projetées (records XRow) converties une à une
+    public static <R, D> PageResponse<D> paginateProjections(PageQuery query,
+                                                             Function<Pageable, List<R>> firstPage,
+                                                             PageAfterFinder<R> pageAfter,
+                                                             Function<Pageable, Page<R>> offsetFinder,
+                                                             Function<R, PageCursor> cursorOf,
+                                                             Function<R, D> mapper) {
+        return paginateRows(query, firstPage, pageAfter, offsetFinder, cursorOf,
+                rows -> rows.stream().map(mapper).collect(Collectors.toList()));
+    }
+
+    // Forme générale : les lignes peuvent être des entités ou des projections (records)
+    public static <R, D> PageResponse<D> paginateRows(PageQuery query,
+                                                      Function<Pageable, List<R>> firstPage,
+                                                      PageAfterFinder<R> pageAfter,
+                                                      Function<Pageable, Page<R>> offsetFinder,
+                                                      Function<R, PageCursor> cursorOf,
+                                                      Function<List<R>, List<D>> pageMapper) {
+        if (query.isOffset()) {
+            Page<R> page = offsetFinder.apply(PageRequest.of(query.page(), query.limit(), CREATION_ORDER));
+            return PageResponse.<D>builder()
+                    .items(pageMapper.apply(page.getContent()))
+                    .limit(query.limit())
+                    .hasNext(page.hasNext())
+                    .page(query.page())
+                    .build();
+        }
+
+        // Une ligne de plus que demandé pour savoir s'il reste une page
+        Pageable window = PageRequest.ofSize(query.limit() + 1);
+        List<R> rows;
+        if (query.cursor() == null) {
+            rows = firstPage.apply(window);
+        } else {
+            PageCursor after = PageCursor.decode(query.cursor());
+            rows = pageAfter.find(after.createdAt(), after.id(), window);
+        }
+
+        boolean hasNext = rows.size() > query.limit();
+        List<R> content = hasNext ? rows.subList(0, query.limit()) : rows;
+        return PageResponse.<D>builder()
+                .items(pageMapper.apply(content))
+                .limit(query.limit())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null)
+                .build();
+    }
+
+    @FunctionalInterface
+    public interface PageAfterFinder<R> {
+        List<R> find(LocalDateTime createdAt, UUID id, Pageable pageable);
+    }
+}
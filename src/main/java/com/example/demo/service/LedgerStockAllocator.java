@@ -0,0 +1,43 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.entity.Inventory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.allocation.mode", havingValue = "ledger")
+public class LedgerStockAllocator implements StockAllocator {
+
+    private final StockLedger stockLedger;
+
+    @Override
+    public StockAllocation allocate(UUID productId, int quantity) {
+        if (!stockLedger.isTracked(productId)) {
+            throw new RuntimeException("Aucun inventaire trouvé pour le produit id: " + productId);
+        }
+        return stockLedger.allocate(productId, quantity);
+    }
+
+    @Override
+    public UUID receive(UUID productId, int quantity) {
+        if (!stockLedger.isTracked(productId)) {
+            throw new RuntimeException("Inventaire non trouvé pour le produit: " + productId);
+        }
+        return stockLedger.credit(productId, quantity);
+    }
+
+    @Override
+    public void track(Inventory inventory, int delta) {
+        stockLedger.track(inventory, delta);
+    }
+
+    @Override
+    public void forget(UUID productId, UUID warehouseId) {
+        stockLedger.forget(productId, warehouseId);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DomainEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Une ligne JSON par événement, ajoutée en fin de fichier
+@Component
+@ConditionalOnProperty(name = "outbox.sink.file.enabled", havingValue = "true")
+public class NdjsonFileEventSink implements EventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    // Pas de synchronized autour d'une écriture disque : épinglerait le thread porteur d'un thread virtuel
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public NdjsonFileEventSink(ObjectMapper objectMapper,
+                               @Value("${outbox.sink.file.path:outbox-events.ndjson}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void deliver(List<DomainEvent> events) throws IOException {
+        lock.lock();
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (DomainEvent event : events) {
+                    writer.write(objectMapper.writeValueAsString(event));
+                    writer.newLine();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
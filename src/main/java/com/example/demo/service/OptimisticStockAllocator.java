@@ -0,0 +1,133 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.InventoryVersion;
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.repository.InventoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Allocation par compare-and-set sur la version de l'inventaire. Une écriture perdue
+ * (version changée entre lecture et UPDATE) fait échouer la tentative en conflit : la transaction
+ * est annulée et relâche ses verrous de ligne, puis {@link #retrying} rejoue la tentative entière
+ * dans une nouvelle transaction après une attente aléatoire bornée (full jitter).
+ * Au-delà de max-attempts, le conflit remonte à l'appelant.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.allocation.mode", havingValue = "optimistic")
+public class OptimisticStockAllocator implements StockAllocator {
+
+    private final InventoryRepository inventoryRepository;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+    private final Counter conflicts;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public OptimisticStockAllocator(InventoryRepository inventoryRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${inventory.allocation.optimistic.max-attempts:8}") int maxAttempts,
+                                    @Value("${inventory.allocation.optimistic.backoff-ms:2}") long backoffMs,
+                                    @Value("${inventory.allocation.optimistic.max-backoff-ms:50}") long maxBackoffMs) {
+        this.inventoryRepository = inventoryRepository;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.conflicts = meterRegistry.counter("inventory.allocation.conflicts", "mode", "optimistic");
+        this.retries = meterRegistry.counter("inventory.allocation.retries", "mode", "optimistic");
+        this.exhausted = meterRegistry.counter("inventory.allocation.exhausted", "mode", "optimistic");
+    }
+
+    @Override
+    public StockAllocation allocate(UUID productId, int quantity) {
+        List<StockAllocation.Part> parts = new ArrayList<>();
+        int remaining = quantity;
+
+        List<InventoryVersion> rows = inventoryRepository.findVersionsByProductId(productId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Aucun inventaire trouvé pour le produit id: " + productId);
+        }
+
+        for (InventoryVersion row : rows) {
+            if (remaining <= 0) break;
+            int onHand = qty(row.qtyOnHand());
+            int take = Math.min(onHand, remaining);
+            if (take <= 0) continue;
+
+            if (inventoryRepository.compareAndSetQtyOnHand(row.id(), row.version(), onHand - take) != 1) {
+                throw conflict(productId);
+            }
+            parts.add(new StockAllocation.Part(row.warehouseId(), take));
+            remaining -= take;
+        }
+
+        return new StockAllocation(productId, quantity, parts);
+    }
+
+    @Override
+    public UUID receive(UUID productId, int quantity) {
+        List<InventoryVersion> rows = inventoryRepository.findVersionsByProductId(productId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Inventaire non trouvé pour le produit: " + productId);
+        }
+
+        InventoryVersion row = rows.get(0);
+        if (inventoryRepository.compareAndSetQtyOnHand(row.id(), row.version(), qty(row.qtyOnHand()) + quantity) != 1) {
+            throw conflict(productId);
+        }
+        return row.warehouseId();
+    }
+
+    // L'attente a lieu hors transaction : chaque tentative ouvre la sienne via le TransactionTemplate de l'appelant
+    @Override
+    public <T> T retrying(Supplier<T> attempt) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Imbriqué dans une transaction existante : rejouer ici garderait ses verrous pendant l'attente
+            return attempt.get();
+        }
+        for (int attemptNumber = 0; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                awaitRetry(e, attemptNumber);
+            }
+        }
+    }
+
+    private OptimisticLockingFailureException conflict(UUID productId) {
+        conflicts.increment();
+        return new OptimisticLockingFailureException("Conflit de concurrence sur le stock du produit " + productId);
+    }
+
+    private void awaitRetry(OptimisticLockingFailureException conflict, int attempt) {
+        if (attempt + 1 >= maxAttempts) {
+            exhausted.increment();
+            throw new OptimisticLockingFailureException(
+                    conflict.getMessage() + " après " + maxAttempts + " tentatives", conflict);
+        }
+        retries.increment();
+        long ceiling = Math.min(maxBackoffMs, backoffMs << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockingFailureException("Allocation interrompue: " + conflict.getMessage(), e);
+        }
+    }
+
+    private static int qty(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.repository.BulkInsertRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Écrit les événements de domaine dans outbox_event, sur la connexion de la transaction en cours :
+ * l'événement n'existe que si le changement d'état qu'il décrit est validé. OutboxRelay les livre ensuite.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    private final BulkInsertRepository bulkInsertRepository;
+    private final ObjectMapper objectMapper;
+
+    public void publish(String eventType, String aggregateType, UUID aggregateId, Object payload) {
+        publishAll(List.of(toEvent(eventType, aggregateType, aggregateId, payload)));
+    }
+
+    public void publishAll(List<OutboxEvent> events) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Les événements de domaine doivent être publiés dans une transaction");
+        }
+        bulkInsertRepository.insertOutboxEvents(events);
+    }
+
+    public OutboxEvent toEvent(String eventType, String aggregateType, UUID aggregateId, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(eventType);
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setOccurredAt(LocalDateTime.now());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Événement non sérialisable: " + eventType, e);
+        }
+        return event;
+    }
+}
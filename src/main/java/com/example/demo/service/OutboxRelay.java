@@ -0,0 +1,114 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DomainEvent;
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.entity.OutboxSequence;
+import com.example.demo.repository.OutboxEventRepository;
+import com.example.demo.repository.OutboxSequenceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Livre outbox_event aux sinks par lots. La séquence de livraison est attribuée ici, sous le verrou
+ * de outbox_sequence, et non à l'insertion : un id plus petit validé en retard reçoit une séquence
+ * plus grande que tout ce qui a déjà été livré, un consommateur qui suit la dernière séquence vue
+ * ne le saute donc jamais. Le lot reste verrouillé pendant la livraison et n'est marqué publié que si
+ * tous les sinks l'ont accepté ; sinon il garde ses séquences et est relivré au tour suivant
+ * (livraison au moins une fois).
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    static final String DELIVERY_SEQUENCE = "delivery";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSequenceRepository outboxSequenceRepository;
+    private final List<EventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxSequenceRepository outboxSequenceRepository,
+                       List<EventSink> sinks,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.retention:7d}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSequenceRepository = outboxSequenceRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}",
+            initialDelayString = "${outbox.relay.interval-ms:1000}")
+    public void relay() {
+        int delivered;
+        do {
+            delivered = relayBatch();
+        } while (delivered == batchSize);
+    }
+
+    // Renvoie le nombre d'événements livrés, 0 si le lot a échoué
+    public int relayBatch() {
+        Integer delivered = transactionTemplate.execute(status -> {
+            OutboxSequence sequence = lockSequence();
+            List<OutboxEvent> batch = outboxEventRepository.lockUnpublished(batchSize);
+            if (batch.isEmpty()) return 0;
+
+            long last = sequence.getLastDelivered();
+            for (OutboxEvent event : batch) {
+                if (event.getDeliverySequence() == null) event.setDeliverySequence(++last);
+            }
+            sequence.setLastDelivered(last);
+
+            List<DomainEvent> events = batch.stream().map(DomainEvent::of).collect(Collectors.toList());
+            for (EventSink sink : sinks) {
+                try {
+                    sink.deliver(events);
+                    meterRegistry.counter("outbox.relay.delivered", "sink", sink.name()).increment(events.size());
+                } catch (Exception e) {
+                    meterRegistry.counter("outbox.relay.failures", "sink", sink.name()).increment();
+                    log.warn("Livraison de {} événements vers {} en échec: {}", events.size(), sink.name(), e.getMessage());
+                    // Validé sans publishedAt : les séquences déjà vues par certains sinks restent stables
+                    return 0;
+                }
+            }
+            LocalDateTime publishedAt = LocalDateTime.now();
+            batch.forEach(event -> event.setPublishedAt(publishedAt));
+            return events.size();
+        });
+        return delivered == null ? 0 : delivered;
+    }
+
+    // Ligne créée au premier tour, à partir du plus grand id : les séquences restent au-dessus des anciens ids
+    private OutboxSequence lockSequence() {
+        return outboxSequenceRepository.lockByName(DELIVERY_SEQUENCE)
+                .orElseGet(() -> outboxSequenceRepository.saveAndFlush(
+                        new OutboxSequence(DELIVERY_SEQUENCE, outboxEventRepository.findMaxId())));
+    }
+
+    @Scheduled(cron = "${outbox.purge-cron:0 45 3 * * *}")
+    public void purgePublished() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Outbox purgée: {} événements publiés supprimés", deleted);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.LockedStock;
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.repository.InventoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Allocation sous verrou de ligne. Les inventaires libres sont pris d'abord
+ * (FOR UPDATE SKIP LOCKED) ; s'il manque du stock, les lignes sautées sont attendues
+ * avec un FOR UPDATE bloquant, toujours dans l'ordre des entrepôts.
+ * Un inventaire verrouillé ailleurs ne produit donc jamais de backorder à tort.
+ * Les quantités sont lues sous verrou par projection native, jamais depuis une entité déjà gérée
+ * (qui pourrait être périmée), puis débitées par l'UPDATE conditionnel habituel.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.allocation.mode", havingValue = "pessimistic")
+public class PessimisticStockAllocator implements StockAllocator {
+
+    private final InventoryRepository inventoryRepository;
+    private final Counter skipped;
+    private final Counter waits;
+
+    public PessimisticStockAllocator(InventoryRepository inventoryRepository, MeterRegistry meterRegistry) {
+        this.inventoryRepository = inventoryRepository;
+        this.skipped = meterRegistry.counter("inventory.allocation.conflicts", "mode", "pessimistic");
+        this.waits = meterRegistry.counter("inventory.allocation.retries", "mode", "pessimistic");
+    }
+
+    @Override
+    public StockAllocation allocate(UUID productId, int quantity) {
+        List<StockAllocation.Part> parts = new ArrayList<>();
+        Set<UUID> visited = new HashSet<>();
+
+        List<LockedStock> unlocked = inventoryRepository.lockStockByProductIdSkipLocked(productId);
+        int remaining = take(productId, unlocked, quantity, parts, visited);
+
+        if (remaining > 0) {
+            List<LockedStock> all = inventoryRepository.lockStockByProductId(productId);
+            if (all.isEmpty()) {
+                throw new RuntimeException("Aucun inventaire trouvé pour le produit id: " + productId);
+            }
+            long lockedElsewhere = all.stream().filter(stock -> !visited.contains(stock.getWarehouseId())).count();
+            if (lockedElsewhere > 0) {
+                skipped.increment(lockedElsewhere);
+                waits.increment();
+            }
+            remaining = take(productId, all, remaining, parts, visited);
+        }
+
+        return new StockAllocation(productId, quantity, parts);
+    }
+
+    @Override
+    public UUID receive(UUID productId, int quantity) {
+        List<LockedStock> stocks = inventoryRepository.lockStockByProductId(productId);
+        if (stocks.isEmpty()) {
+            throw new RuntimeException("Inventaire non trouvé pour le produit: " + productId);
+        }
+        UUID warehouseId = stocks.get(0).getWarehouseId();
+        inventoryRepository.adjustQtyOnHand(productId, warehouseId, quantity);
+        return warehouseId;
+    }
+
+    // Lignes déjà verrouillées par cette transaction : le décrément conditionnel ne peut pas échouer
+    private int take(UUID productId, List<LockedStock> stocks, int remaining, List<StockAllocation.Part> parts,
+                     Set<UUID> visited) {
+        for (LockedStock stock : stocks) {
+            if (remaining <= 0) break;
+            if (!visited.add(stock.getWarehouseId())) continue;
+            int take = Math.min(qty(stock.getQtyOnHand()), remaining);
+            if (take <= 0) continue;
+            inventoryRepository.decrementQtyOnHand(productId, stock.getWarehouseId(), take);
+            parts.add(new StockAllocation.Part(stock.getWarehouseId(), take));
+            remaining -= take;
+        }
+        return remaining;
+    }
+
+    private static int qty(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
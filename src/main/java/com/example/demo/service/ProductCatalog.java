@@ -0,0 +1,108 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductDTO;
+import com.example.demo.entity.Product;
+import com.example.demo.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Cache lecture seule du catalogue produits, indexé par id et par SKU.
+ * Les entrées sont chargées par projection (ProductRow), sans passer par le contexte de persistance.
+ * Les services obtiennent des références (proxy sans SELECT) pour leurs associations ;
+ * ProductServiceImp invalide l'entrée à chaque écriture.
+ */
+@Component
+public class ProductCatalog {
+
+    private final ProductRepository productRepository;
+    private final Cache<UUID, ProductDTO> byId;
+    private final Cache<String, UUID> idBySku;
+
+    public ProductCatalog(ProductRepository productRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${product.cache.max-size:10000}") long maxSize,
+                          @Value("${product.cache.ttl:10m}") Duration ttl) {
+        this.productRepository = productRepository;
+        this.byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.idBySku = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "products.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idBySku, "products.bySku");
+    }
+
+    public Optional<ProductDTO> findById(UUID id) {
+        ProductDTO cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return productRepository.findRowById(id).map(row -> put(row.toDTO()));
+    }
+
+    public Optional<ProductDTO> findBySku(String sku) {
+        UUID id = idBySku.getIfPresent(sku);
+        if (id != null) {
+            Optional<ProductDTO> product = findById(id);
+            if (product.isPresent() && sku.equals(product.get().getSku())) {
+                return product;
+            }
+            idBySku.invalidate(sku);
+        }
+        return productRepository.findRowBySku(sku).map(row -> put(row.toDTO()));
+    }
+
+    public Optional<Product> findReference(UUID id) {
+        return findById(id).map(product -> productRepository.getReferenceById(id));
+    }
+
+    // Les ids inconnus sont absents de la map : à l'appelant de lever l'erreur
+    public Map<UUID, Product> findReferences(Collection<UUID> ids) {
+        Set<UUID> missing = new HashSet<>();
+        for (UUID id : ids) {
+            if (byId.getIfPresent(id) == null) {
+                missing.add(id);
+            }
+        }
+        Set<UUID> known = new HashSet<>(ids);
+        if (!missing.isEmpty()) {
+            Set<UUID> found = new HashSet<>();
+            productRepository.findRowsByIdIn(missing).forEach(row -> found.add(put(row.toDTO()).getId()));
+            missing.removeAll(found);
+            known.removeAll(missing);
+        }
+
+        Map<UUID, Product> references = new HashMap<>();
+        for (UUID id : known) {
+            references.put(id, productRepository.getReferenceById(id));
+        }
+        return references;
+    }
+
+    public void evict(UUID id) {
+        ProductDTO cached = byId.getIfPresent(id);
+        if (cached != null && cached.getSku() != null) {
+            idBySku.invalidate(cached.getSku());
+        }
+        byId.invalidate(id);
+    }
+
+    private ProductDTO put(ProductDTO dto) {
+        byId.put(dto.getId(), dto);
+        if (dto.getSku() != null) {
+            idBySku.put(dto.getSku(), dto.getId());
+        }
+        return dto;
+    }
+}
@@ -1,14 +1,15 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.dto.ProductDTO;
 
-import java.util.List;
 import java.util.UUID;
 
 public interface ProductService {
     ProductDTO createProduct(ProductDTO productDTO);
     ProductDTO getProductById(UUID id);
-    List<ProductDTO> getAllProducts();
+    PageResponse<ProductDTO> getAllProducts(PageQuery query);
     ProductDTO updateProduct(UUID id, ProductDTO productDTO);
     void deleteProduct(UUID id);
     ProductDTO getProductBySku(String sku);
@@ -1,6 +1,9 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.dto.ProductDTO;
+import com.example.demo.dto.ProductRow;
 import com.example.demo.entity.Inventory;
 import com.example.demo.entity.Product;
 import com.example.demo.mapper.ProductMapper;
@@ -10,9 +13,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +21,7 @@ public class ProductServiceImp implements ProductService {
 
     private final ProductRepository productRepository;
     private final InventoryRepository inventoryRepository;
+    private final ProductCatalog productCatalog;
 
     private final ProductMapper mapper = ProductMapper.INSTANCE;
 
@@ -31,23 +33,20 @@ public class ProductServiceImp implements ProductService {
 
         Product product = mapper.toEntity(productDTO);
         Product saved = productRepository.save(product);
+        productCatalog.evict(saved.getId());
         return mapper.toDTO(saved);
     }
 
     @Override
     public ProductDTO getProductById(UUID id) {
-        Product product = productRepository.findById(id)
+        return productCatalog.findById(id)
                 .orElseThrow(() -> new RuntimeException("Produit non trouvé avec l'id: " + id));
-        return mapper.toDTO(product);
     }
 
     @Override
-    public List<ProductDTO> getAllProducts() {
-        return productRepository.findAll()
-                .stream()
-                .map(mapper::toDTO)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+    public PageResponse<ProductDTO> getAllProducts(PageQuery query) {
+        return KeysetPaginator.paginateProjections(query, productRepository::findRowsFirstPage,
+                productRepository::findRowsAfter, productRepository::findRows, ProductRow::cursor, ProductRow::toDTO);
     }
 
     @Override
@@ -66,6 +65,7 @@ public class ProductServiceImp implements ProductService {
         existingProduct.setPrice(productDTO.getPrice());
 
         Product updated = productRepository.save(existingProduct);
+        productCatalog.evict(id);
         return mapper.toDTO(updated);
     }
 
@@ -85,13 +85,13 @@ public class ProductServiceImp implements ProductService {
         }
 
         productRepository.delete(product);
+        productCatalog.evict(id);
     }
 
     @Override
     public ProductDTO getProductBySku(String sku) {
-        Product product = productRepository.findBySku(sku)
+        return productCatalog.findBySku(sku)
                 .orElseThrow(() -> new RuntimeException("Produit non trouvé avec le SKU: " + sku));
-        return mapper.toDTO(product);
     }
 
     @Override
@@ -106,6 +106,7 @@ public class ProductServiceImp implements ProductService {
             if ("CREATED".equals(product.getStatus()) || "RESERVED".equals(product.getStatus())) {
                 product.setStatus(newStatus);
                 productRepository.save(product);
+                productCatalog.evict(uuid);
             } else {
                 throw new RuntimeException("Le produit est déjà réservé, impossible de changer ce status");
             }
@@ -1,5 +1,7 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.dto.PurchaseOrderDTO;
 import com.example.demo.enums.PurchaseOrderStatus;
 
@@ -10,7 +12,7 @@ import java.util.UUID;
 public interface PurchaseOrderService {
     PurchaseOrderDTO createPurchaseOrder(PurchaseOrderDTO purchaseOrderDTO);
     PurchaseOrderDTO getPurchaseOrderById(UUID id);
-    List<PurchaseOrderDTO> getAllPurchaseOrders();
+    PageResponse<PurchaseOrderDTO> getAllPurchaseOrders(PageQuery query);
     PurchaseOrderDTO updatePurchaseOrder(UUID id, PurchaseOrderDTO purchaseOrderDTO);
     void deletePurchaseOrder(UUID id);
     List<PurchaseOrderDTO> getPurchaseOrdersBySupplier(UUID supplierId);
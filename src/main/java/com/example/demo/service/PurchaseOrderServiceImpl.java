@@ -1,19 +1,34 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.dto.DomainEvent;
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
+import com.example.demo.dto.PurchaseOrderApprovedEvent;
 import com.example.demo.dto.PurchaseOrderDTO;
 import com.example.demo.dto.PurchaseOrderLineDTO;
+import com.example.demo.dto.PurchaseOrderLineRow;
+import com.example.demo.dto.PurchaseOrderRow;
 import com.example.demo.entity.*;
 import com.example.demo.enums.PurchaseOrderStatus;
 import com.example.demo.mapper.PurchaseOrderLineMapper;
 import com.example.demo.mapper.PurchaseOrderMapper;
 import com.example.demo.repository.*;
+import com.example.demo.service.InventoryJournal;
+import com.example.demo.service.KeysetPaginator;
+import com.example.demo.service.OutboxPublisher;
+import com.example.demo.service.ProductCatalog;
 import com.example.demo.service.PurchaseOrderService;
+import com.example.demo.service.SkuLockManager;
+import com.example.demo.service.StockAllocator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -25,8 +40,13 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
     private final PurchaseOrderLineRepository purchaseOrderLineRepository;
     private final SupplierRepository supplierRepository;
     private final UserRepository userRepository;
-    private final ProductRepository productRepository;
-    private final InventoryRepository inventoryRepository;
+    private final ProductCatalog productCatalog;
+    private final BulkInsertRepository bulkInsertRepository;
+    private final StockAllocator stockAllocator;
+    private final InventoryJournal inventoryJournal;
+    private final SkuLockManager skuLockManager;
+    private final OutboxPublisher outboxPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     private final PurchaseOrderMapper orderMapper = PurchaseOrderMapper.INSTANCE;
     private final PurchaseOrderLineMapper lineMapper = PurchaseOrderLineMapper.INSTANCE;
@@ -46,36 +66,42 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
         purchaseOrder.setStatus(PurchaseOrderStatus.DRAFT);
 
         PurchaseOrder savedOrder = purchaseOrderRepository.save(purchaseOrder);
+        PurchaseOrderDTO result = orderMapper.toDTO(savedOrder);
 
         if (purchaseOrderDTO.getOrderLines() != null && !purchaseOrderDTO.getOrderLines().isEmpty()) {
-            List<PurchaseOrderLine> orderLines = purchaseOrderDTO.getOrderLines().stream()
-                    .map(lineDTO -> {
-                        PurchaseOrderLine line = lineMapper.toEntity(lineDTO);
-                        line.setPurchaseOrder(savedOrder);
-                        Product product = productRepository.findById(lineDTO.getProductId())
-                                .orElseThrow(() -> new RuntimeException("Produit non trouvé avec l'id: " + lineDTO.getProductId()));
-                        line.setProduct(product);
-                        return line;
-                    })
-                    .collect(Collectors.toList());
-            purchaseOrderLineRepository.saveAll(orderLines);
+            List<PurchaseOrderLine> lines = toOrderLines(purchaseOrderDTO.getOrderLines(), savedOrder);
+            bulkInsertRepository.insertPurchaseOrderLines(lines);
+            // Lignes hors contexte de persistance : jamais rattachées à la collection en cascade
+            result.setOrderLines(lines.stream().map(lineMapper::toDTO).collect(Collectors.toList()));
         }
 
-        return orderMapper.toDTO(savedOrder);
+        return result;
     }
 
     @Override
     public PurchaseOrderDTO getPurchaseOrderById(UUID id) {
-        PurchaseOrder purchaseOrder = purchaseOrderRepository.findById(id)
+        PurchaseOrder purchaseOrder = purchaseOrderRepository.findWithLinesById(id)
                 .orElseThrow(() -> new RuntimeException("Commande d'achat non trouvée avec l'id: " + id));
         return orderMapper.toDTO(purchaseOrder);
     }
 
     @Override
-    public List<PurchaseOrderDTO> getAllPurchaseOrders() {
-        return purchaseOrderRepository.findAll()
+    public PageResponse<PurchaseOrderDTO> getAllPurchaseOrders(PageQuery query) {
+        return KeysetPaginator.paginateRows(query, purchaseOrderRepository::findRowsFirstPage,
+                purchaseOrderRepository::findRowsAfter, purchaseOrderRepository::findRows,
+                PurchaseOrderRow::cursor, this::toDTOsWithLines);
+    }
+
+    // Une seule requête pour les lignes (produit joint) de toute la page, regroupées par commande
+    private List<PurchaseOrderDTO> toDTOsWithLines(List<PurchaseOrderRow> page) {
+        if (page.isEmpty()) return List.of();
+        Map<UUID, List<PurchaseOrderLineDTO>> linesByOrder = purchaseOrderLineRepository
+                .findRowsByPurchaseOrderIdIn(page.stream().map(PurchaseOrderRow::id).collect(Collectors.toList()))
                 .stream()
-                .map(orderMapper::toDTO)
+                .collect(Collectors.groupingBy(PurchaseOrderLineRow::purchaseOrderId,
+                        Collectors.mapping(PurchaseOrderLineRow::toDTO, Collectors.toList())));
+        return page.stream()
+                .map(order -> order.toDTO(linesByOrder.getOrDefault(order.id(), List.of())))
                 .collect(Collectors.toList());
     }
 
@@ -95,18 +121,7 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
 
         if (purchaseOrderDTO.getOrderLines() != null) {
             purchaseOrderLineRepository.deleteByPurchaseOrderId(id);
-
-            List<PurchaseOrderLine> newOrderLines = purchaseOrderDTO.getOrderLines().stream()
-                    .map(lineDTO -> {
-                        PurchaseOrderLine line = lineMapper.toEntity(lineDTO);
-                        line.setPurchaseOrder(existingOrder);
-                        Product product = productRepository.findById(lineDTO.getProductId())
-                                .orElseThrow(() -> new RuntimeException("Produit non trouvé avec l'id: " + lineDTO.getProductId()));
-                        line.setProduct(product);
-                        return line;
-                    })
-                    .collect(Collectors.toList());
-            purchaseOrderLineRepository.saveAll(newOrderLines);
+            bulkInsertRepository.insertPurchaseOrderLines(toOrderLines(purchaseOrderDTO.getOrderLines(), existingOrder));
         }
 
         PurchaseOrder updatedOrder = purchaseOrderRepository.save(existingOrder);
@@ -147,15 +162,25 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
                 .collect(Collectors.toList());
     }
 
+    // Réception : verrous des SKU de la commande pris avant la transaction, relâchés après le commit
     @Override
-    @Transactional
     public PurchaseOrderDTO updatePurchaseOrderStatus(UUID id, PurchaseOrderStatus status) {
+        List<UUID> productIds = status == PurchaseOrderStatus.RECEIVED
+                ? purchaseOrderLineRepository.findProductIdsByPurchaseOrderId(id)
+                : List.of();
+        return skuLockManager.withLocks(productIds,
+                () -> stockAllocator.retrying(() -> transactionTemplate.execute(tx -> applyStatus(id, status))));
+    }
+
+    private PurchaseOrderDTO applyStatus(UUID id, PurchaseOrderStatus status) {
         PurchaseOrder purchaseOrder = purchaseOrderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Commande d'achat non trouvée avec l'id: " + id));
 
         boolean updateStock = status == PurchaseOrderStatus.RECEIVED;
 
-        if (purchaseOrder.getStatus() == PurchaseOrderStatus.RECEIVED && updateStock) {
+        // Deux réceptions simultanées lisent toutes deux l'ancien statut : seul l'UPDATE conditionnel tranche
+        if (updateStock && (purchaseOrder.getStatus() == PurchaseOrderStatus.RECEIVED
+                || purchaseOrderRepository.markReceived(id) == 0)) {
             throw new RuntimeException("Cette commande a déjà été reçue, le stock est déjà mis à jour.");
         }
 
@@ -163,16 +188,10 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
         PurchaseOrder updatedOrder = purchaseOrderRepository.save(purchaseOrder);
 
         if (updateStock) {
-            List<PurchaseOrderLine> orderLines = purchaseOrder.getOrderLines();
-            for (PurchaseOrderLine line : orderLines) {
-                List<Inventory> inventories = inventoryRepository.findByProductId(line.getProduct().getId());
-                if (inventories == null || inventories.isEmpty()) {
-                    throw new RuntimeException("Inventaire non trouvé pour le produit: " + line.getProduct().getId());
-                }
-                for (Inventory inventory : inventories) {
-                    inventory.setQtyOnHand(inventory.getQtyOnHand() + line.getQuantity());
-                    inventoryRepository.save(inventory);
-                }
+            for (PurchaseOrderLine line : purchaseOrder.getOrderLines()) {
+                UUID warehouseId = stockAllocator.receive(line.getProduct().getId(), line.getQuantity());
+                inventoryJournal.recordReceipt(line.getProduct().getId(), warehouseId, line.getQuantity(),
+                        purchaseOrder.getId().toString(), "Réception commande d'achat");
             }
         }
 
@@ -192,9 +211,29 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
         purchaseOrder.setStatus(PurchaseOrderStatus.APPROVED);
 
         PurchaseOrder updatedOrder = purchaseOrderRepository.save(purchaseOrder);
+        outboxPublisher.publish(DomainEvent.PURCHASE_ORDER_APPROVED, "purchase-order", id,
+                new PurchaseOrderApprovedEvent(id, purchaseOrder.getSupplier().getId(), approvedByUserId));
         return orderMapper.toDTO(updatedOrder);
     }
 
+    private List<PurchaseOrderLine> toOrderLines(List<PurchaseOrderLineDTO> lineDTOs, PurchaseOrder purchaseOrder) {
+        Set<UUID> productIds = lineDTOs.stream().map(PurchaseOrderLineDTO::getProductId).collect(Collectors.toSet());
+        Map<UUID, Product> products = productCatalog.findReferences(productIds);
+
+        return lineDTOs.stream()
+                .map(lineDTO -> {
+                    Product product = products.get(lineDTO.getProductId());
+                    if (product == null) {
+                        throw new RuntimeException("Produit non trouvé avec l'id: " + lineDTO.getProductId());
+                    }
+                    PurchaseOrderLine line = lineMapper.toEntity(lineDTO);
+                    line.setPurchaseOrder(purchaseOrder);
+                    line.setProduct(product);
+                    return line;
+                })
+                .collect(Collectors.toList());
+    }
+
     @Override
     public BigDecimal calculateOrderTotal(UUID purchaseOrderId) {
         List<PurchaseOrderLine> orderLines = purchaseOrderLineRepository.findByPurchaseOrderId(purchaseOrderId);
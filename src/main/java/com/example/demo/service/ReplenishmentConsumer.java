@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Product;
+import com.example.demo.entity.PurchaseOrder;
+import com.example.demo.entity.PurchaseOrderLine;
+import com.example.demo.entity.ReplenishmentRequest;
+import com.example.demo.entity.Supplier;
+import com.example.demo.entity.User;
+import com.example.demo.enums.PurchaseOrderStatus;
+import com.example.demo.repository.PurchaseOrderRepository;
+import com.example.demo.repository.ReplenishmentRequestRepository;
+import com.example.demo.repository.SupplierRepository;
+import com.example.demo.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Vide l'outbox replenishment_request à chaque fenêtre : les backorders accumulés sont regroupés
+ * par produit en une seule commande d'achat par fournisseur, une ligne fusionnée par produit.
+ * Le fournisseur reste celui de l'ancien traitement en ligne (premier fournisseur).
+ */
+@Slf4j
+@Component
+public class ReplenishmentConsumer {
+
+    private static final BigDecimal DEFAULT_UNIT_PRICE = new BigDecimal("100.00");
+
+    private final ReplenishmentRequestRepository requestRepository;
+    private final SupplierRepository supplierRepository;
+    private final UserRepository userRepository;
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ReplenishmentConsumer(ReplenishmentRequestRepository requestRepository,
+                                 SupplierRepository supplierRepository,
+                                 UserRepository userRepository,
+                                 PurchaseOrderRepository purchaseOrderRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${replenishment.batch-size:1000}") int batchSize) {
+        this.requestRepository = requestRepository;
+        this.supplierRepository = supplierRepository;
+        this.userRepository = userRepository;
+        this.purchaseOrderRepository = purchaseOrderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${replenishment.window-ms:60000}",
+            initialDelayString = "${replenishment.window-ms:60000}")
+    public void drain() {
+        drain(LocalDateTime.now());
+    }
+
+    // Renvoie le nombre de commandes d'achat créées
+    public int drain(LocalDateTime upTo) {
+        int created = 0;
+        int consumed;
+        do {
+            int[] round = transactionTemplate.execute(status -> consumeBatch(upTo));
+            created += round[0];
+            consumed = round[1];
+        } while (consumed == batchSize);
+        return created;
+    }
+
+    private int[] consumeBatch(LocalDateTime upTo) {
+        List<ReplenishmentRequest> requests = requestRepository.lockPending(upTo, batchSize);
+        if (requests.isEmpty()) return new int[]{0, 0};
+
+        Optional<Supplier> supplier = supplierRepository.findFirstByOrderByIdAsc();
+        Optional<User> createdBy = userRepository.findFirstByOrderByIdAsc();
+        if (supplier.isEmpty() || createdBy.isEmpty()) {
+            // Les demandes restent dans l'outbox jusqu'à ce qu'un fournisseur et un utilisateur existent
+            log.warn("Réapprovisionnement en attente: aucun fournisseur ou utilisateur ({} demandes)", requests.size());
+            return new int[]{0, 0};
+        }
+
+        // Regroupement par id : Product.equals parcourrait les collections paresseuses du proxy
+        Map<UUID, Product> products = new LinkedHashMap<>();
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (ReplenishmentRequest request : requests) {
+            products.putIfAbsent(request.getProduct().getId(), request.getProduct());
+            quantities.merge(request.getProduct().getId(), request.getQuantity(), Integer::sum);
+        }
+
+        PurchaseOrder purchaseOrder = new PurchaseOrder();
+        purchaseOrder.setSupplier(supplier.get());
+        purchaseOrder.setCreatedBy(createdBy.get());
+        purchaseOrder.setStatus(PurchaseOrderStatus.CREATED);
+        purchaseOrder.setExpectedDelivery(LocalDateTime.now().plusDays(7));
+
+        List<PurchaseOrderLine> lines = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> {
+            PurchaseOrderLine line = new PurchaseOrderLine();
+            line.setPurchaseOrder(purchaseOrder);
+            line.setProduct(products.get(productId));
+            line.setQuantity(quantity);
+            line.setBackorder(quantity);
+            line.setUnitPrice(DEFAULT_UNIT_PRICE);
+            lines.add(line);
+        });
+        purchaseOrder.setOrderLines(lines);
+        purchaseOrderRepository.save(purchaseOrder);
+
+        requestRepository.deleteAllInBatch(requests);
+        log.info("Réapprovisionnement: {} backorders regroupés en {} lignes", requests.size(), lines.size());
+        return new int[]{1, requests.size()};
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Product;
+
+public interface ReplenishmentService {
+    void requestReplenishment(Product product, int backorderQty);
+}
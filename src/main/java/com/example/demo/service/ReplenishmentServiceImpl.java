@@ -0,0 +1,33 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.entity.Product;
+import com.example.demo.entity.ReplenishmentRequest;
+import com.example.demo.repository.ReplenishmentRequestRepository;
+import com.example.demo.service.ReplenishmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publie le backorder dans l'outbox replenishment_request, dans la transaction de la commande.
+ * La commande d'achat est créée plus tard par ReplenishmentConsumer.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReplenishmentServiceImpl implements ReplenishmentService {
+
+    private final ReplenishmentRequestRepository replenishmentRequestRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void requestReplenishment(Product product, int backorderQty) {
+        ReplenishmentRequest request = new ReplenishmentRequest();
+        request.setProduct(product);
+        request.setQuantity(backorderQty);
+        request.setRequestedAt(LocalDateTime.now());
+        replenishmentRequestRepository.save(request);
+    }
+}
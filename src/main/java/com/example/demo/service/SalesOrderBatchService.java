@@ -0,0 +1,8 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SalesOrderBatchRequest;
+import com.example.demo.dto.SalesOrderBatchResponse;
+
+public interface SalesOrderBatchService {
+    SalesOrderBatchResponse createSalesOrders(SalesOrderBatchRequest request);
+}
@@ -0,0 +1,165 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.SalesOrderBatchRequest;
+import com.example.demo.dto.SalesOrderBatchResponse;
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.SalesOrder;
+import com.example.demo.entity.SalesOrderLine;
+import com.example.demo.entity.User;
+import com.example.demo.repository.SalesOrderLineRepository;
+import com.example.demo.repository.SalesOrderRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.InventoryJournal;
+import com.example.demo.service.ProductCatalog;
+import com.example.demo.service.ReplenishmentService;
+import com.example.demo.service.SalesOrderBatchService;
+import com.example.demo.service.StockAllocator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class SalesOrderBatchServiceImpl implements SalesOrderBatchService {
+
+    private final SalesOrderRepository salesOrderRepository;
+    private final SalesOrderLineRepository salesOrderLineRepository;
+    private final ProductCatalog productCatalog;
+    private final UserRepository userRepository;
+    private final StockAllocator stockAllocator;
+    private final InventoryJournal inventoryJournal;
+    private final ReplenishmentService replenishmentService;
+    private final TransactionTemplate transactionTemplate;
+
+    // Une transaction par tentative : en mode optimiste, un conflit rejoue le lot entier
+    @Override
+    public SalesOrderBatchResponse createSalesOrders(SalesOrderBatchRequest request) {
+        return stockAllocator.retrying(() -> transactionTemplate.execute(status -> createInTransaction(request)));
+    }
+
+    private SalesOrderBatchResponse createInTransaction(SalesOrderBatchRequest request) {
+        List<SalesOrderBatchRequest.Order> orderRequests = request.getOrders();
+
+        Map<UUID, User> users = loadAll(orderRequests.stream().map(SalesOrderBatchRequest.Order::getUser_id),
+                userRepository::findAllById, User::getId, "Utilisateur introuvable avec l'id: ");
+        Map<UUID, Product> products = loadAll(orderRequests.stream().flatMap(o -> o.getLines().stream())
+                        .map(SalesOrderBatchRequest.Line::getProduct_id),
+                ids -> List.copyOf(productCatalog.findReferences(ids).values()), Product::getId, "Produit introuvable avec l'id: ");
+
+        List<SalesOrder> orders = new ArrayList<>();
+        List<SalesOrderLine> lines = new ArrayList<>();
+        for (SalesOrderBatchRequest.Order orderRequest : orderRequests) {
+            SalesOrder order = new SalesOrder();
+            order.setUser(users.get(orderRequest.getUser_id()));
+            order.setOrderStatus(orderRequest.getOrderStatus());
+            orders.add(order);
+
+            for (SalesOrderBatchRequest.Line lineRequest : orderRequest.getLines()) {
+                SalesOrderLine line = new SalesOrderLine();
+                line.setSalesOrder(order);
+                line.setProduct(products.get(lineRequest.getProduct_id()));
+                line.setQuantity(lineRequest.getQuantity());
+                line.setUnitPrice(lineRequest.getUnitPrice());
+                lines.add(line);
+            }
+        }
+
+        // Commandes d'abord : leur id sert de document de référence aux mouvements de stock
+        salesOrderRepository.saveAll(orders);
+        allocate(lines);
+        salesOrderLineRepository.saveAll(lines);
+
+        return toResponse(orders, lines);
+    }
+
+    // Une seule allocation par produit, dans l'ordre des ids : les verrous de ligne
+    // sont toujours pris dans le même ordre d'un lot à l'autre.
+    private void allocate(List<SalesOrderLine> lines) {
+        Map<UUID, List<SalesOrderLine>> linesByProduct = lines.stream()
+                .collect(Collectors.groupingBy(line -> line.getProduct().getId(), TreeMap::new, Collectors.toList()));
+
+        linesByProduct.forEach((productId, productLines) -> {
+            int requested = productLines.stream().mapToInt(SalesOrderLine::getQuantity).sum();
+            StockAllocation allocation = stockAllocator.allocate(productId, requested);
+
+            int available = allocation.allocated();
+            for (SalesOrderLine line : productLines) {
+                int allocated = Math.min(line.getQuantity(), available);
+                line.setBackorder(line.getQuantity() - allocated);
+                available -= allocated;
+            }
+            journal(allocation, productLines);
+
+            if (allocation.backorder() > 0) {
+                replenishmentService.requestReplenishment(productLines.get(0).getProduct(), allocation.backorder());
+            }
+        });
+    }
+
+    // Les parts par entrepôt sont réparties sur les lignes servies, dans l'ordre des lignes :
+    // un mouvement par commande et par entrepôt, avec la commande pour référence
+    private void journal(StockAllocation allocation, List<SalesOrderLine> productLines) {
+        Deque<StockAllocation.Part> parts = new ArrayDeque<>(allocation.parts());
+        Map<UUID, Map<UUID, Integer>> takenByOrder = new LinkedHashMap<>();
+        for (SalesOrderLine line : productLines) {
+            int remaining = line.getQuantity() - line.getBackorder();
+            Map<UUID, Integer> taken = takenByOrder.computeIfAbsent(line.getSalesOrder().getId(), id -> new LinkedHashMap<>());
+            while (remaining > 0 && !parts.isEmpty()) {
+                StockAllocation.Part part = parts.poll();
+                int quantity = Math.min(remaining, part.quantity());
+                taken.merge(part.warehouseId(), quantity, Integer::sum);
+                remaining -= quantity;
+                if (quantity < part.quantity()) {
+                    parts.push(new StockAllocation.Part(part.warehouseId(), part.quantity() - quantity));
+                }
+            }
+        }
+
+        takenByOrder.forEach((orderId, taken) -> {
+            List<StockAllocation.Part> orderParts = taken.entrySet().stream()
+                    .map(entry -> new StockAllocation.Part(entry.getKey(), entry.getValue()))
+                    .toList();
+            int allocated = orderParts.stream().mapToInt(StockAllocation.Part::quantity).sum();
+            inventoryJournal.recordAllocation(new StockAllocation(allocation.productId(), allocated, orderParts),
+                    orderId.toString(), "Allocation lot de commandes");
+        });
+    }
+
+    private <T> Map<UUID, T> loadAll(Stream<UUID> ids, Function<Set<UUID>, List<T>> finder,
+                                     Function<T, UUID> idOf, String notFoundMessage) {
+        Set<UUID> wanted = ids.collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<UUID, T> found = finder.apply(wanted).stream().collect(Collectors.toMap(idOf, Function.identity()));
+        wanted.stream().filter(id -> !found.containsKey(id)).findFirst().ifPresent(id -> {
+            throw new RuntimeException(notFoundMessage + id);
+        });
+        return found;
+    }
+
+    private SalesOrderBatchResponse toResponse(List<SalesOrder> orders, List<SalesOrderLine> lines) {
+        Map<SalesOrder, List<SalesOrderLine>> linesByOrder = lines.stream()
+                .collect(Collectors.groupingBy(SalesOrderLine::getSalesOrder, IdentityHashMap::new, Collectors.toList()));
+
+        List<SalesOrderBatchResponse.OrderResult> results = orders.stream()
+                .map(order -> SalesOrderBatchResponse.OrderResult.builder()
+                        .salesOrderId(order.getId())
+                        .lines(linesByOrder.getOrDefault(order, List.of()).stream()
+                                .map(line -> SalesOrderBatchResponse.LineResult.builder()
+                                        .salesOrderLineId(line.getId())
+                                        .product_id(line.getProduct().getId())
+                                        .quantity(line.getQuantity())
+                                        .allocated(line.getQuantity() - line.getBackorder())
+                                        .backorder(line.getBackorder())
+                                        .build())
+                                .collect(Collectors.toList()))
+                        .build())
+                .collect(Collectors.toList());
+
+        return new SalesOrderBatchResponse(results);
+    }
+}
@@ -1,16 +1,22 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.dto.SalesOrderLineDTO;
+import com.example.demo.enums.ExportFormat;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.UUID;
 
 public interface SalesOrderLineService {
     SalesOrderLineDTO createSalesOrderLine(SalesOrderLineDTO salesOrderLineDTO);
     SalesOrderLineDTO getSalesOrderLineById(UUID id);
-    List<SalesOrderLineDTO> getAllSalesOrderLines();
+    PageResponse<SalesOrderLineDTO> getAllSalesOrderLines(PageQuery query);
     List<SalesOrderLineDTO> getSalesOrderLinesByOrder(UUID salesOrderId);
     List<SalesOrderLineDTO> getSalesOrderLinesByProduct(UUID productId);
     SalesOrderLineDTO updateSalesOrderLine(UUID id, SalesOrderLineDTO salesOrderLineDTO);
     void deleteSalesOrderLine(UUID id);
     void deleteSalesOrderLinesByOrder(UUID salesOrderId);
-}
\ No newline at end of file
+
+    void exportSalesOrderLines(ExportFormat format, OutputStream out);
+}
@@ -1,22 +1,33 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.enums.ExportFormat;
+import com.example.demo.dto.PageCursor;
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.dto.SalesOrderLineDTO;
-import com.example.demo.entity.Inventory;
+import com.example.demo.dto.StockAllocation;
 import com.example.demo.entity.Product;
 import com.example.demo.entity.SalesOrder;
 import com.example.demo.entity.SalesOrderLine;
 import com.example.demo.mapper.SalesOrderLineMapper;
 import com.example.demo.repository.*;
+import com.example.demo.service.ExportWriter;
+import com.example.demo.service.InventoryJournal;
+import com.example.demo.service.KeysetPaginator;
+import com.example.demo.service.ProductCatalog;
+import com.example.demo.service.ReplenishmentService;
 import com.example.demo.service.SalesOrderLineService;
+import com.example.demo.service.SkuLockManager;
+import com.example.demo.service.StockAllocator;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import com.example.demo.entity.Supplier;
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,37 +35,43 @@ public class SalesOrderLineServiceImpl implements SalesOrderLineService {
 
     private final SalesOrderLineRepository salesOrderLineRepository;
     private final SalesOrderRepository salesOrderRepository;
-    private final ProductRepository productRepository;
-    private final InventoryRepository inventoryRepository;
-    private final SupplierRepository supplierRepository;
-    private final UserRepository userRepository;
-    private final PurchaseOrderRepository purchaseOrderRepository;
-    private final PurchaseOrderLineRepository purchaseOrderLineRepository;
+    private final ProductCatalog productCatalog;
+    private final StockAllocator stockAllocator;
+    private final InventoryJournal inventoryJournal;
+    private final ReplenishmentService replenishmentService;
+    private final ExportWriter exportWriter;
+    private final SkuLockManager skuLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
 
     private final SalesOrderLineMapper lineMapper = SalesOrderLineMapper.INSTANCE;
 
+    // Verrou du SKU pris avant la transaction, relâché après le commit ; une transaction par tentative
     @Override
-    @Transactional
     public SalesOrderLineDTO createSalesOrderLine(SalesOrderLineDTO salesOrderLineDTO) {
+        SalesOrderLineDTO line = skuLockManager.withLocks(List.of(salesOrderLineDTO.getProduct_id()),
+                () -> stockAllocator.retrying(() -> transactionTemplate.execute(status -> allocateLine(salesOrderLineDTO))));
+        meterRegistry.counter("sales.order.line.allocations", "outcome", allocationOutcome(line)).increment();
+        return line;
+    }
+
+    // Compté après le commit : full (servie), partial (reliquat) ou backorder (rien d'alloué)
+    private static String allocationOutcome(SalesOrderLineDTO line) {
+        int backorder = line.getBackorder() == null ? 0 : line.getBackorder();
+        if (backorder == 0) return "full";
+        return backorder >= line.getQuantity() ? "backorder" : "partial";
+    }
+
+    private SalesOrderLineDTO allocateLine(SalesOrderLineDTO salesOrderLineDTO) {
         SalesOrder salesOrder = salesOrderRepository.findById(salesOrderLineDTO.getSales_order_id())
                 .orElseThrow(() -> new RuntimeException("Commande de vente introuvable avec l'id: " + salesOrderLineDTO.getSales_order_id()));
 
-        Product product = productRepository.findById(salesOrderLineDTO.getProduct_id())
+        Product product = productCatalog.findReference(salesOrderLineDTO.getProduct_id())
                 .orElseThrow(() -> new RuntimeException("Produit introuvable avec l'id: " + salesOrderLineDTO.getProduct_id()));
 
-        List<Inventory> inventories = inventoryRepository.findByProductId(product.getId());
-        if (inventories == null || inventories.isEmpty()) {
-            throw new RuntimeException("Aucun inventaire trouvé pour le produit id: " + product.getId());
-        }
-
-        int totalQty = inventories.stream().mapToInt(Inventory::getQtyOnHand).sum();
-        int orderedQty = salesOrderLineDTO.getQuantity();
-        int backorderQty = 0;
-
-        if (orderedQty > totalQty) {
-            backorderQty = orderedQty - totalQty;
-            orderedQty = totalQty;
-        }
+        StockAllocation allocation = stockAllocator.allocate(product.getId(), salesOrderLineDTO.getQuantity());
+        int backorderQty = allocation.backorder();
+        inventoryJournal.recordAllocation(allocation, salesOrder.getId().toString(), "Allocation commande de vente");
 
         SalesOrderLine salesOrderLine = lineMapper.toEntity(salesOrderLineDTO);
         salesOrderLine.setSalesOrder(salesOrder);
@@ -63,51 +80,13 @@ public class SalesOrderLineServiceImpl implements SalesOrderLineService {
 
         SalesOrderLine savedLine = salesOrderLineRepository.save(salesOrderLine);
 
-        int remainingToDeduct = orderedQty;
-        for (Inventory inv : inventories) {
-            if (remainingToDeduct <= 0) break;
-            int deduct = Math.min(inv.getQtyOnHand(), remainingToDeduct);
-            inv.setQtyOnHand(inv.getQtyOnHand() - deduct);
-            inventoryRepository.save(inv);
-            remainingToDeduct -= deduct;
-        }
-
         if (backorderQty > 0) {
-            createAutomaticPurchaseOrder(product, backorderQty);
+            replenishmentService.requestReplenishment(product, backorderQty);
         }
 
         return lineMapper.toDTO(savedLine);
     }
 
-    private void createAutomaticPurchaseOrder(Product product, int backorderQty) {
-        try {
-            Supplier supplier = supplierRepository.findAll().stream().findFirst()
-                    .orElseThrow(() -> new RuntimeException("Aucun fournisseur trouvé"));
-            var createdBy = userRepository.findAll().stream().findFirst()
-                    .orElseThrow(() -> new RuntimeException("Aucun utilisateur trouvé"));
-
-            var purchaseOrder = new com.example.demo.entity.PurchaseOrder();
-            purchaseOrder.setSupplier(supplier);
-            purchaseOrder.setCreatedBy(createdBy);
-            purchaseOrder.setStatus(com.example.demo.enums.PurchaseOrderStatus.CREATED);
-            purchaseOrder.setExpectedDelivery(LocalDateTime.now().plusDays(7));
-
-            var savedOrder = purchaseOrderRepository.save(purchaseOrder);
-
-            var orderLine = new com.example.demo.entity.PurchaseOrderLine();
-            orderLine.setPurchaseOrder(savedOrder);
-            orderLine.setProduct(product);
-            orderLine.setQuantity(backorderQty);
-            orderLine.setBackorder(backorderQty);
-            orderLine.setUnitPrice(new BigDecimal("100.00"));
-
-            purchaseOrderLineRepository.save(orderLine);
-
-        } catch (Exception e) {
-            System.err.println("Erreur lors de la création automatique du PurchaseOrder: " + e.getMessage());
-        }
-    }
-
     @Override
     public SalesOrderLineDTO getSalesOrderLineById(UUID id) {
         return lineMapper.toDTO(salesOrderLineRepository.findById(id)
@@ -115,24 +94,27 @@ public class SalesOrderLineServiceImpl implements SalesOrderLineService {
     }
 
     @Override
-    public List<SalesOrderLineDTO> getAllSalesOrderLines() {
-        return salesOrderLineRepository.findAll().stream()
-                .map(lineMapper::toDTO)
-                .collect(Collectors.toList());
+    public PageResponse<SalesOrderLineDTO> getAllSalesOrderLines(PageQuery query) {
+        return KeysetPaginator.paginate(query, salesOrderLineRepository, salesOrderLineRepository::findAll,
+                e -> new PageCursor(e.getCreatedAt(), e.getId()), lineMapper::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportSalesOrderLines(ExportFormat format, OutputStream out) {
+        try (Stream<SalesOrderLine> rows = salesOrderLineRepository.streamAllForExport()) {
+            exportWriter.write(rows, lineMapper::toDTO, format, out);
+        }
     }
 
     @Override
     public List<SalesOrderLineDTO> getSalesOrderLinesByOrder(UUID salesOrderId) {
-        return salesOrderLineRepository.findBySalesOrderId(salesOrderId).stream()
-                .map(lineMapper::toDTO)
-                .collect(Collectors.toList());
+        return salesOrderLineRepository.findDtosBySalesOrderId(salesOrderId);
     }
 
     @Override
     public List<SalesOrderLineDTO> getSalesOrderLinesByProduct(UUID productId) {
-        return salesOrderLineRepository.findByProductId(productId).stream()
-                .map(lineMapper::toDTO)
-                .collect(Collectors.toList());
+        return salesOrderLineRepository.findDtosByProductId(productId);
     }
 
     @Override
@@ -151,7 +133,7 @@ public class SalesOrderLineServiceImpl implements SalesOrderLineService {
         }
 
         if (dto.getProduct_id() != null) {
-            existingLine.setProduct(productRepository.findById(dto.getProduct_id())
+            existingLine.setProduct(productCatalog.findReference(dto.getProduct_id())
                     .orElseThrow(() -> new RuntimeException("Product not found with id: " + dto.getProduct_id())));
         }
 
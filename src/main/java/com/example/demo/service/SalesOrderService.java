@@ -1,13 +1,14 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.dto.SalesOrderDTO;
-import java.util.List;
 import java.util.UUID;
 
 public interface SalesOrderService {
     SalesOrderDTO createSalesOrder(SalesOrderDTO salesOrderDTO);
     SalesOrderDTO getSalesOrderById(UUID id);
-    List<SalesOrderDTO> getAllSalesOrders();
+    PageResponse<SalesOrderDTO> getAllSalesOrders(PageQuery query);
     SalesOrderDTO updateSalesOrder(UUID id, SalesOrderDTO salesOrderDTO);
     void deleteSalesOrder(UUID id);
 }
\ No newline at end of file
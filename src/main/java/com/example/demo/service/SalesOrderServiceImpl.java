@@ -1,19 +1,21 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.dto.PageCursor;
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.dto.SalesOrderDTO;
 import com.example.demo.entity.SalesOrder;
 import com.example.demo.entity.User;
 import com.example.demo.mapper.SalesOrderMapper;
 import com.example.demo.repository.SalesOrderRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.service.KeysetPaginator;
 import com.example.demo.service.SalesOrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -44,11 +46,9 @@ public class SalesOrderServiceImpl implements SalesOrderService {
     }
 
     @Override
-    public List<SalesOrderDTO> getAllSalesOrders() {
-        return salesOrderRepository.findAll()
-                .stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
+    public PageResponse<SalesOrderDTO> getAllSalesOrders(PageQuery query) {
+        return KeysetPaginator.paginate(query, salesOrderRepository, salesOrderRepository::findAll,
+                e -> new PageCursor(e.getCreatedAt(), e.getId()), mapper::toDTO);
     }
 
     @Override
@@ -1,5 +1,11 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.dto.DomainEvent;
+import com.example.demo.dto.ShipmentRow;
+import com.example.demo.dto.ShipmentStatusChangedEvent;
+import com.example.demo.enums.ExportFormat;
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.dto.ShipmentDTO;
 import com.example.demo.entity.Carrier;
 import com.example.demo.entity.SalesOrder;
@@ -9,16 +15,21 @@ import com.example.demo.mapper.ShipmentMapper;
 import com.example.demo.repository.CarrierRepository;
 import com.example.demo.repository.SalesOrderRepository;
 import com.example.demo.repository.ShipmentRepository;
+import com.example.demo.service.CarrierService;
+import com.example.demo.service.ExportWriter;
+import com.example.demo.service.KeysetPaginator;
+import com.example.demo.service.OutboxPublisher;
 import com.example.demo.service.ShipmentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +38,9 @@ public class ShipmentServiceImpl implements ShipmentService {
     private final ShipmentRepository shipmentRepository;
     private final SalesOrderRepository salesOrderRepository;
     private final CarrierRepository carrierRepository;
+    private final CarrierService carrierService;
+    private final ExportWriter exportWriter;
+    private final OutboxPublisher outboxPublisher;
 
     private final ShipmentMapper mapper = ShipmentMapper.INSTANCE;
 
@@ -52,12 +66,12 @@ public class ShipmentServiceImpl implements ShipmentService {
         SalesOrder salesOrder = salesOrderRepository.findById(dto.getSalesOrderId())
                 .orElseThrow(() -> new RuntimeException("Commande introuvable avec l'id : " + dto.getSalesOrderId()));
 
-        Carrier carrier = carrierRepository.findById(dto.getCarrierId())
-                .orElseThrow(() -> new RuntimeException("Transporteur introuvable avec l'id : " + dto.getCarrierId()));
+        // Place réservée dans la transaction : annulée avec l'expédition en cas d'échec
+        UUID carrierId = carrierService.reserveCapacity(dto.getCarrierId());
 
         Shipment shipment = mapper.toEntity(dto);
         shipment.setSalesOrder(salesOrder);
-        shipment.setCarrier(carrier);
+        shipment.setCarrier(carrierRepository.getReferenceById(carrierId));
 
         shipment.setPlannedDate(adjustDate(dto.getPlannedDate()));
         shipment.setShippedDate(adjustDate(dto.getShippedDate()));
@@ -68,17 +82,23 @@ public class ShipmentServiceImpl implements ShipmentService {
 
     @Override
     public ShipmentDTO getShipmentById(UUID id) {
-        Shipment shipment = shipmentRepository.findById(id)
+        return shipmentRepository.findRowById(id)
+                .map(ShipmentRow::toDTO)
                 .orElseThrow(() -> new RuntimeException("Shipment not found with id: " + id));
-        return mapper.toDTO(shipment);
     }
 
     @Override
-    public List<ShipmentDTO> getAllShipments() {
-        return shipmentRepository.findAll()
-                .stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
+    public PageResponse<ShipmentDTO> getAllShipments(PageQuery query) {
+        return KeysetPaginator.paginateProjections(query, shipmentRepository::findRowsFirstPage,
+                shipmentRepository::findRowsAfter, shipmentRepository::findRows, ShipmentRow::cursor, ShipmentRow::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportShipments(ExportFormat format, OutputStream out) {
+        try (Stream<Shipment> rows = shipmentRepository.streamAllForExport()) {
+            exportWriter.write(rows, mapper::toDTO, format, out);
+        }
     }
 
     @Override
@@ -123,26 +143,17 @@ public class ShipmentServiceImpl implements ShipmentService {
 
     @Override
     public List<ShipmentDTO> getShipmentsByOrder(UUID salesOrderId) {
-        return shipmentRepository.findBySalesOrderId(salesOrderId)
-                .stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
+        return shipmentRepository.findDtosBySalesOrderId(salesOrderId);
     }
 
     @Override
     public List<ShipmentDTO> getShipmentsByCarrier(UUID carrierId) {
-        return shipmentRepository.findByCarrierId(carrierId)
-                .stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
+        return shipmentRepository.findDtosByCarrierId(carrierId);
     }
 
     @Override
     public List<ShipmentDTO> getShipmentsByStatus(ShipmentStatus status) {
-        return shipmentRepository.findByStatus(status)
-                .stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
+        return shipmentRepository.findDtosByStatus(status);
     }
 
     @Override
@@ -151,7 +162,14 @@ public class ShipmentServiceImpl implements ShipmentService {
         Shipment shipment = shipmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Shipment not found"));
 
+        ShipmentStatus previousStatus = shipment.getStatus();
         shipment.setStatus(status);
-        return mapper.toDTO(shipmentRepository.save(shipment));
+        Shipment saved = shipmentRepository.save(shipment);
+
+        if (previousStatus != status) {
+            outboxPublisher.publish(DomainEvent.SHIPMENT_STATUS_CHANGED, "shipment", id,
+                    new ShipmentStatusChangedEvent(id, previousStatus, status));
+        }
+        return mapper.toDTO(saved);
     }
 }
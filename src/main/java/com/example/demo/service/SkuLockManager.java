@@ -0,0 +1,87 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Verrous en mémoire par produit, répartis sur un nombre fixe de bandes (stripes).
+ * Pris avant l'ouverture de la transaction : sur un SKU chaud, les requêtes attendent
+ * dans la JVM et non sur une connexion Hikari bloquée par un verrou de ligne.
+ * Ne sérialise qu'au sein d'une instance ; la base reste l'arbitre entre instances.
+ */
+@Component
+public class SkuLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final Timer[] waits;
+    private final Counter timeouts;
+    private final long timeoutNanos;
+
+    public SkuLockManager(MeterRegistry meterRegistry,
+                          @Value("${inventory.sku-lock.stripes:64}") int stripeCount,
+                          @Value("${inventory.sku-lock.timeout:5s}") Duration timeout) {
+        this.stripes = new ReentrantLock[stripeCount];
+        this.waits = new Timer[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+            waits[i] = Timer.builder("inventory.sku.lock.wait")
+                    .tag("stripe", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+        this.timeouts = meterRegistry.counter("inventory.sku.lock.timeouts");
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    public <T> T withLocks(Collection<UUID> productIds, Supplier<T> action) {
+        // Ordre croissant des bandes : deux commandes multi-produits ne peuvent pas s'interbloquer
+        TreeSet<Integer> indexes = new TreeSet<>();
+        productIds.forEach(productId -> indexes.add(stripeOf(productId)));
+
+        int[] held = new int[indexes.size()];
+        int count = 0;
+        try {
+            for (int index : indexes) {
+                acquire(index);
+                held[count++] = index;
+            }
+            return action.get();
+        } finally {
+            for (int i = count - 1; i >= 0; i--) {
+                stripes[held[i]].unlock();
+            }
+        }
+    }
+
+    int stripeOf(UUID productId) {
+        int hash = productId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+
+    private void acquire(int index) {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = stripes[index].tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Attente du verrou de stock interrompue", e);
+        }
+        waits[index].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            timeouts.increment();
+            throw new CannotAcquireLockException("Stock du produit trop sollicité, réessayez plus tard");
+        }
+    }
+}
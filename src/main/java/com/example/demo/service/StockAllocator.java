@@ -0,0 +1,33 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.entity.Inventory;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Mutation du stock disponible. L'implémentation active est choisie par
+ * la propriété {@code inventory.allocation.mode}.
+ * {@link #allocate} lève une exception si le produit n'a aucun inventaire.
+ * {@link #receive} crédite un seul entrepôt, le premier dans l'ordre des identifiants d'entrepôt,
+ * et retourne son identifiant pour que le journal enregistre un seul mouvement.
+ */
+public interface StockAllocator {
+
+    StockAllocation allocate(UUID productId, int quantity);
+
+    UUID receive(UUID productId, int quantity);
+
+    // delta : variation de qtyOnHand écrite directement en base par la transaction en cours
+    default void track(Inventory inventory, int delta) {
+    }
+
+    default void forget(UUID productId, UUID warehouseId) {
+    }
+
+    // Exécute une tentative transactionnelle complète (TransactionTemplate) ; rejouée en mode optimiste après un conflit
+    default <T> T retrying(Supplier<T> attempt) {
+        return attempt.get();
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.dto.StockLevelDTO;
+import com.example.demo.entity.Inventory;
+import com.example.demo.repository.InventoryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stock disponible par (produit, entrepôt) tenu en mémoire avec des compteurs atomiques.
+ * Les allocations ne touchent pas la base : les écarts sont cumulés puis appliqués
+ * à la table inventory par {@link #flush()} (write-behind).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.allocation.mode", havingValue = "ledger")
+public class StockLedger {
+
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<UUID, Map<UUID, Slot>> slotsByProduct = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        flush();
+        Map<UUID, Map<UUID, Slot>> rebuilt = new ConcurrentHashMap<>();
+        for (StockLevelDTO level : inventoryRepository.findAllStockLevels()) {
+            rebuilt.computeIfAbsent(level.productId(), id -> new ConcurrentHashMap<>())
+                    .put(level.warehouseId(), new Slot(level.warehouseId(), qty(level.qtyOnHand())));
+        }
+        slotsByProduct.clear();
+        slotsByProduct.putAll(rebuilt);
+        log.info("Stock ledger reconstruit: {} produits", rebuilt.size());
+    }
+
+    public boolean isTracked(UUID productId) {
+        return !slotsFor(productId).isEmpty();
+    }
+
+    public int available(UUID productId) {
+        return slotsFor(productId).values().stream().mapToInt(slot -> slot.available.get()).sum();
+    }
+
+    public StockAllocation allocate(UUID productId, int quantity) {
+        List<StockAllocation.Part> parts = new ArrayList<>();
+        int remaining = quantity;
+        for (Slot slot : slotsFor(productId).values()) {
+            if (remaining <= 0) break;
+            int taken = slot.take(remaining);
+            if (taken > 0) {
+                parts.add(new StockAllocation.Part(slot.warehouseId, taken));
+                remaining -= taken;
+            }
+        }
+        StockAllocation allocation = new StockAllocation(productId, quantity, parts);
+        releaseOnRollback(allocation);
+        return allocation;
+    }
+
+    public void release(StockAllocation allocation) {
+        Map<UUID, Slot> slots = slotsFor(allocation.productId());
+        for (StockAllocation.Part part : allocation.parts()) {
+            Slot slot = slots.get(part.warehouseId());
+            if (slot != null) {
+                slot.adjust(part.quantity());
+            }
+        }
+    }
+
+    // Crédite le premier entrepôt, dans l'ordre du ORDER BY warehouse_id des requêtes de stock
+    public UUID credit(UUID productId, int quantity) {
+        Slot slot = slotsFor(productId).values().stream()
+                .min(Comparator.comparing(candidate -> candidate.warehouseId.toString()))
+                .orElseThrow(() -> new RuntimeException("Inventaire non trouvé pour le produit: " + productId));
+        slot.adjust(quantity);
+        return slot.warehouseId;
+    }
+
+    // Reporte une écriture directe en base, une fois validée : un rollback laisse le compteur intact,
+    // et l'écart s'ajoute aux allocations concurrentes au lieu de les écraser
+    public void track(Inventory inventory, int delta) {
+        if (inventory.getProduct() == null || inventory.getWarehouse() == null) return;
+        UUID productId = inventory.getProduct().getId();
+        UUID warehouseId = inventory.getWarehouse().getId();
+        int qtyOnHand = qty(inventory.getQtyOnHand());
+        Runnable apply = () -> applyTracked(productId, warehouseId, qtyOnHand, delta);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private void applyTracked(UUID productId, UUID warehouseId, int qtyOnHand, int delta) {
+        // Produit pas encore chargé : le prochain accès lira la valeur validée en base
+        Map<UUID, Slot> slots = slotsByProduct.get(productId);
+        if (slots == null) return;
+        Slot existing = slots.putIfAbsent(warehouseId, new Slot(warehouseId, qtyOnHand));
+        if (existing != null && delta != 0) {
+            existing.available.addAndGet(delta);
+        }
+    }
+
+    public void forget(UUID productId, UUID warehouseId) {
+        Map<UUID, Slot> slots = slotsByProduct.get(productId);
+        if (slots != null) {
+            slots.remove(warehouseId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.ledger.flush-interval-ms:500}")
+    public void flush() {
+        List<Pending> batch = new ArrayList<>();
+        slotsByProduct.forEach((productId, slots) -> slots.values().forEach(slot -> {
+            int delta = slot.pending.getAndSet(0);
+            if (delta != 0) {
+                batch.add(new Pending(productId, slot, delta));
+            }
+        }));
+        if (batch.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(p ->
+                    inventoryRepository.adjustQtyOnHand(p.productId(), p.slot().warehouseId, p.delta())));
+        } catch (RuntimeException e) {
+            batch.forEach(p -> p.slot().pending.addAndGet(p.delta()));
+            log.error("Échec du flush du stock ledger ({} écarts remis en attente): {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void releaseOnRollback(StockAllocation allocation) {
+        if (allocation.parts().isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    release(allocation);
+                }
+            }
+        });
+    }
+
+    private Map<UUID, Slot> slotsFor(UUID productId) {
+        return slotsByProduct.computeIfAbsent(productId, this::load);
+    }
+
+    private Map<UUID, Slot> load(UUID productId) {
+        Map<UUID, Slot> slots = new ConcurrentHashMap<>();
+        for (StockLevelDTO level : inventoryRepository.findStockLevelsByProductId(productId)) {
+            slots.put(level.warehouseId(), new Slot(level.warehouseId(), qty(level.qtyOnHand())));
+        }
+        return slots;
+    }
+
+    private static int qty(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    private record Pending(UUID productId, Slot slot, int delta) {
+    }
+
+    private static final class Slot {
+        private final UUID warehouseId;
+        private final AtomicInteger available;
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private Slot(UUID warehouseId, int available) {
+            this.warehouseId = warehouseId;
+            this.available = new AtomicInteger(available);
+        }
+
+        private int take(int wanted) {
+            while (true) {
+                int current = available.get();
+                int taken = Math.min(current, wanted);
+                if (taken <= 0) return 0;
+                if (available.compareAndSet(current, current - taken)) {
+                    pending.addAndGet(-taken);
+                    return taken;
+                }
+            }
+        }
+
+        private void adjust(int delta) {
+            available.addAndGet(delta);
+            pending.addAndGet(delta);
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.entity.User;
-import java.util.List;
 import java.util.UUID;
 
 public interface UserService {
@@ -10,5 +11,5 @@ public interface UserService {
     User getUserById(UUID id);
     ApiResponse updateUser(UUID id, User user);
     ApiResponse deleteUser(UUID id);
-    List<User> getAllUsers();
+    PageResponse<User> getAllUsers(PageQuery query);
 }
@@ -1,13 +1,16 @@
 package com.example.demo.service;
 
+import java.util.function.Function;
 import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.PageCursor;
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.entity.User;
 import com.example.demo.exception.UserNotFoundException;
 import com.example.demo.repository.UserRepository;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -64,7 +67,8 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public PageResponse<User> getAllUsers(PageQuery query) {
+        return KeysetPaginator.paginate(query, userRepository, userRepository::findAll,
+                e -> new PageCursor(e.getCreatedAt(), e.getId()), Function.identity());
     }
 }
\ No newline at end of file
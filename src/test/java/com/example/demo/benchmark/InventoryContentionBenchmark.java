@@ -0,0 +1,151 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.InventoryDTO;
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.Warehouse;
+import com.example.demo.repository.InventoryRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.WarehouseRepository;
+import com.example.demo.service.DatabaseStockAllocator;
+import com.example.demo.service.InventoryService;
+import com.example.demo.service.OptimisticStockAllocator;
+import com.example.demo.service.PessimisticStockAllocator;
+import com.example.demo.service.StockAllocator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 64 threads allouent une unité à la fois sur un seul SKU : UPDATE conditionnel (database),
+ * compare-and-set sur la version (optimistic) et FOR UPDATE SKIP LOCKED (pessimistic).
+ * Affiche le débit, les conflits et les tentatives ; vérifie qu'aucune unité n'est perdue ni survendue.
+ * Hors suite par défaut :
+ * mvn test -Dtest=InventoryContentionBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryContentionBenchmark {
+
+    private static final int THREADS = 64;
+    private static final int ALLOCATIONS_PER_THREAD = 50;
+    private static final int WARMUP = 1;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Test
+    void singleSkuContention() throws Exception {
+        run("database", registry -> new DatabaseStockAllocator(inventoryRepository));
+        run("optimistic", registry -> new OptimisticStockAllocator(inventoryRepository, registry, 8, 2, 50));
+        run("pessimistic", registry -> new PessimisticStockAllocator(inventoryRepository, registry));
+    }
+
+    private void run(String mode, Function<SimpleMeterRegistry, StockAllocator> factory) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            round(factory.apply(new SimpleMeterRegistry()));
+        }
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StockAllocator allocator = factory.apply(registry);
+        long elapsed = 0;
+        int failed = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long[] sample = round(allocator);
+            elapsed += sample[0];
+            failed += (int) sample[1];
+        }
+        double perSecond = (double) ROUNDS * THREADS * ALLOCATIONS_PER_THREAD / (elapsed / 1_000_000_000.0);
+        System.out.printf("[bench] %-12s %8.0f allocations/s  conflits=%.0f  tentatives=%.0f  échecs=%d%n",
+                mode, perSecond,
+                counter(registry, "inventory.allocation.conflicts"),
+                counter(registry, "inventory.allocation.retries"),
+                failed);
+    }
+
+    // Stock initial = demande totale : le stock final compte les unités non servies
+    private long[] round(StockAllocator allocator) throws Exception {
+        UUID productId = newSku(THREADS * ALLOCATIONS_PER_THREAD);
+        AtomicInteger served = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ALLOCATIONS_PER_THREAD; i++) {
+                        try {
+                            StockAllocation allocation = allocator.retrying(() ->
+                                    transactionTemplate.execute(status -> allocator.allocate(productId, 1)));
+                            served.addAndGet(allocation.parts().stream().mapToInt(StockAllocation.Part::quantity).sum());
+                        } catch (ConcurrencyFailureException e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            long elapsed = System.nanoTime() - begin;
+
+            int remaining = inventoryRepository.findVersionsByProductId(productId).get(0).qtyOnHand();
+            assertThat(served.get() + remaining).isEqualTo(THREADS * ALLOCATIONS_PER_THREAD);
+            return new long[]{elapsed, failed.get()};
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private UUID newSku(int qtyOnHand) {
+        UUID productId = productRepository.save(Product.builder()
+                .name("Contention")
+                .sku("CNT-" + UUID.randomUUID())
+                .price(BigDecimal.ONE)
+                .build()).getId();
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Entrepôt contention");
+
+        InventoryDTO inventory = new InventoryDTO();
+        inventory.setProduct_id(productId);
+        inventory.setWarehouse_id(warehouseRepository.save(warehouse).getId());
+        inventory.setQtyOnHand(qtyOnHand);
+        inventory.setQtyReserved(0);
+        inventoryService.createInventory(inventory);
+        return productId;
+    }
+
+    private static double counter(SimpleMeterRegistry registry, String name) {
+        return registry.find(name).counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+}
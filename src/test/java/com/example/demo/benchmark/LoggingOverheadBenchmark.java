@@ -0,0 +1,263 @@
+package com.example.demo.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.demo.config.DropCountingAsyncAppender;
+import com.example.demo.config.LevelSamplingTurboFilter;
+import com.example.demo.config.LogDropCounter;
+import com.example.demo.dto.InventoryDTO;
+import com.example.demo.dto.SalesOrderLineDTO;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.SalesOrder;
+import com.example.demo.entity.User;
+import com.example.demo.entity.Warehouse;
+import com.example.demo.enums.OrderStatus;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.SalesOrderRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.WarehouseRepository;
+import com.example.demo.service.InventoryService;
+import com.example.demo.service.SalesOrderLineService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Coût des logs sur createSalesOrderLine quand la sortie rame (Logstash saturé simulé par une sortie
+ * qui attend à chaque écriture) : logs coupés, DEBUG synchrone, puis DEBUG derrière la file bornée
+ * du profil prod (perte sur débordement + échantillonnage). org.hibernate.SQL et com.example.demo en DEBUG.
+ * Hors suite par défaut :
+ * mvn test -Dtest=LoggingOverheadBenchmark -Dsurefire.failIfNoSpecifiedTests=false -Dlog.sink.delay-us=200
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class LoggingOverheadBenchmark {
+
+    private static final int REQUESTS = 2_000;
+    private static final int WARMUP = 200;
+    private static final int THREADS = 32;
+    private static final int SKUS = 100;
+    private static final long SINK_DELAY_NANOS = TimeUnit.MICROSECONDS.toNanos(Long.getLong("log.sink.delay-us", 200));
+    private static final String[] LOGGERS = {"org.hibernate.SQL", "com.example.demo"};
+
+    @Autowired
+    private SalesOrderLineService salesOrderLineService;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private SalesOrderRepository salesOrderRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    private final List<UUID> productIds = new ArrayList<>();
+    private UUID salesOrderId;
+    private final Map<String, Level> originalLevels = new HashMap<>();
+    private final Map<String, Boolean> originalAdditivity = new HashMap<>();
+    private final Map<String, List<Appender<ILoggingEvent>>> originalAppenders = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        for (String name : LOGGERS) {
+            Logger logger = context.getLogger(name);
+            originalLevels.put(name, logger.getLevel());
+            originalAdditivity.put(name, logger.isAdditive());
+            List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+            logger.iteratorForAppenders().forEachRemaining(appenders::add);
+            originalAppenders.put(name, appenders);
+        }
+
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Entrepôt logs");
+        UUID warehouseId = warehouseRepository.save(warehouse).getId();
+        for (int i = 0; i < SKUS; i++) {
+            UUID productId = productRepository.save(Product.builder()
+                    .name("logs-" + i)
+                    .sku("LOG-" + UUID.randomUUID())
+                    .price(BigDecimal.TEN)
+                    .build()).getId();
+            InventoryDTO inventory = new InventoryDTO();
+            inventory.setProduct_id(productId);
+            inventory.setWarehouse_id(warehouseId);
+            inventory.setQtyOnHand(1_000_000);
+            inventory.setQtyReserved(0);
+            inventoryService.createInventory(inventory);
+            productIds.add(productId);
+        }
+
+        User user = new User();
+        user.setEmail("logs-" + UUID.randomUUID() + "@example.com");
+        SalesOrder salesOrder = new SalesOrder();
+        salesOrder.setUser(userRepository.save(user));
+        salesOrder.setOrderStatus(OrderStatus.ICREATED);
+        salesOrderId = salesOrderRepository.save(salesOrder).getId();
+    }
+
+    // Les appenders d'origine (CONSOLE partagé avec root) sont détachés sans être arrêtés puis remis
+    @AfterEach
+    void restoreLogging() {
+        context.getTurboFilterList().removeIf(filter -> filter instanceof LevelSamplingTurboFilter);
+        for (String name : LOGGERS) {
+            Logger logger = context.getLogger(name);
+            detach(logger);
+            logger.setLevel(originalLevels.get(name));
+            logger.setAdditive(originalAdditivity.get(name));
+            originalAppenders.get(name).forEach(logger::addAppender);
+        }
+    }
+
+    @Test
+    void loggingCostOnCreateSalesOrderLine() throws Exception {
+        SlowSink sink = new SlowSink();
+        // JIT et pools chauds avant la première mesure
+        load(WARMUP * 5);
+
+        run("logs coupés", sink, null, Level.INFO);
+
+        run("DEBUG synchrone", sink, syncAppender("SLOW", sink), Level.DEBUG);
+
+        DropCountingAsyncAppender async = new DropCountingAsyncAppender();
+        async.setContext(context);
+        async.setName("SLOW_ASYNC");
+        async.setQueueSize(1024);
+        async.setNeverBlock(true);
+        async.addAppender(syncAppender("SLOW_BEHIND_ASYNC", sink));
+        LevelSamplingTurboFilter sampling = new LevelSamplingTurboFilter();
+        sampling.setContext(context);
+        sampling.setName("bench-sampling");
+        sampling.setLoggers(String.join(",", LOGGERS));
+        sampling.setKeepOneIn(100);
+        sampling.start();
+        context.addTurboFilter(sampling);
+        async.start();
+        run("DEBUG async borné", sink, async, Level.DEBUG);
+        System.out.printf("[bench] pertes : overflow=%d threshold=%d sampled=%d%n",
+                LogDropCounter.dropped("SLOW_ASYNC", "overflow"),
+                LogDropCounter.dropped("SLOW_ASYNC", "threshold"),
+                LogDropCounter.dropped("bench-sampling", "sampled"));
+    }
+
+    private void run(String label, SlowSink sink, Appender<ILoggingEvent> appender, Level level) throws Exception {
+        for (String name : LOGGERS) {
+            Logger logger = context.getLogger(name);
+            detach(logger);
+            logger.setAdditive(false);
+            logger.setLevel(level);
+            if (appender != null) logger.addAppender(appender);
+        }
+        load(WARMUP);
+        long writesBefore = sink.writes.sum();
+        long[] latencies = load(REQUESTS);
+        long elapsed = latencies[latencies.length - 1];
+        long[] sorted = Arrays.copyOf(latencies, latencies.length - 1);
+        Arrays.sort(sorted);
+        System.out.printf("[bench] %-20s %8.0f req/s  p50=%6.1f ms  p99=%7.1f ms  écritures=%d%n", label,
+                sorted.length / (elapsed / 1_000_000_000.0),
+                sorted[sorted.length / 2] / 1_000_000.0,
+                sorted[(int) (sorted.length * 0.99)] / 1_000_000.0,
+                sink.writes.sum() - writesBefore);
+    }
+
+    // Dernière case : durée totale de la vague
+    private long[] load(int total) throws Exception {
+        long[] latencies = new long[total + 1];
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> requests = new ArrayList<>(total);
+            long start = System.nanoTime();
+            for (int i = 0; i < total; i++) {
+                int index = i;
+                requests.add(executor.submit(() -> {
+                    long begin = System.nanoTime();
+                    salesOrderLineService.createSalesOrderLine(line(productIds.get(index % SKUS)));
+                    latencies[index] = System.nanoTime() - begin;
+                }));
+            }
+            for (Future<?> request : requests) {
+                request.get();
+            }
+            latencies[total] = System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        assertThat(latencies).doesNotContain(0L);
+        return latencies;
+    }
+
+    private static void detach(Logger logger) {
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        logger.iteratorForAppenders().forEachRemaining(appenders::add);
+        appenders.forEach(logger::detachAppender);
+    }
+
+    private OutputStreamAppender<ILoggingEvent> syncAppender(String name, SlowSink sink) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %-5level [%thread] %logger{36} - %msg%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(sink);
+        appender.start();
+        return appender;
+    }
+
+    private SalesOrderLineDTO line(UUID productId) {
+        SalesOrderLineDTO line = new SalesOrderLineDTO();
+        line.setSales_order_id(salesOrderId);
+        line.setProduct_id(productId);
+        line.setQuantity(1);
+        line.setUnitPrice(BigDecimal.TEN);
+        return line;
+    }
+
+    // Socket vers un Logstash qui n'absorbe plus : chaque écriture attend, rien n'est conservé
+    private static final class SlowSink extends OutputStream {
+
+        private final LongAdder writes = new LongAdder();
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            writes.increment();
+            LockSupport.parkNanos(SINK_DELAY_NANOS);
+        }
+    }
+}
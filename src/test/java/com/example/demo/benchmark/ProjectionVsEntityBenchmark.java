@@ -0,0 +1,111 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.ProductDTO;
+import com.example.demo.dto.ProductRow;
+import com.example.demo.entity.Product;
+import com.example.demo.mapper.ProductMapper;
+import com.example.demo.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lecture de 10 000 produits : entités gérées + ProductMapper contre projection ProductRow.
+ * Mesure le débit (lignes/s) et les octets alloués par ligne sur le thread courant.
+ * Hors suite par défaut :
+ * mvn test -Dtest=ProjectionVsEntityBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProjectionVsEntityBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 10;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        long missing = ROWS - productRepository.count();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < missing; i++) {
+            products.add(Product.builder()
+                    .name("bench-" + i)
+                    .description("Produit de benchmark " + i)
+                    .sku("PROJ-" + UUID.randomUUID())
+                    .price(BigDecimal.TEN)
+                    .build());
+        }
+        productRepository.saveAll(products);
+    }
+
+    @Test
+    void readThroughput() {
+        double entities = measure("entités + ProductMapper", () -> productRepository
+                .findFirstPage(PageRequest.ofSize(ROWS)).stream()
+                .map(ProductMapper.INSTANCE::toDTO)
+                .collect(Collectors.toList()));
+        double rows = measure("projection ProductRow", () -> productRepository
+                .findRowsFirstPage(PageRequest.ofSize(ROWS)).stream()
+                .map(ProductRow::toDTO)
+                .collect(Collectors.toList()));
+
+        System.out.printf("%n[bench] lignes/s  entity=%.0f  projection=%.0f%n%n", entities, rows);
+    }
+
+    private double measure(String label, Supplier<List<ProductDTO>> read) {
+        for (int i = 0; i < WARMUP; i++) {
+            readOnce(read);
+        }
+        long elapsed = 0;
+        long allocated = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long[] sample = readOnce(read);
+            elapsed += sample[0];
+            allocated += sample[1];
+        }
+        double rowsPerSecond = (double) ROUNDS * ROWS / (elapsed / 1_000_000_000.0);
+        System.out.printf("[bench] %-28s %10.0f lignes/s %8d octets/ligne%n",
+                label, rowsPerSecond, allocated / ((long) ROUNDS * ROWS));
+        return rowsPerSecond;
+    }
+
+    // Mesure dans une transaction en lecture comme le ferait le service, contexte vidé à la fin
+    private long[] readOnce(Supplier<List<ProductDTO>> read) {
+        return transactionTemplate.execute(status -> {
+            long threadId = Thread.currentThread().getId();
+            long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            List<ProductDTO> result = read.get();
+            long elapsed = System.nanoTime() - start;
+            long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            assertThat(result).hasSize(ROWS);
+            entityManager.clear();
+            return new long[]{elapsed, allocated};
+        });
+    }
+}
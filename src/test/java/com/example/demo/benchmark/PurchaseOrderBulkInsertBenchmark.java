@@ -0,0 +1,136 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.*;
+import com.example.demo.enums.PurchaseOrderStatus;
+import com.example.demo.enums.Role;
+import com.example.demo.repository.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Débit d'insertion (lignes/s) d'une commande d'achat de 1000 lignes :
+ * saveAll sans batch JDBC, saveAll avec batch JDBC, puis BulkInsertRepository.
+ * Hors suite par défaut :
+ * mvn test -Dtest=PurchaseOrderBulkInsertBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ * (ajouter -Dspring.datasource.url=... pour mesurer sur PostgreSQL).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PurchaseOrderBulkInsertBenchmark {
+
+    private static final int LINES = 1_000;
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+    @Autowired
+    private PurchaseOrderLineRepository purchaseOrderLineRepository;
+    @Autowired
+    private BulkInsertRepository bulkInsertRepository;
+    @Autowired
+    private SupplierRepository supplierRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Supplier supplier;
+    private User user;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        supplier = new Supplier();
+        supplier.setName("bench-supplier-" + UUID.randomUUID());
+        supplier = supplierRepository.save(supplier);
+
+        user = userRepository.save(User.builder()
+                .email("bench-" + UUID.randomUUID() + "@test.com")
+                .role(Role.ADMIN)
+                .build());
+
+        products = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            products.add(Product.builder()
+                    .name("bench-" + i)
+                    .sku("BENCH-" + UUID.randomUUID())
+                    .price(BigDecimal.TEN)
+                    .build());
+        }
+        products = productRepository.saveAll(products);
+    }
+
+    @Test
+    void purchaseOrderLineInsertThroughput() {
+        long before = purchaseOrderLineRepository.count();
+
+        double unbatched = measure("saveAll sans batch JDBC", lines -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+            purchaseOrderLineRepository.saveAll(lines);
+        });
+        double batched = measure("saveAll avec batch JDBC", purchaseOrderLineRepository::saveAll);
+        double bulk = measure("BulkInsertRepository", bulkInsertRepository::insertPurchaseOrderLines);
+
+        System.out.printf("%n[bench] lignes/s  unbatched=%.0f  batched=%.0f  bulk=%.0f%n%n", unbatched, batched, bulk);
+        assertThat(purchaseOrderLineRepository.count() - before).isEqualTo(3L * (WARMUP + ROUNDS) * LINES);
+    }
+
+    private double measure(String label, Consumer<List<PurchaseOrderLine>> insert) {
+        for (int i = 0; i < WARMUP; i++) {
+            insertOnce(insert);
+        }
+        long elapsed = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            elapsed += insertOnce(insert);
+        }
+        double rowsPerSecond = (double) ROUNDS * LINES / (elapsed / 1_000_000_000.0);
+        System.out.printf("[bench] %-28s %10.0f lignes/s%n", label, rowsPerSecond);
+        return rowsPerSecond;
+    }
+
+    private long insertOnce(Consumer<List<PurchaseOrderLine>> insert) {
+        return transactionTemplate.execute(status -> {
+            PurchaseOrder order = new PurchaseOrder();
+            order.setSupplier(supplier);
+            order.setCreatedBy(user);
+            order.setStatus(PurchaseOrderStatus.DRAFT);
+            purchaseOrderRepository.save(order);
+
+            List<PurchaseOrderLine> lines = new ArrayList<>(LINES);
+            for (int i = 0; i < LINES; i++) {
+                PurchaseOrderLine line = new PurchaseOrderLine();
+                line.setPurchaseOrder(order);
+                line.setProduct(products.get(i % products.size()));
+                line.setQuantity(1 + i % 20);
+                line.setUnitPrice(BigDecimal.ONE);
+                lines.add(line);
+            }
+
+            long start = System.nanoTime();
+            insert.accept(lines);
+            entityManager.flush();
+            long elapsed = System.nanoTime() - start;
+            entityManager.clear();
+            return elapsed;
+        });
+    }
+}
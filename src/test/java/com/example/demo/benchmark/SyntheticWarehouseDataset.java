@@ -0,0 +1,319 @@
+package com.example.demo.benchmark;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Jeu de données synthétique d'entrepôt inséré hors Hibernate : produits, entrepôts, inventaires
+ * (produit x entrepôt), fournisseurs, transporteurs, commandes de vente et d'achat avec leurs lignes.
+ * Sur PostgreSQL chaque table est chargée par COPY FROM STDIN, ailleurs (H2) par lots JDBC.
+ * Les identifiants sont déterministes (type + rang) : rien n'est gardé en mémoire, même à 1M de SKU.
+ * Cardinalités par propriétés système, ex. -Dload.skus=1000000 -Dload.warehouses=50
+ */
+final class SyntheticWarehouseDataset {
+
+    private static final int BATCH = 1_000;
+    private static final int COPY_BUFFER = 1 << 16;
+    private static final LocalDateTime CREATED_AT = LocalDateTime.now().minusDays(30);
+
+    private static final long PRODUCT = 1;
+    private static final long WAREHOUSE = 2;
+    private static final long INVENTORY = 3;
+    private static final long SUPPLIER = 4;
+    private static final long CARRIER = 5;
+    private static final long USER = 6;
+    private static final long SALES_ORDER = 7;
+    private static final long SALES_ORDER_LINE = 8;
+    private static final long PURCHASE_ORDER = 9;
+    private static final long PURCHASE_ORDER_LINE = 10;
+
+    record Cardinalities(int skus, int warehouses, int suppliers, int carriers,
+                         int salesOrders, int linesPerSalesOrder,
+                         int purchaseOrders, int linesPerPurchaseOrder) {
+
+        static Cardinalities fromSystemProperties() {
+            return new Cardinalities(
+                    Integer.getInteger("load.skus", 2_000),
+                    Integer.getInteger("load.warehouses", 5),
+                    Integer.getInteger("load.suppliers", 50),
+                    Integer.getInteger("load.carriers", 10),
+                    Integer.getInteger("load.sales-orders", 2_000),
+                    Integer.getInteger("load.lines-per-sales-order", 3),
+                    Integer.getInteger("load.purchase-orders", 2_000),
+                    Integer.getInteger("load.lines-per-purchase-order", 5));
+        }
+
+        long inventories() {
+            return (long) skus * warehouses;
+        }
+    }
+
+    private final Cardinalities cardinalities;
+    // Préfixe des UUID : deux générations successives ne se chevauchent pas
+    private final long run = ThreadLocalRandom.current().nextLong() & 0xFFFF_FFFF_FFFF_0000L;
+
+    SyntheticWarehouseDataset(Cardinalities cardinalities) {
+        this.cardinalities = cardinalities;
+    }
+
+    Cardinalities cardinalities() {
+        return cardinalities;
+    }
+
+    UUID productId(int index) {
+        return id(PRODUCT, index);
+    }
+
+    UUID warehouseId(int index) {
+        return id(WAREHOUSE, index);
+    }
+
+    UUID carrierId(int index) {
+        return id(CARRIER, index);
+    }
+
+    UUID userId() {
+        return id(USER, 0);
+    }
+
+    UUID salesOrderId(int index) {
+        return id(SALES_ORDER, index);
+    }
+
+    // Commandes d'achat générées au statut CREATED : chacune peut être reçue une fois
+    UUID purchaseOrderId(int index) {
+        return id(PURCHASE_ORDER, index);
+    }
+
+    private UUID id(long type, long index) {
+        return new UUID(run | type, index);
+    }
+
+    // Renvoie le nombre total de lignes écrites
+    long load(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            boolean copy = connection.isWrapperFor(PGConnection.class);
+            long rows = 0;
+            rows += loadReferenceData(connection, copy);
+            rows += loadInventories(connection, copy);
+            rows += loadSalesOrders(connection, copy);
+            rows += loadPurchaseOrders(connection, copy);
+            if (copy) {
+                try (var statement = connection.createStatement()) {
+                    statement.execute("ANALYZE");
+                }
+                connection.commit();
+            }
+            return rows;
+        }
+    }
+
+    private long loadReferenceData(Connection connection, boolean copy) throws SQLException {
+        Cardinalities c = cardinalities;
+        try (TableWriter users = writer(connection, copy, "users", "id", "email", "role", "created_at")) {
+            users.row(userId(), "load-" + run + "@example.com", "ADMIN", CREATED_AT);
+        }
+        try (TableWriter warehouses = writer(connection, copy, "warehouse", "id", "name", "ville", "active")) {
+            for (int i = 0; i < c.warehouses(); i++) {
+                warehouses.row(warehouseId(i), "Entrepôt " + i, "Ville " + (i % 20), true);
+            }
+        }
+        try (TableWriter products = writer(connection, copy, "product",
+                "id", "name", "description", "sku", "price", "status", "created_at")) {
+            for (int i = 0; i < c.skus(); i++) {
+                products.row(productId(i), "Produit " + i, "Produit synthétique " + i,
+                        "SYN-" + Long.toHexString(run >>> 16) + "-" + i,
+                        BigDecimal.valueOf(1 + i % 500, 0), "ACTIVE", CREATED_AT);
+            }
+        }
+        try (TableWriter suppliers = writer(connection, copy, "supplier", "id", "name", "contact_info", "active")) {
+            for (int i = 0; i < c.suppliers(); i++) {
+                suppliers.row(id(SUPPLIER, i), "Fournisseur " + i, "fournisseur" + i + "@example.com", true);
+            }
+        }
+        try (TableWriter carriers = writer(connection, copy, "carrier", "id", "name", "contact_email", "contact_phone",
+                "base_shipping_rate", "max_daily_capacity", "current_daily_shipments", "cut_off_time", "status")) {
+            for (int i = 0; i < c.carriers(); i++) {
+                carriers.row(carrierId(i), "Transporteur " + i, "transporteur" + i + "@example.com", "0600000000",
+                        BigDecimal.valueOf(500 + i, 2), 1_000_000, 0, LocalTime.of(18, 0), "ACTIVE");
+            }
+        }
+        connection.commit();
+        return 1L + c.warehouses() + c.skus() + c.suppliers() + c.carriers();
+    }
+
+    private long loadInventories(Connection connection, boolean copy) throws SQLException {
+        Cardinalities c = cardinalities;
+        try (TableWriter inventories = writer(connection, copy, "inventory", "id", "product_id", "warehouse_id",
+                "qty_on_hand", "qty_reserved", "version", "created_at")) {
+            long index = 0;
+            for (int product = 0; product < c.skus(); product++) {
+                for (int warehouse = 0; warehouse < c.warehouses(); warehouse++) {
+                    inventories.row(id(INVENTORY, index++), productId(product), warehouseId(warehouse),
+                            100_000, 0, 0L, CREATED_AT);
+                }
+            }
+        }
+        connection.commit();
+        return c.inventories();
+    }
+
+    private long loadSalesOrders(Connection connection, boolean copy) throws SQLException {
+        Cardinalities c = cardinalities;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (TableWriter orders = writer(connection, copy, "sales_order",
+                "id", "user_id", "order_status", "created_at", "updated_at")) {
+            for (int i = 0; i < c.salesOrders(); i++) {
+                orders.row(salesOrderId(i), userId(), "ICREATED", CREATED_AT, CREATED_AT);
+            }
+        }
+        try (TableWriter lines = writer(connection, copy, "sales_order_line", "id", "product_id", "sales_order_id",
+                "quantity", "unit_price", "backorder", "created_at")) {
+            long index = 0;
+            for (int i = 0; i < c.salesOrders(); i++) {
+                for (int line = 0; line < c.linesPerSalesOrder(); line++) {
+                    lines.row(id(SALES_ORDER_LINE, index++), productId(random.nextInt(c.skus())), salesOrderId(i),
+                            1 + random.nextInt(5), BigDecimal.TEN, 0, CREATED_AT);
+                }
+            }
+        }
+        connection.commit();
+        return c.salesOrders() * (1L + c.linesPerSalesOrder());
+    }
+
+    private long loadPurchaseOrders(Connection connection, boolean copy) throws SQLException {
+        Cardinalities c = cardinalities;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (TableWriter orders = writer(connection, copy, "purchase_order", "id", "supplier_id",
+                "created_by_user_id", "status", "created_at", "expected_delivery")) {
+            for (int i = 0; i < c.purchaseOrders(); i++) {
+                orders.row(purchaseOrderId(i), id(SUPPLIER, random.nextInt(c.suppliers())), userId(),
+                        "CREATED", CREATED_AT, CREATED_AT.plusDays(37));
+            }
+        }
+        try (TableWriter lines = writer(connection, copy, "purchase_order_line", "id", "product_id",
+                "purchase_order_id", "quantity", "backorder", "unit_price")) {
+            long index = 0;
+            for (int i = 0; i < c.purchaseOrders(); i++) {
+                for (int line = 0; line < c.linesPerPurchaseOrder(); line++) {
+                    lines.row(id(PURCHASE_ORDER_LINE, index++), productId(random.nextInt(c.skus())),
+                            purchaseOrderId(i), 10 + random.nextInt(90), 0, BigDecimal.ONE);
+                }
+            }
+        }
+        connection.commit();
+        return c.purchaseOrders() * (1L + c.linesPerPurchaseOrder());
+    }
+
+    private static TableWriter writer(Connection connection, boolean copy, String table, String... columns)
+            throws SQLException {
+        return copy ? new CopyWriter(connection, table, columns) : new BatchWriter(connection, table, columns);
+    }
+
+    private interface TableWriter extends AutoCloseable {
+
+        void row(Object... values) throws SQLException;
+
+        @Override
+        void close() throws SQLException;
+    }
+
+    // COPY au format texte : tabulation entre colonnes, \N pour NULL
+    private static final class CopyWriter implements TableWriter {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER);
+
+        CopyWriter(Connection connection, String table, String[] columns) throws SQLException {
+            copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN");
+        }
+
+        @Override
+        public void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) buffer.append('\t');
+                appendEscaped(values[i]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= COPY_BUFFER) flush();
+        }
+
+        private void appendEscaped(Object value) {
+            if (value == null) {
+                buffer.append("\\N");
+                return;
+            }
+            String text = value instanceof LocalDateTime dateTime ? Timestamp.valueOf(dateTime).toString()
+                    : value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char ch = text.charAt(i);
+                switch (ch) {
+                    case '\\' -> buffer.append("\\\\");
+                    case '\t' -> buffer.append("\\t");
+                    case '\n' -> buffer.append("\\n");
+                    default -> buffer.append(ch);
+                }
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+    }
+
+    private static final class BatchWriter implements TableWriter {
+
+        private final PreparedStatement statement;
+        private int pending;
+
+        BatchWriter(Connection connection, String table, String[] columns) throws SQLException {
+            statement = connection.prepareStatement("INSERT INTO " + table + " (" + String.join(", ", columns)
+                    + ") VALUES (" + "?, ".repeat(columns.length - 1) + "?)");
+        }
+
+        @Override
+        public void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                statement.setObject(i + 1, value instanceof LocalDateTime dateTime ? Timestamp.valueOf(dateTime)
+                        : value instanceof LocalTime time ? java.sql.Time.valueOf(time) : value);
+            }
+            statement.addBatch();
+            if (++pending == BATCH) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (pending > 0) statement.executeBatch();
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
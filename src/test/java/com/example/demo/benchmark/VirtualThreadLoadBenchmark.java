@@ -0,0 +1,153 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.InventoryDTO;
+import com.example.demo.dto.SalesOrderLineDTO;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.SalesOrder;
+import com.example.demo.entity.User;
+import com.example.demo.entity.Warehouse;
+import com.example.demo.enums.OrderStatus;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.SalesOrderRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.WarehouseRepository;
+import com.example.demo.service.InventoryService;
+import com.example.demo.service.SalesOrderLineService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Rafale de 5 000 createSalesOrderLine soumises d'un coup : pool de 200 threads plateforme
+ * (réglage par défaut de Tomcat) contre un thread virtuel par requête.
+ * La latence inclut l'attente d'un thread libre, comme côté Tomcat. Pool Hikari de 20 connexions.
+ * JDK 21 requis pour la partie virtuelle :
+ * mvn -Pjava21 test -Dtest=VirtualThreadLoadBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ */
+@SpringBootTest(properties = "spring.datasource.hikari.maximum-pool-size=20")
+@ActiveProfiles("test")
+class VirtualThreadLoadBenchmark {
+
+    private static final int REQUESTS = 5_000;
+    private static final int WARMUP = 500;
+    private static final int SKUS = 100;
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Autowired
+    private SalesOrderLineService salesOrderLineService;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private SalesOrderRepository salesOrderRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<UUID> productIds = new ArrayList<>();
+    private UUID salesOrderId;
+
+    @BeforeEach
+    void setUp() {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Entrepôt charge");
+        UUID warehouseId = warehouseRepository.save(warehouse).getId();
+        for (int i = 0; i < SKUS; i++) {
+            UUID productId = productRepository.save(Product.builder()
+                    .name("charge-" + i)
+                    .sku("VT-" + UUID.randomUUID())
+                    .price(BigDecimal.TEN)
+                    .build()).getId();
+            InventoryDTO inventory = new InventoryDTO();
+            inventory.setProduct_id(productId);
+            inventory.setWarehouse_id(warehouseId);
+            inventory.setQtyOnHand(1_000_000);
+            inventory.setQtyReserved(0);
+            inventoryService.createInventory(inventory);
+            productIds.add(productId);
+        }
+
+        User user = new User();
+        user.setEmail("charge-" + UUID.randomUUID() + "@example.com");
+        SalesOrder salesOrder = new SalesOrder();
+        salesOrder.setUser(userRepository.save(user));
+        salesOrder.setOrderStatus(OrderStatus.ICREATED);
+        salesOrderId = salesOrderRepository.save(salesOrder).getId();
+    }
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        ThreadPoolTaskExecutor platform = new ThreadPoolTaskExecutor();
+        platform.setCorePoolSize(TOMCAT_MAX_THREADS);
+        platform.setMaxPoolSize(TOMCAT_MAX_THREADS);
+        platform.setQueueCapacity(Integer.MAX_VALUE);
+        platform.initialize();
+        try {
+            run("threads plateforme", platform);
+        } finally {
+            platform.shutdown();
+        }
+
+        assumeTrue(Runtime.version().feature() >= 21, "Threads virtuels : JDK 21 requis");
+        run("threads virtuels", new VirtualThreadTaskExecutor("bench-"));
+    }
+
+    private void run(String label, AsyncTaskExecutor executor) throws Exception {
+        load(executor, WARMUP);
+        long[] latencies = load(executor, REQUESTS);
+        long elapsed = latencies[latencies.length - 1];
+        long[] sorted = Arrays.copyOf(latencies, latencies.length - 1);
+        Arrays.sort(sorted);
+        System.out.printf("[bench] %-20s %8.0f req/s  p50=%6.1f ms  p99=%7.1f ms%n", label,
+                sorted.length / (elapsed / 1_000_000_000.0),
+                sorted[sorted.length / 2] / 1_000_000.0,
+                sorted[(int) (sorted.length * 0.99)] / 1_000_000.0);
+    }
+
+    // Dernière case : durée totale de la vague
+    private long[] load(AsyncTaskExecutor executor, int total) throws Exception {
+        long[] latencies = new long[total + 1];
+        List<Future<?>> requests = new ArrayList<>(total);
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            int index = i;
+            long submitted = System.nanoTime();
+            requests.add(executor.submit(() -> {
+                salesOrderLineService.createSalesOrderLine(line(productIds.get(index % SKUS)));
+                latencies[index] = System.nanoTime() - submitted;
+            }));
+        }
+        for (Future<?> request : requests) {
+            request.get();
+        }
+        latencies[total] = System.nanoTime() - start;
+        assertThat(latencies).doesNotContain(0L);
+        return latencies;
+    }
+
+    private SalesOrderLineDTO line(UUID productId) {
+        SalesOrderLineDTO line = new SalesOrderLineDTO();
+        line.setSales_order_id(salesOrderId);
+        line.setProduct_id(productId);
+        line.setQuantity(1);
+        line.setUnitPrice(BigDecimal.TEN);
+        return line;
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.LocalTokenIssuer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Charge de bout en bout sur les contrôleurs : jeu {@link SyntheticWarehouseDataset} puis rejeu d'un scénario
+ * (commandes, réceptions, expéditions, lectures) tiré d'une graine fixe, donc identique d'une version à l'autre.
+ * La sécurité est court-circuitée par un JWT ADMIN injecté (pas de décodage ni de Keycloak) ;
+ * avec -Dsecurity.jwt.mode=local, un vrai jeton signé par {@link LocalTokenIssuer} traverse toute la chaîne de validation.
+ * Débit et percentiles par endpoint ; histogrammes écrits dans target/load-test/latency-histogram.csv.
+ * Hors suite par défaut :
+ * mvn test -Dtest=WarehouseWorkloadBenchmark -Dsurefire.failIfNoSpecifiedTests=false -Dload.requests=20000
+ * Sur PostgreSQL (chargement par COPY) : -Dspring.datasource.url=jdbc:postgresql://... avec
+ * -Dspring.datasource.driverClassName=org.postgresql.Driver et les identifiants.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class WarehouseWorkloadBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 5_000);
+    private static final int WARMUP = Integer.getInteger("load.warmup", 500);
+    private static final int THREADS = Integer.getInteger("load.threads", 32);
+    private static final long SEED = Long.getLong("load.seed", 42L);
+    private static final Duration[] BUCKETS = LongStream.of(1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000)
+            .mapToObj(Duration::ofMillis)
+            .toArray(Duration[]::new);
+    private static final Path HISTOGRAMS = Path.of("target", "load-test", "latency-histogram.csv");
+
+    // Pondération du scénario, en pourcentage
+    private enum Operation {
+        ORDER(45), RECEIVE(15), SHIP(20), READ(20);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        static Operation draw(Random random) {
+            int roll = random.nextInt(100);
+            for (Operation operation : values()) {
+                roll -= operation.weight;
+                if (roll < 0) return operation;
+            }
+            return READ;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private ObjectProvider<LocalTokenIssuer> tokenIssuer;
+
+    private SyntheticWarehouseDataset dataset;
+    private SyntheticWarehouseDataset.Cardinalities cardinalities;
+    private final AtomicInteger nextPurchaseOrder = new AtomicInteger();
+    private String bearerToken;
+
+    private MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> errors = new ConcurrentHashMap<>();
+
+    @Test
+    void replayWorkload() throws Exception {
+        cardinalities = SyntheticWarehouseDataset.Cardinalities.fromSystemProperties();
+        dataset = new SyntheticWarehouseDataset(cardinalities);
+        long start = System.nanoTime();
+        long rows = dataset.load(dataSource);
+        double loadSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("%n[bench] jeu de données : %d lignes en %.1f s (%.0f lignes/s), %s%n",
+                rows, loadSeconds, rows / loadSeconds, cardinalities);
+
+        LocalTokenIssuer issuer = tokenIssuer.getIfAvailable();
+        bearerToken = issuer == null ? null : issuer.issue("load-test", List.of("ADMIN"), Duration.ofHours(2));
+        System.out.printf("[bench] authentification : %s%n", bearerToken == null ? "JWT injecté" : "jeton local signé");
+
+        registry = new SimpleMeterRegistry();
+        replay(WARMUP, SEED - 1);
+        registry = new SimpleMeterRegistry();
+        timers.clear();
+        errors.clear();
+        long elapsed = replay(REQUESTS, SEED);
+
+        report(elapsed);
+        assertThat(timers).isNotEmpty();
+    }
+
+    private long replay(int operations, long seed) throws Exception {
+        Random script = new Random(seed);
+        List<Operation> plan = new ArrayList<>(operations);
+        List<Long> seeds = new ArrayList<>(operations);
+        for (int i = 0; i < operations; i++) {
+            plan.add(Operation.draw(script));
+            seeds.add(script.nextLong());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> running = new ArrayList<>(operations);
+            long start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                Operation operation = plan.get(i);
+                Random random = new Random(seeds.get(i));
+                running.add(executor.submit(() -> {
+                    run(operation, random);
+                    return null;
+                }));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private void run(Operation operation, Random random) throws Exception {
+        switch (operation) {
+            case ORDER -> {
+                MvcResult order = call("POST /api/sales-orders", post("/api/sales-orders")
+                        .content("{\"user_id\":\"" + dataset.userId() + "\",\"orderStatus\":\"ICREATED\"}"));
+                UUID orderId = idOf(order);
+                if (orderId == null) return;
+                for (int line = 0, lines = 1 + random.nextInt(3); line < lines; line++) {
+                    call("POST /api/sales-order-lines", post("/api/sales-order-lines")
+                            .content("{\"sales_order_id\":\"" + orderId + "\",\"product_id\":\"" + randomProduct(random)
+                                    + "\",\"quantity\":" + (1 + random.nextInt(5)) + ",\"unitPrice\":10}"));
+                }
+            }
+            case RECEIVE -> {
+                int index = nextPurchaseOrder.getAndIncrement();
+                if (index >= cardinalities.purchaseOrders()) {
+                    read(random);
+                    return;
+                }
+                call("PATCH /api/purchase-orders/{id}/status/{status}",
+                        patch("/api/purchase-orders/{id}/status/RECEIVED", dataset.purchaseOrderId(index)));
+            }
+            case SHIP -> {
+                MvcResult shipment = call("POST /api/shipments", post("/api/shipments")
+                        .content("{\"trackingNumber\":\"LT-" + UUID.randomUUID() + "\",\"status\":\"PLANNED\""
+                                + ",\"salesOrderId\":\"" + dataset.salesOrderId(random.nextInt(cardinalities.salesOrders()))
+                                + "\",\"carrierId\":\"" + dataset.carrierId(random.nextInt(cardinalities.carriers()))
+                                + "\"}"));
+                UUID shipmentId = idOf(shipment);
+                if (shipmentId == null) return;
+                call("POST /api/shipments/updateStatus/{id}", post("/api/shipments/updateStatus/{id}", shipmentId)
+                        .content("\"IN_TRANSIT\""));
+            }
+            case READ -> read(random);
+        }
+    }
+
+    private void read(Random random) throws Exception {
+        if (random.nextBoolean()) {
+            call("GET /api/sales-orders/{id}",
+                    get("/api/sales-orders/{id}", dataset.salesOrderId(random.nextInt(cardinalities.salesOrders()))));
+        } else {
+            call("GET /api/inventories", get("/api/inventories").param("size", "50"));
+        }
+    }
+
+    private UUID randomProduct(Random random) {
+        return dataset.productId(random.nextInt(cardinalities.skus()));
+    }
+
+    private MvcResult call(String endpoint, MockHttpServletRequestBuilder request) throws Exception {
+        request.contentType(MediaType.APPLICATION_JSON);
+        if (bearerToken != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + bearerToken);
+        } else {
+            request.with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        }
+        long start = System.nanoTime();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        timer(endpoint).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (result.getResponse().getStatus() >= 400) {
+            errors.computeIfAbsent(endpoint, name -> Counter.builder("load.errors")
+                    .tag("endpoint", name)
+                    .register(registry)).increment();
+        }
+        return result;
+    }
+
+    private UUID idOf(MvcResult result) throws IOException {
+        if (result.getResponse().getStatus() >= 400) return null;
+        return UUID.fromString(objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText());
+    }
+
+    private Timer timer(String endpoint) {
+        return timers.computeIfAbsent(endpoint, name -> Timer.builder("load.request")
+                .tag("endpoint", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .serviceLevelObjectives(BUCKETS)
+                .register(registry));
+    }
+
+    private void report(long elapsedNanos) throws IOException {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long total = timers.values().stream().mapToLong(Timer::count).sum();
+        System.out.printf("[bench] %d appels en %.1f s, %d threads : %.0f req/s%n", total, seconds, THREADS,
+                total / seconds);
+        System.out.printf("[bench] %-50s %7s %6s %8s %9s %9s %9s %9s%n",
+                "endpoint", "appels", "err", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+
+        Files.createDirectories(HISTOGRAMS.getParent());
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(HISTOGRAMS))) {
+            csv.println("endpoint,le_ms,count");
+            timers.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+                HistogramSnapshot snapshot = entry.getValue().takeSnapshot();
+                ValueAtPercentile[] percentiles = snapshot.percentileValues();
+                Counter failed = errors.get(entry.getKey());
+                System.out.printf("[bench] %-50s %7d %6d %8.0f %9.1f %9.1f %9.1f %9.1f%n",
+                        entry.getKey(), snapshot.count(), failed == null ? 0 : (long) failed.count(),
+                        snapshot.count() / seconds,
+                        percentiles[0].value(TimeUnit.MILLISECONDS),
+                        percentiles[1].value(TimeUnit.MILLISECONDS),
+                        percentiles[2].value(TimeUnit.MILLISECONDS),
+                        snapshot.max(TimeUnit.MILLISECONDS));
+                for (CountAtBucket bucket : snapshot.histogramCounts()) {
+                    csv.printf("\"%s\",%.3f,%.0f%n", entry.getKey(),
+                            bucket.bucket(TimeUnit.MILLISECONDS), bucket.count());
+                }
+            });
+        }
+        System.out.printf("[bench] histogrammes : %s%n%n", HISTOGRAMS.toAbsolutePath());
+    }
+}
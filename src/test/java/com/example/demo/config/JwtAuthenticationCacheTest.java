@@ -0,0 +1,95 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-15T10:00:00Z");
+
+    private final JwtDecoder jwtDecoder = mock(JwtDecoder.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void sameToken_IsDecodedOnceAndAuthoritiesAreShared() {
+        when(jwtDecoder.decode("token-a")).thenReturn(jwt("token-a", NOW.plusSeconds(300)));
+        JwtAuthenticationCache cache = cache(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        Authentication first = cache.authenticate(new BearerTokenAuthenticationToken("token-a"));
+        Authentication second = cache.authenticate(new BearerTokenAuthenticationToken("token-a"));
+
+        verify(jwtDecoder, times(1)).decode("token-a");
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo("user-1");
+        assertThat(second.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN", "ROLE_WAREHOUSE_MANAGER");
+        assertThat(second.getAuthorities().iterator().next()).isSameAs(first.getAuthorities().iterator().next());
+        assertThat(meterRegistry.timer("security.jwt.validation", "result", "miss").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("security.jwt.validation", "result", "hit").count()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredToken_IsNotServedFromCache() {
+        when(jwtDecoder.decode("token-b")).thenReturn(jwt("token-b", NOW.plusSeconds(30)));
+        JwtAuthenticationCache cache = cache(Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.authenticate(new BearerTokenAuthenticationToken("token-b"));
+
+        JwtAuthenticationCache later = new JwtAuthenticationCache(jwtDecoder, meterRegistry, 100, Duration.ofMinutes(5),
+                Clock.fixed(NOW.plusSeconds(31), ZoneOffset.UTC));
+        later.authenticate(new BearerTokenAuthenticationToken("token-b"));
+        later.authenticate(new BearerTokenAuthenticationToken("token-b"));
+
+        // Le second cache voit l'entrée déjà expirée à sa création : chaque appel repasse par le décodeur
+        verify(jwtDecoder, times(3)).decode("token-b");
+    }
+
+    @Test
+    void invalidToken_IsRejectedAndMeasured() {
+        when(jwtDecoder.decode("forged")).thenThrow(new BadJwtException("signature invalide"));
+        JwtAuthenticationCache cache = cache(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThatThrownBy(() -> cache.authenticate(new BearerTokenAuthenticationToken("forged")))
+                .isInstanceOf(InvalidBearerTokenException.class);
+        assertThatThrownBy(() -> cache.authenticate(new BearerTokenAuthenticationToken("forged")))
+                .isInstanceOf(InvalidBearerTokenException.class);
+
+        verify(jwtDecoder, times(2)).decode("forged");
+        assertThat(meterRegistry.timer("security.jwt.validation", "result", "invalid").count()).isEqualTo(2);
+        assertThat(meterRegistry.find("security.jwt.validation.cpu").timers()).isNotEmpty();
+    }
+
+    private JwtAuthenticationCache cache(Clock clock) {
+        return new JwtAuthenticationCache(jwtDecoder, meterRegistry, 100, Duration.ofMinutes(5), clock);
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user-1")
+                .issuedAt(NOW.minusSeconds(60))
+                .expiresAt(expiresAt)
+                .claim("realm_access", Map.of("roles", List.of("ADMIN", "WAREHOUSE_MANAGER")))
+                .build();
+    }
+}
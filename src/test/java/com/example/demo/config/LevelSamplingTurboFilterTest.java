@@ -0,0 +1,60 @@
+package com.example.demo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LevelSamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final LevelSamplingTurboFilter filter = new LevelSamplingTurboFilter();
+    private Logger noisy;
+
+    @BeforeEach
+    void setUp() {
+        filter.setContext(context);
+        filter.setName("sampling-test");
+        filter.setLoggers("org.hibernate.SQL, com.example.demo");
+        filter.setKeepOneIn(10);
+        filter.start();
+        noisy = context.getLogger("com.example.demo.service.X");
+        noisy.setLevel(Level.TRACE);
+    }
+
+    @Test
+    void debugOfListedLogger_KeepsOneInN() {
+        int kept = 0;
+        for (int i = 0; i < 100; i++) {
+            if (filter.decide(null, noisy, Level.DEBUG, "ligne {}", null, null) == FilterReply.NEUTRAL) kept++;
+        }
+
+        assertThat(kept).isEqualTo(10);
+        assertThat(LogDropCounter.dropped("sampling-test", "sampled")).isEqualTo(90);
+    }
+
+    @Test
+    void infoAndUnlistedLoggers_AreNeverSampled() {
+        Logger other = context.getLogger("org.springframework.web");
+        other.setLevel(Level.DEBUG);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(filter.decide(null, noisy, Level.INFO, "info", null, null)).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(null, other, Level.DEBUG, "web", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    // Niveau désactivé : l'événement sera refusé de toute façon, sans consommer le quota
+    @Test
+    void disabledLevelAndEnabledChecks_AreLeftAlone() {
+        noisy.setLevel(Level.INFO);
+
+        assertThat(filter.decide(null, noisy, Level.DEBUG, "ligne", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(null, context.getLogger("org.hibernate.SQL.x"), Level.DEBUG, null, null, null))
+                .isEqualTo(FilterReply.NEUTRAL);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "security.jwt.mode=local",
+        "security.jwt.local.key-file=target/local-jwt/signing-key.json"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LocalJwtModeIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private LocalTokenIssuer tokenIssuer;
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    void issuedToken_IsValidatedInProcess() throws Exception {
+        String token = tokenIssuer.issue("admin-local", List.of("ADMIN"));
+
+        mockMvc.perform(get("/api/warehouses").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        assertThat(jwtDecoder.decode(token).getIssuer().toString()).isEqualTo("http://localhost/local-issuer");
+        assertThat(Files.exists(Path.of("target/local-jwt/signing-key.json"))).isTrue();
+    }
+
+    @Test
+    void keyFile_IsReadableByOwnerOnly() throws Exception {
+        Path keyFile = Path.of("target/local-jwt/signing-key.json");
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(keyFile))).isEqualTo("rw-------");
+    }
+
+    @Test
+    void rolesFromIssuedToken_AreEnforced() throws Exception {
+        String token = tokenIssuer.issue("wm-local", List.of("WAREHOUSE_MANAGER"));
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void expiredOrTamperedTokens_AreRejected() throws Exception {
+        String expired = tokenIssuer.issue("admin-local", List.of("ADMIN"), Duration.ofMinutes(-5));
+        String valid = tokenIssuer.issue("admin-local", List.of("ADMIN"));
+        String[] parts = valid.split("\\.");
+        String tampered = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+
+        mockMvc.perform(get("/api/warehouses").header(HttpHeaders.AUTHORIZATION, "Bearer " + expired))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/warehouses").header(HttpHeaders.AUTHORIZATION, "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.Warehouse;
+import com.example.demo.repository.WarehouseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "sql.budget.statements=0",
+        "sql.slow-query.threshold=0ms",
+        "sql.slow-query.sample-rate=1",
+        "sql.slow-query.mask-parameters=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class RequestSqlMetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void requestOverBudget_IsCountedAndLoggedWithControllerMethod(CapturedOutput output) throws Exception {
+        UUID id = newWarehouse();
+
+        mockMvc.perform(get("/api/warehouses/{id}", id).with(admin())).andExpect(status().isOk());
+
+        String handler = "WarehouseController#getWarehouseById";
+        assertThat(meterRegistry.counter("sql.budget.exceeded", "handler", handler, "kind", "statements").count())
+                .isPositive();
+        Timer sqlTime = meterRegistry.find("http.server.requests.sql").tag("handler", handler).timer();
+        assertThat(sqlTime).isNotNull();
+        assertThat(meterRegistry.find("http.server.requests.statements").tag("handler", handler)
+                .summary().totalAmount()).isGreaterThanOrEqualTo(1);
+        assertThat(output).contains("handler=" + handler, "statements=");
+    }
+
+    @Test
+    void slowQueries_AreSampledWithBindParameters(CapturedOutput output) throws Exception {
+        UUID id = newWarehouse();
+
+        // Le premier passage marque le SQL comme lent ; les paramètres sont capturés aux suivants
+        mockMvc.perform(get("/api/warehouses/{id}", id).with(admin())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/warehouses/{id}", id).with(admin())).andExpect(status().isOk());
+
+        assertThat(meterRegistry.counter("sql.slow.queries").count()).isPositive();
+        assertThat(output).contains("sqlTimeMs=", "parameters=[" + id);
+    }
+
+    @Test
+    void dataSource_IsWrappedAndPoolMetricsStillBound() {
+        assertThat(dataSource).isInstanceOf(MonitoredDataSource.class);
+        assertThat(meterRegistry.find("hikaricp.connections.acquire").timer()).isNotNull();
+    }
+
+    private UUID newWarehouse() {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Entrepôt budget SQL");
+        return warehouseRepository.save(warehouse).getId();
+    }
+
+    private static RequestPostProcessor admin() {
+        return jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.Warehouse;
+import com.example.demo.repository.WarehouseRepository;
+import com.example.demo.service.ProductCatalog;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class ServiceMetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Test
+    void serviceCalls_AreTimedWithOutcome() throws Exception {
+        mockMvc.perform(get("/api/warehouses").with(admin())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/warehouses/{id}", UUID.randomUUID()).with(admin()));
+
+        Timer success = meterRegistry.find("service.method")
+                .tags("class", "WarehouseServiceImp", "method", "getAllWarehouses", "outcome", "success")
+                .timer();
+        Timer error = meterRegistry.find("service.method")
+                .tags("class", "WarehouseServiceImp", "method", "getWarehouseById", "outcome", "error")
+                .timer();
+        assertThat(success).isNotNull();
+        assertThat(success.count()).isPositive();
+        assertThat(error).isNotNull();
+    }
+
+    @Test
+    void componentCalls_AreTimedToo() {
+        productCatalog.findById(UUID.randomUUID());
+
+        Timer timer = meterRegistry.find("service.method")
+                .tags("class", "ProductCatalog", "method", "findById", "outcome", "success")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isPositive();
+    }
+
+    @Test
+    void requests_RecordStatementCountPerUriTemplate() throws Exception {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Entrepôt métriques");
+        UUID id = warehouseRepository.save(warehouse).getId();
+
+        mockMvc.perform(get("/api/warehouses/{id}", id).with(admin())).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find("http.server.requests.statements")
+                .tags("method", "GET", "uri", "/api/warehouses/{id}")
+                .summary();
+        assertThat(statements).isNotNull();
+        assertThat(statements.totalAmount()).isGreaterThanOrEqualTo(1);
+    }
+
+    // Ouvert au scrape ; le statut lui-même dépend des indicateurs (ex. Elasticsearch absent en test)
+    @Test
+    void health_IsReachableWithoutToken() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isNotIn(401, 403));
+    }
+
+    @Test
+    void prometheus_ExposesServiceTimers() throws Exception {
+        productCatalog.findById(UUID.randomUUID());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(result -> assertThat(result.getResponse().getContentAsString()).contains("service_method_seconds"));
+    }
+
+    private static RequestPostProcessor admin() {
+        return jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+class SqlStatementMonitorTest {
+
+    private static final String SQL = "select * from warehouse where id=?";
+
+    @Test
+    void parameters_AreCapturedOnlyOnceTheStatementWasSeenSlow() {
+        SqlStatementMonitor monitor = monitor(true);
+
+        assertThat(monitor.capturesParameters(SQL)).isFalse();
+        monitor.record(SQL, List.of(), Duration.ofMillis(1).toNanos());
+        assertThat(monitor.capturesParameters(SQL)).isFalse();
+
+        monitor.record(SQL, List.of(), Duration.ofMillis(300).toNanos());
+        assertThat(monitor.capturesParameters(SQL)).isTrue();
+        assertThat(monitor.capturesParameters("select 1")).isFalse();
+    }
+
+    @Test
+    void parameters_AreMaskedByDefault(CapturedOutput output) {
+        monitor(true).record(SQL, List.of("secret@exemple.fr", 42), Duration.ofMillis(300).toNanos());
+
+        assertThat(output).contains("parameters=[<String>, <Integer>]").doesNotContain("secret@exemple.fr");
+    }
+
+    @Test
+    void unmaskedParameters_AreTruncated(CapturedOutput output) {
+        monitor(false).record(SQL, List.of("x".repeat(100)), Duration.ofMillis(300).toNanos());
+
+        assertThat(output).contains("parameters=[" + "x".repeat(64) + "...]").doesNotContain("x".repeat(65));
+    }
+
+    private static SqlStatementMonitor monitor(boolean mask) {
+        return new SqlStatementMonitor(new SimpleMeterRegistry(), Duration.ofMillis(200), 1, 20, 64, mask);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Carrier;
+import com.example.demo.enums.CarrierStatus;
+import com.example.demo.repository.CarrierRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CarrierCapacityTest {
+
+    private static final int THREADS = 16;
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    @Autowired
+    private CarrierService carrierService;
+    @Autowired
+    private CarrierRepository carrierRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentReservations_NeverExceedCapacity() throws Exception {
+        UUID carrierId = carrier(10, 0, LocalTime.of(17, 0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        int reserved = 0;
+        try {
+            List<Future<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                attempts.add(executor.submit(() -> {
+                    try {
+                        carrierService.incrementDailyShipments(carrierId);
+                        return true;
+                    } catch (RuntimeException full) {
+                        return false;
+                    }
+                }));
+            }
+            for (Future<Boolean> attempt : attempts) {
+                if (attempt.get()) reserved++;
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(reserved).isEqualTo(10);
+        assertThat(shipments(carrierId)).isEqualTo(10);
+    }
+
+    @Test
+    void scheduler_ResetsOnlyCarriersWhoseCutOffHasPassed() {
+        UUID early = carrier(5, 5, LocalTime.of(14, 0), DAY.minusDays(1));
+        UUID late = carrier(5, 5, LocalTime.of(18, 0), DAY.minusDays(1));
+        UUID nightly = carrier(5, 5, LocalTime.of(0, 30), DAY);
+        UUID unscheduled = carrier(5, 5, null, DAY);
+        CarrierCapacityResetter resetter = new CarrierCapacityResetter(carrierRepository, transactionTemplate);
+        resetter.resetDue(DAY.atTime(13, 0));
+        assertThat(shipments(early)).isEqualTo(5);
+
+        resetter.resetDue(DAY.atTime(15, 0));
+        assertThat(shipments(early)).isZero();
+        assertThat(shipments(late)).isEqualTo(5);
+
+        // Tours après minuit : heures limites du nouveau jour, et celle de 18:00 manquée la veille
+        resetter.resetDue(DAY.plusDays(1).atTime(1, 0));
+        assertThat(shipments(late)).isZero();
+        assertThat(shipments(nightly)).isZero();
+        assertThat(shipments(unscheduled)).isZero();
+    }
+
+    // Deux instances planifiées : l'heure limite n'est appliquée qu'une fois par jour
+    @Test
+    void scheduler_ResetsOncePerDayAcrossInstances() {
+        UUID carrierId = carrier(5, 5, LocalTime.of(14, 0), DAY.minusDays(1));
+        CarrierCapacityResetter first = new CarrierCapacityResetter(carrierRepository, transactionTemplate);
+        CarrierCapacityResetter second = new CarrierCapacityResetter(carrierRepository, transactionTemplate);
+
+        first.resetDue(DAY.atTime(14, 0));
+        carrierService.incrementDailyShipments(carrierId);
+        second.resetDue(DAY.atTime(14, 1));
+
+        assertThat(shipments(carrierId)).isEqualTo(1);
+        assertThat(carrierRepository.findById(carrierId).orElseThrow().getLastResetDate()).isEqualTo(DAY);
+    }
+
+    // Arrêt de plusieurs jours : l'heure limite manquée est rattrapée au premier tour, celle du jour reste due
+    @Test
+    void scheduler_CatchesUpACutOffMissedWhileDown() {
+        UUID carrierId = carrier(5, 5, LocalTime.of(17, 0), DAY.minusDays(3));
+        CarrierCapacityResetter resetter = new CarrierCapacityResetter(carrierRepository, transactionTemplate);
+
+        resetter.resetDue(DAY.atTime(10, 0));
+        assertThat(shipments(carrierId)).isZero();
+
+        carrierService.incrementDailyShipments(carrierId);
+        resetter.resetDue(DAY.atTime(12, 0));
+        assertThat(shipments(carrierId)).isEqualTo(1);
+
+        resetter.resetDue(DAY.atTime(17, 0));
+        assertThat(shipments(carrierId)).isZero();
+    }
+
+    private UUID carrier(int capacity, int shipments, LocalTime cutOff) {
+        return carrier(capacity, shipments, cutOff, null);
+    }
+
+    private UUID carrier(int capacity, int shipments, LocalTime cutOff, LocalDate lastReset) {
+        Carrier carrier = new Carrier();
+        carrier.setName("Transporteur " + UUID.randomUUID());
+        carrier.setBaseShippingRate(BigDecimal.TEN);
+        carrier.setMaxDailyCapacity(capacity);
+        carrier.setCurrentDailyShipments(shipments);
+        carrier.setCutOffTime(cutOff);
+        carrier.setLastResetDate(lastReset);
+        carrier.setStatus(CarrierStatus.ACTIVE);
+        return carrierRepository.save(carrier).getId();
+    }
+
+    private int shipments(UUID carrierId) {
+        return carrierRepository.findById(carrierId).orElseThrow().getCurrentDailyShipments();
+    }
+}
@@ -331,17 +331,14 @@ class CarrierServiceImplTest {
 
     @Test
     void incrementDailyShipments_ShouldIncrementShipments() {
-        carrier.setCurrentDailyShipments(50);
-        carrier.setMaxDailyCapacity(100);
-
+        when(carrierRepository.reserveCapacity(carrierId)).thenReturn(1);
         when(carrierRepository.findById(carrierId)).thenReturn(Optional.of(carrier));
-        when(carrierRepository.save(any(Carrier.class))).thenReturn(carrier);
 
         CarrierDTO result = carrierService.incrementDailyShipments(carrierId);
 
         assertNotNull(result);
-        verify(carrierRepository, times(1)).findById(carrierId);
-        verify(carrierRepository, times(1)).save(carrier);
+        verify(carrierRepository, times(1)).reserveCapacity(carrierId);
+        verify(carrierRepository, never()).save(any(Carrier.class));
     }
 
     @Test
@@ -350,16 +347,59 @@ class CarrierServiceImplTest {
         carrier.setCurrentDailyShipments(100);
         carrier.setMaxDailyCapacity(100);
 
+        when(carrierRepository.reserveCapacity(carrierId)).thenReturn(0);
         when(carrierRepository.findById(carrierId)).thenReturn(Optional.of(carrier));
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> carrierService.incrementDailyShipments(carrierId));
 
         assertEquals("Capacité quotidienne maximale atteinte pour le transporteur: " + carrier.getName(), exception.getMessage());
-        verify(carrierRepository, times(1)).findById(carrierId);
         verify(carrierRepository, never()).save(any(Carrier.class));
     }
 
+    @Test
+    void reserveCapacity_WhenPreferredCarrierHasRoom_ShouldKeepIt() {
+        when(carrierRepository.reserveCapacity(carrierId)).thenReturn(1);
+
+        assertEquals(carrierId, carrierService.reserveCapacity(carrierId));
+        verify(carrierRepository, never()).findIdsWithRemainingCapacity();
+    }
+
+    @Test
+    void reserveCapacity_WhenPreferredCarrierIsFull_ShouldFallBackToNextCarrier() {
+        UUID full = UUID.randomUUID();
+        UUID next = UUID.randomUUID();
+        when(carrierRepository.reserveCapacity(carrierId)).thenReturn(0);
+        when(carrierRepository.existsById(carrierId)).thenReturn(true);
+        // Le premier candidat se remplit entre la lecture et la réservation
+        when(carrierRepository.findIdsWithRemainingCapacity()).thenReturn(List.of(full, next));
+        when(carrierRepository.reserveCapacity(full)).thenReturn(0);
+        when(carrierRepository.reserveCapacity(next)).thenReturn(1);
+
+        assertEquals(next, carrierService.reserveCapacity(carrierId));
+    }
+
+    @Test
+    void reserveCapacity_WhenEveryCarrierIsFull_ShouldThrowException() {
+        when(carrierRepository.reserveCapacity(carrierId)).thenReturn(0);
+        when(carrierRepository.existsById(carrierId)).thenReturn(true);
+        when(carrierRepository.findIdsWithRemainingCapacity()).thenReturn(List.of());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> carrierService.reserveCapacity(carrierId));
+
+        assertTrue(exception.getMessage().startsWith("Aucun transporteur disponible"));
+    }
+
+    @Test
+    void reserveCapacity_WhenCarrierUnknown_ShouldThrowException() {
+        when(carrierRepository.reserveCapacity(carrierId)).thenReturn(0);
+        when(carrierRepository.existsById(carrierId)).thenReturn(false);
+
+        assertThrows(RuntimeException.class, () -> carrierService.reserveCapacity(carrierId));
+        verify(carrierRepository, never()).findIdsWithRemainingCapacity();
+    }
+
     @Test
     void resetDailyShipments_ShouldResetToZero() {
         carrier.setCurrentDailyShipments(75);
@@ -0,0 +1,105 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.dto.StockLevelDTO;
+import com.example.demo.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseStockAllocatorTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @InjectMocks
+    private DatabaseStockAllocator allocator;
+
+    private UUID productId;
+    private UUID warehouseA;
+    private UUID warehouseB;
+
+    @BeforeEach
+    void setUp() {
+        productId = UUID.randomUUID();
+        warehouseA = UUID.randomUUID();
+        warehouseB = UUID.randomUUID();
+    }
+
+    @Test
+    void allocate_DecrementsEachWarehouseWithOneConditionalUpdate() {
+        when(inventoryRepository.findStockLevelsByProductId(productId)).thenReturn(List.of(
+                new StockLevelDTO(productId, warehouseA, 4),
+                new StockLevelDTO(productId, warehouseB, 10)));
+        when(inventoryRepository.decrementQtyOnHand(any(), any(), anyInt())).thenReturn(1);
+
+        StockAllocation allocation = allocator.allocate(productId, 6);
+
+        assertThat(allocation.allocated()).isEqualTo(6);
+        assertThat(allocation.backorder()).isZero();
+        verify(inventoryRepository).decrementQtyOnHand(productId, warehouseA, 4);
+        verify(inventoryRepository).decrementQtyOnHand(productId, warehouseB, 2);
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    @Test
+    void allocate_RereadsLevelsWhenConcurrentUpdateWins() {
+        when(inventoryRepository.findStockLevelsByProductId(productId))
+                .thenReturn(List.of(new StockLevelDTO(productId, warehouseA, 5)))
+                .thenReturn(List.of(new StockLevelDTO(productId, warehouseA, 2)));
+        when(inventoryRepository.decrementQtyOnHand(productId, warehouseA, 5)).thenReturn(0);
+        when(inventoryRepository.decrementQtyOnHand(productId, warehouseA, 2)).thenReturn(1);
+
+        StockAllocation allocation = allocator.allocate(productId, 5);
+
+        assertThat(allocation.allocated()).isEqualTo(2);
+        assertThat(allocation.backorder()).isEqualTo(3);
+    }
+
+    @Test
+    void allocate_ThrowsWhenProductHasNoInventory() {
+        when(inventoryRepository.findStockLevelsByProductId(productId)).thenReturn(List.of());
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> allocator.allocate(productId, 1));
+
+        assertThat(ex.getMessage()).contains("Aucun inventaire trouvé");
+    }
+
+    @Test
+    void receive_CreditsOnlyTheFirstWarehouse() {
+        when(inventoryRepository.findStockLevelsByProductId(productId)).thenReturn(List.of(
+                new StockLevelDTO(productId, warehouseA, 4),
+                new StockLevelDTO(productId, warehouseB, 10)));
+        when(inventoryRepository.adjustQtyOnHand(productId, warehouseA, 3)).thenReturn(1);
+
+        UUID credited = allocator.receive(productId, 3);
+
+        assertThat(credited).isEqualTo(warehouseA);
+        verify(inventoryRepository, never()).adjustQtyOnHand(eq(productId), eq(warehouseB), anyInt());
+    }
+
+    @Test
+    void receive_ThrowsWhenNoRowUpdated() {
+        when(inventoryRepository.findStockLevelsByProductId(productId))
+                .thenReturn(List.of(new StockLevelDTO(productId, warehouseA, 4)));
+        when(inventoryRepository.adjustQtyOnHand(productId, warehouseA, 3)).thenReturn(0);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> allocator.receive(productId, 3));
+
+        assertThat(ex.getMessage()).contains("Inventaire non trouvé");
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ShipmentDTO;
+import com.example.demo.enums.ExportFormat;
+import com.example.demo.enums.ShipmentStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ExportWriterTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ExportWriter exportWriter;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportWriter = new ExportWriter(objectMapper, 2);
+        ReflectionTestUtils.setField(exportWriter, "entityManager", entityManager);
+    }
+
+    @Test
+    void write_Ndjson_OneObjectPerLineAndClearsPersistenceContext() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportWriter.write(IntStream.range(0, 5).mapToObj(i -> shipment("TRK-" + i)),
+                Function.identity(), ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(5);
+        assertThat(lines).hasSize(5);
+        assertThat(lines[0]).startsWith("{").contains("\"trackingNumber\":\"TRK-0\"");
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void write_Csv_HeaderThenEscapedRows() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportWriter.write(Stream.of(shipment("TRK,\"1\"")), Function.identity(), ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines[0]).isEqualTo("id,trackingNumber,status,plannedDate,shippedDate,deliveredDate,salesOrderId,carrierId");
+        assertThat(lines[1]).contains(",\"TRK,\"\"1\"\"\",PLANNED,2024-01-01T10:00:00,,,");
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    void write_EmptyStream_WritesNothing() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportWriter.write(Stream.empty(), Function.identity(), ExportFormat.CSV, out);
+
+        assertThat(count).isZero();
+        assertThat(out.size()).isZero();
+    }
+
+    private ShipmentDTO shipment(String trackingNumber) {
+        return ShipmentDTO.builder()
+                .id(UUID.randomUUID())
+                .trackingNumber(trackingNumber)
+                .status(ShipmentStatus.PLANNED)
+                .plannedDate(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .salesOrderId(UUID.randomUUID())
+                .carrierId(UUID.randomUUID())
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.InventoryDTO;
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.Warehouse;
+import com.example.demo.repository.InventoryMovementRepository;
+import com.example.demo.repository.InventoryRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryJournalTest {
+
+    @Autowired
+    private InventoryJournal inventoryJournal;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private InventoryMovementRepository inventoryMovementRepository;
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    @Autowired
+    private StockAllocator stockAllocator;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID productId;
+    private UUID warehouseId;
+    private UUID inventoryId;
+
+    @BeforeEach
+    void setUp() {
+        productId = productRepository.save(Product.builder()
+                .name("Journal")
+                .sku("JRN-" + UUID.randomUUID())
+                .price(BigDecimal.ONE)
+                .build()).getId();
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Entrepôt journal");
+        warehouseId = warehouseRepository.save(warehouse).getId();
+
+        InventoryDTO inventory = new InventoryDTO();
+        inventory.setProduct_id(productId);
+        inventory.setWarehouse_id(warehouseId);
+        inventory.setQtyOnHand(100);
+        inventory.setQtyReserved(0);
+        inventoryId = inventoryService.createInventory(inventory).getId();
+    }
+
+    @Test
+    void stockAsOf_ReplaysMovementsUpToTheRequestedInstant() {
+        LocalDateTime afterOpening = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryJournal.recordAllocation(allocation(30), "SO-1", "Allocation commande de vente");
+            inventoryJournal.recordReceipt(productId, warehouseId, 5, "PO-1", "Réception commande d'achat");
+        });
+
+        assertThat(inventoryMovementRepository.findByInventoryId(inventoryId))
+                .extracting(movement -> movement.getQuantity())
+                .containsExactly(100, -30, 5);
+        assertThat(inventoryService.getStockAsOf(inventoryId, LocalDateTime.now()).qtyOnHand()).isEqualTo(75);
+        assertThat(inventoryService.getStockAsOf(inventoryId, afterOpening).qtyOnHand()).isEqualTo(100);
+        assertThat(inventoryService.getStockAsOf(inventoryId, afterOpening.minusDays(1)).qtyOnHand()).isZero();
+    }
+
+    @Test
+    void receipt_CreditsASingleWarehouseWhenTheProductIsStockedInTwo() {
+        Warehouse second = new Warehouse();
+        second.setName("Entrepôt journal bis");
+        InventoryDTO inventory = new InventoryDTO();
+        inventory.setProduct_id(productId);
+        inventory.setWarehouse_id(warehouseRepository.save(second).getId());
+        inventory.setQtyOnHand(0);
+        inventory.setQtyReserved(0);
+        UUID secondInventoryId = inventoryService.createInventory(inventory).getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            UUID credited = stockAllocator.receive(productId, 7);
+            inventoryJournal.recordReceipt(productId, credited, 7, "PO-4", "Réception commande d'achat");
+        });
+
+        int totalOnHand = inventoryRepository.findByProductId(productId).stream()
+                .mapToInt(row -> row.getQtyOnHand())
+                .sum();
+        assertThat(totalOnHand).isEqualTo(100 + 7);
+        long receiptMovements = inventoryMovementRepository.findByInventoryId(inventoryId).stream()
+                .filter(movement -> "PO-4".equals(movement.getReferenceDocument()))
+                .count()
+                + inventoryMovementRepository.findByInventoryId(secondInventoryId).stream()
+                .filter(movement -> "PO-4".equals(movement.getReferenceDocument()))
+                .count();
+        assertThat(receiptMovements).isEqualTo(1);
+    }
+
+    @Test
+    void rolledBackTransaction_LeavesNoMovement() {
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryJournal.recordAllocation(allocation(10), "SO-2", "Allocation commande de vente");
+            status.setRollbackOnly();
+        });
+
+        assertThat(inventoryMovementRepository.countByInventoryId(inventoryId)).isEqualTo(1);
+    }
+
+    @Test
+    void recordOutsideTransaction_IsRejected() {
+        assertThatThrownBy(() -> inventoryJournal.recordReceipt(productId, warehouseId, 1, "PO-3", "Réception"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void deleteInventory_PurgesItsJournal() {
+        inventoryService.deleteInventory(inventoryId);
+
+        assertThat(inventoryMovementRepository.countByInventoryId(inventoryId)).isZero();
+    }
+
+    private StockAllocation allocation(int quantity) {
+        return new StockAllocation(productId, quantity, List.of(new StockAllocation.Part(warehouseId, quantity)));
+    }
+}
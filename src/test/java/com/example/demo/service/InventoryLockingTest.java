@@ -0,0 +1,185 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.InventoryDTO;
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.entity.Inventory;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.Warehouse;
+import com.example.demo.repository.InventoryRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.WarehouseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryLockingTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManager entityManager;
+
+    private UUID productId;
+    private UUID inventoryId;
+
+    @BeforeEach
+    void setUp() {
+        productId = productRepository.save(Product.builder()
+                .name("Verrou")
+                .sku("LCK-" + UUID.randomUUID())
+                .price(BigDecimal.ONE)
+                .build()).getId();
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Entrepôt verrou");
+        UUID warehouseId = warehouseRepository.save(warehouse).getId();
+
+        InventoryDTO inventory = new InventoryDTO();
+        inventory.setProduct_id(productId);
+        inventory.setWarehouse_id(warehouseId);
+        inventory.setQtyOnHand(THREADS * 5);
+        inventory.setQtyReserved(0);
+        inventoryId = inventoryService.createInventory(inventory).getId();
+    }
+
+    @Test
+    void optimistic_ConcurrentAllocationsNeverOversell() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StockAllocator allocator = new OptimisticStockAllocator(inventoryRepository, registry, 100, 1, 10);
+
+        int allocated = allocateConcurrently(allocator, 8);
+
+        assertThat(allocated).isEqualTo(THREADS * 5);
+        assertThat(qtyOnHand()).isZero();
+    }
+
+    @Test
+    void pessimistic_ConcurrentAllocationsNeverOversell() throws Exception {
+        StockAllocator allocator = new PessimisticStockAllocator(inventoryRepository, new SimpleMeterRegistry());
+
+        int allocated = allocateConcurrently(allocator, 8);
+
+        assertThat(allocated).isEqualTo(THREADS * 5);
+        assertThat(qtyOnHand()).isZero();
+    }
+
+    @Test
+    void optimistic_StaleVersionIsRejected() {
+        Long version = inventoryRepository.findVersionsByProductId(productId).get(0).version();
+        transactionTemplate.executeWithoutResult(status ->
+                new OptimisticStockAllocator(inventoryRepository, new SimpleMeterRegistry(), 8, 1, 10)
+                        .receive(productId, 1));
+
+        Integer updated = transactionTemplate.execute(status ->
+                inventoryRepository.compareAndSetQtyOnHand(inventoryId, version, 0));
+
+        assertThat(updated).isZero();
+        assertThat(qtyOnHand()).isEqualTo(THREADS * 5 + 1);
+    }
+
+    @Test
+    void pessimistic_AllocatesFromTheLockedRowNotAStaleManagedInventory() {
+        Integer allocated = transactionTemplate.execute(status -> {
+            Inventory stale = entityManager.find(Inventory.class, inventoryId);
+            // Écriture concurrente validée pendant que l'entité gérée garde l'ancienne quantité
+            new TransactionTemplate(transactionTemplate.getTransactionManager(), withRequiresNew())
+                    .executeWithoutResult(inner -> inventoryRepository.adjustQtyOnHand(productId,
+                            stale.getWarehouse().getId(), -(THREADS * 5 - 3)));
+            return new PessimisticStockAllocator(inventoryRepository, new SimpleMeterRegistry())
+                    .allocate(productId, 10).allocated();
+        });
+
+        assertThat(allocated).isEqualTo(3);
+        assertThat(qtyOnHand()).isZero();
+    }
+
+    @Test
+    void optimistic_ConflictIsRetriedInAFreshTransaction() {
+        StockAllocator allocator = new OptimisticStockAllocator(inventoryRepository, new SimpleMeterRegistry(), 8, 1, 10);
+        List<Boolean> inTransaction = new ArrayList<>();
+
+        StockAllocation allocation = allocator.retrying(() -> transactionTemplate.execute(status -> {
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            if (inTransaction.size() == 1) {
+                // Première tentative : conflit simulé, la transaction est annulée avant le nouvel essai
+                throw new OptimisticLockingFailureException("conflit simulé");
+            }
+            return allocator.allocate(productId, 2);
+        }));
+
+        assertThat(inTransaction).containsExactly(true, true);
+        assertThat(allocation.allocated()).isEqualTo(2);
+        assertThat(qtyOnHand()).isEqualTo(THREADS * 5 - 2);
+    }
+
+    @Test
+    void optimistic_ConflictInsideAnOuterTransactionIsNotRetried() {
+        StockAllocator allocator = new OptimisticStockAllocator(inventoryRepository, new SimpleMeterRegistry(), 8, 1, 10);
+        int[] attempts = {0};
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> allocator.retrying(() -> {
+            attempts[0]++;
+            throw new OptimisticLockingFailureException("conflit simulé");
+        }))).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(attempts[0]).isEqualTo(1);
+    }
+
+    private static DefaultTransactionDefinition withRequiresNew() {
+        return new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Chaque thread demande plus que sa part : le total servi ne doit jamais dépasser le stock initial
+    private int allocateConcurrently(StockAllocator allocator, int quantity) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<StockAllocation>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> allocator.retrying(() ->
+                        transactionTemplate.execute(status -> allocator.allocate(productId, quantity)))));
+            }
+            int allocated = 0;
+            for (Future<StockAllocation> result : results) {
+                allocated += result.get().parts().stream().mapToInt(StockAllocation.Part::quantity).sum();
+            }
+            return allocated;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int qtyOnHand() {
+        return inventoryRepository.findById(inventoryId).orElseThrow().getQtyOnHand();
+    }
+}
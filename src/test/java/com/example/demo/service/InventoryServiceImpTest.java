@@ -1,12 +1,17 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.InventoryDTO;
+import com.example.demo.dto.InventoryRow;
+import com.example.demo.dto.PageCursor;
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.entity.Inventory;
 import com.example.demo.entity.Product;
 import com.example.demo.entity.Warehouse;
 import com.example.demo.mapper.InventoryMapper;
+import com.example.demo.repository.InventoryMovementRepository;
 import com.example.demo.repository.InventoryRepository;
-import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.InventorySnapshotRepository;
 import com.example.demo.repository.WarehouseRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,7 +19,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +30,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,7 +43,25 @@ class InventoryServiceImpTest {
     private WarehouseRepository warehouseRepository;
 
     @Mock
-    private ProductRepository productRepository;
+    private ProductCatalog productCatalog;
+
+    @Mock
+    private StockAllocator stockAllocator;
+
+    @Mock
+    private InventoryJournal inventoryJournal;
+
+    @Mock
+    private InventoryMovementRepository inventoryMovementRepository;
+
+    @Mock
+    private InventorySnapshotRepository inventorySnapshotRepository;
+
+    @Mock
+    private InventorySnapshotter inventorySnapshotter;
+
+    @Mock
+    private OutboxPublisher outboxPublisher;
 
     @InjectMocks
     private InventoryServiceImp inventoryService;
@@ -83,7 +110,7 @@ class InventoryServiceImpTest {
         when(inventoryRepository.findByProductIdAndWarehouseId(productId, warehouseId))
                 .thenReturn(Optional.empty());
         when(warehouseRepository.findById(warehouseId)).thenReturn(Optional.of(warehouse));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productCatalog.findReference(productId)).thenReturn(Optional.of(product));
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
 
         InventoryDTO result = inventoryService.createInventory(inventoryDTO);
@@ -93,7 +120,7 @@ class InventoryServiceImpTest {
         assertEquals(inventoryDTO.getQtyReserved(), result.getQtyReserved());
         verify(inventoryRepository, times(1)).findByProductIdAndWarehouseId(productId, warehouseId);
         verify(warehouseRepository, times(1)).findById(warehouseId);
-        verify(productRepository, times(1)).findById(productId);
+        verify(productCatalog, times(1)).findReference(productId);
         verify(inventoryRepository, times(1)).save(any(Inventory.class));
     }
 
@@ -108,7 +135,7 @@ class InventoryServiceImpTest {
         assertEquals("Un inventory pour ce produit dans ce warehouse existe déjà !", exception.getMessage());
         verify(inventoryRepository, times(1)).findByProductIdAndWarehouseId(productId, warehouseId);
         verify(warehouseRepository, never()).findById(any());
-        verify(productRepository, never()).findById(any());
+        verify(productCatalog, never()).findReference(any());
         verify(inventoryRepository, never()).save(any(Inventory.class));
     }
 
@@ -123,7 +150,7 @@ class InventoryServiceImpTest {
 
         assertEquals("Warehouse non trouvé", exception.getMessage());
         verify(warehouseRepository, times(1)).findById(warehouseId);
-        verify(productRepository, never()).findById(any());
+        verify(productCatalog, never()).findReference(any());
         verify(inventoryRepository, never()).save(any(Inventory.class));
     }
 
@@ -132,49 +159,78 @@ class InventoryServiceImpTest {
         when(inventoryRepository.findByProductIdAndWarehouseId(productId, warehouseId))
                 .thenReturn(Optional.empty());
         when(warehouseRepository.findById(warehouseId)).thenReturn(Optional.of(warehouse));
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(productCatalog.findReference(productId)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> inventoryService.createInventory(inventoryDTO));
 
         assertEquals("Product non trouvé", exception.getMessage());
-        verify(productRepository, times(1)).findById(productId);
+        verify(productCatalog, times(1)).findReference(productId);
         verify(inventoryRepository, never()).save(any(Inventory.class));
     }
 
     @Test
     void getInventoryById_ShouldReturnInventory() {
-        when(inventoryRepository.findById(inventoryId)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.findRowById(inventoryId)).thenReturn(Optional.of(toRow(inventory)));
 
         InventoryDTO result = inventoryService.getInventoryById(inventoryId);
 
         assertNotNull(result);
         assertEquals(inventoryId, result.getId());
         assertEquals(inventory.getQtyOnHand(), result.getQtyOnHand());
-        verify(inventoryRepository, times(1)).findById(inventoryId);
+        assertEquals(warehouseId, result.getWarehouse_id());
+        verify(inventoryRepository, times(1)).findRowById(inventoryId);
+        verify(inventoryRepository, never()).findById(any());
     }
 
     @Test
     void getInventoryById_WhenNotFound_ShouldThrowException() {
-        when(inventoryRepository.findById(inventoryId)).thenReturn(Optional.empty());
+        when(inventoryRepository.findRowById(inventoryId)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> inventoryService.getInventoryById(inventoryId));
 
         assertEquals("Inventory non trouvé avec l'id: " + inventoryId, exception.getMessage());
-        verify(inventoryRepository, times(1)).findById(inventoryId);
+        verify(inventoryRepository, times(1)).findRowById(inventoryId);
     }
 
     @Test
-    void getAllInventories_ShouldReturnAllInventories() {
-        List<Inventory> inventories = Arrays.asList(inventory, createAnotherInventory());
-        when(inventoryRepository.findAll()).thenReturn(inventories);
+    void getAllInventories_ShouldReturnFirstPageWithCursor() {
+        Inventory another = createAnotherInventory();
+        inventory.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        another.setCreatedAt(LocalDateTime.of(2024, 1, 2, 10, 0));
+        when(inventoryRepository.findRowsFirstPage(any(Pageable.class))).thenReturn(Arrays.asList(toRow(inventory), toRow(another)));
+
+        PageResponse<InventoryDTO> result = inventoryService.getAllInventories(PageQuery.first(1));
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(inventoryId, result.getItems().get(0).getId());
+        assertTrue(result.isHasNext());
+        assertEquals(new PageCursor(inventory.getCreatedAt(), inventoryId), PageCursor.decode(result.getNextCursor()));
+        verify(inventoryRepository).findRowsFirstPage(PageRequest.ofSize(2));
+        verify(inventoryRepository, never()).findAll();
+    }
 
-        List<InventoryDTO> result = inventoryService.getAllInventories();
+    @Test
+    void getAllInventories_ShouldSeekAfterCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+        String cursor = new PageCursor(createdAt, inventoryId).encode();
+        when(inventoryRepository.findRowsAfter(eq(createdAt), eq(inventoryId), any(Pageable.class)))
+                .thenReturn(List.of(toRow(createAnotherInventory())));
 
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        verify(inventoryRepository, times(1)).findAll();
+        PageResponse<InventoryDTO> result = inventoryService.getAllInventories(PageQuery.of(cursor, null, 10));
+
+        assertEquals(1, result.getItems().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getAllInventories_ShouldRejectInvalidCursor() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> inventoryService.getAllInventories(PageQuery.of("pas-un-curseur", null, 10)));
+
+        assertTrue(exception.getMessage().startsWith("Curseur de pagination invalide"));
     }
 
     @Test
@@ -191,7 +247,7 @@ class InventoryServiceImpTest {
                 .thenReturn(Optional.empty());
         when(inventoryRepository.findById(inventoryId)).thenReturn(Optional.of(inventory));
         when(warehouseRepository.findById(warehouseId)).thenReturn(Optional.of(warehouse));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productCatalog.findReference(productId)).thenReturn(Optional.of(product));
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
 
         InventoryDTO result = inventoryService.updateInventory(inventoryId, updateDTO);
@@ -200,8 +256,9 @@ class InventoryServiceImpTest {
         verify(inventoryRepository, times(1)).findByProductIdAndWarehouseId(productId, warehouseId);
         verify(inventoryRepository, times(1)).findById(inventoryId);
         verify(warehouseRepository, times(1)).findById(warehouseId);
-        verify(productRepository, times(1)).findById(productId);
+        verify(productCatalog, times(1)).findReference(productId);
         verify(inventoryRepository, times(1)).save(inventory);
+        verify(inventoryJournal).recordAdjustment(inventory, 50, "REF-002", "Ajustement manuel");
     }
 
     @Test
@@ -274,13 +331,13 @@ class InventoryServiceImpTest {
                 .thenReturn(Optional.empty());
         when(inventoryRepository.findById(inventoryId)).thenReturn(Optional.of(inventory));
         when(warehouseRepository.findById(warehouseId)).thenReturn(Optional.of(warehouse));
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(productCatalog.findReference(productId)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> inventoryService.updateInventory(inventoryId, updateDTO));
 
         assertEquals("Product non trouvé", exception.getMessage());
-        verify(productRepository, times(1)).findById(productId);
+        verify(productCatalog, times(1)).findReference(productId);
         verify(inventoryRepository, never()).save(any(Inventory.class));
     }
 
@@ -310,6 +367,11 @@ class InventoryServiceImpTest {
         verify(inventoryRepository, never()).delete(any(Inventory.class));
     }
 
+    private InventoryRow toRow(Inventory source) {
+        return new InventoryRow(source.getId(), source.getCreatedAt(), source.getQtyOnHand(), source.getQtyReserved(),
+                source.getReferenceDocument(), source.getWarehouse().getId(), source.getProduct().getId());
+    }
+
     private Inventory createAnotherInventory() {
         Inventory anotherInventory = new Inventory();
         anotherInventory.setId(UUID.randomUUID());
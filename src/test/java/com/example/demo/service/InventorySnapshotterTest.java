@@ -0,0 +1,159 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.InventoryDTO;
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.Warehouse;
+import com.example.demo.repository.InventoryMovementRepository;
+import com.example.demo.repository.InventorySnapshotRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventorySnapshotterTest {
+
+    @Autowired
+    private InventorySnapshotter inventorySnapshotter;
+    @Autowired
+    private InventoryJournal inventoryJournal;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private InventoryMovementRepository inventoryMovementRepository;
+    @Autowired
+    private InventorySnapshotRepository inventorySnapshotRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID productId;
+    private UUID warehouseId;
+    private UUID inventoryId;
+
+    @BeforeEach
+    void setUp() {
+        productId = productRepository.save(Product.builder()
+                .name("Snapshot")
+                .sku("SNP-" + UUID.randomUUID())
+                .price(BigDecimal.ONE)
+                .build()).getId();
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Entrepôt snapshot");
+        warehouseId = warehouseRepository.save(warehouse).getId();
+
+        InventoryDTO inventory = new InventoryDTO();
+        inventory.setProduct_id(productId);
+        inventory.setWarehouse_id(warehouseId);
+        inventory.setQtyOnHand(100);
+        inventory.setQtyReserved(0);
+        inventoryId = inventoryService.createInventory(inventory).getId();
+    }
+
+    @Test
+    void stockAsOf_UsesLatestSnapshotPlusTail() {
+        LocalDateTime firstRound = LocalDateTime.now();
+        assertThat(inventorySnapshotter.takeSnapshots(firstRound)).isPositive();
+        allocate(30);
+
+        assertThat(inventorySnapshotRepository.countByInventoryId(inventoryId)).isEqualTo(1);
+        assertThat(inventorySnapshotter.stockAsOf(inventoryId, LocalDateTime.now())).isEqualTo(70);
+        assertThat(inventorySnapshotter.stockAsOf(inventoryId, firstRound)).isEqualTo(100);
+    }
+
+    @Test
+    void takeSnapshots_OnlyWritesInventoriesThatMovedSinceLastRound() {
+        inventorySnapshotter.takeSnapshots(LocalDateTime.now());
+        assertThat(inventorySnapshotter.takeSnapshots(LocalDateTime.now())).isZero();
+
+        allocate(10);
+        inventorySnapshotter.takeSnapshots(LocalDateTime.now());
+
+        assertThat(inventorySnapshotRepository.countByInventoryId(inventoryId)).isEqualTo(2);
+        assertThat(inventorySnapshotRepository
+                .findFirstByInventoryIdAndTakenAtLessThanEqualOrderByTakenAtDesc(inventoryId, LocalDateTime.now())
+                .orElseThrow().getQtyOnHand()).isEqualTo(90);
+    }
+
+    @Test
+    void compactJournal_DropsCoveredSegmentsAndKeepsHistoryAtSnapshotInstants() {
+        LocalDateTime firstRound = LocalDateTime.now();
+        inventorySnapshotter.takeSnapshots(firstRound);
+        allocate(40);
+        LocalDateTime secondRound = LocalDateTime.now();
+        inventorySnapshotter.takeSnapshots(secondRound);
+        allocate(5);
+
+        assertThat(inventorySnapshotter.compactJournal(secondRound)).isGreaterThanOrEqualTo(2);
+
+        assertThat(inventoryMovementRepository.countByInventoryId(inventoryId)).isEqualTo(1);
+        assertThat(inventorySnapshotter.stockAsOf(inventoryId, LocalDateTime.now())).isEqualTo(55);
+        assertThat(inventorySnapshotter.stockAsOf(inventoryId, secondRound)).isEqualTo(60);
+        assertThat(inventorySnapshotter.stockAsOf(inventoryId, firstRound)).isEqualTo(100);
+    }
+
+    @Test
+    void lateCommittedMovement_IsCountedNextRoundAndSurvivesCompaction() throws Exception {
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        LocalDateTime firstRound;
+        try {
+            // Horodaté avant le premier tour, validé après
+            Future<?> late = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                inventoryJournal.recordAllocation(new StockAllocation(productId, 30,
+                        List.of(new StockAllocation.Part(warehouseId, 30))), "SO-LATE", "Allocation commande de vente");
+                recorded.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            recorded.await();
+            firstRound = LocalDateTime.now();
+            inventorySnapshotter.takeSnapshots(firstRound);
+            release.countDown();
+            late.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(inventorySnapshotter.compactJournal(firstRound)).isGreaterThanOrEqualTo(1);
+        assertThat(inventorySnapshotter.stockAsOf(inventoryId, firstRound)).isEqualTo(70);
+
+        inventorySnapshotter.takeSnapshots(LocalDateTime.now());
+
+        assertThat(inventorySnapshotRepository
+                .findFirstByInventoryIdAndTakenAtLessThanEqualOrderByTakenAtDesc(inventoryId, LocalDateTime.now())
+                .orElseThrow().getQtyOnHand()).isEqualTo(70);
+        assertThat(inventorySnapshotter.stockAsOf(inventoryId, firstRound)).isEqualTo(70);
+    }
+
+    private void allocate(int quantity) {
+        StockAllocation allocation = new StockAllocation(productId, quantity,
+                List.of(new StockAllocation.Part(warehouseId, quantity)));
+        transactionTemplate.executeWithoutResult(status ->
+                inventoryJournal.recordAllocation(allocation, "SO-SNP", "Allocation commande de vente"));
+    }
+}
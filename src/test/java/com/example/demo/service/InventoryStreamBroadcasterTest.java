@@ -0,0 +1,228 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DomainEvent;
+import com.example.demo.dto.StockChangedEvent;
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InventoryStreamBroadcasterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private final InventoryStreamBroadcaster broadcaster = new InventoryStreamBroadcaster(outboxEventRepository,
+            objectMapper, new SimpleMeterRegistry(), Duration.ofMinutes(1), 10, 100, 2, 100);
+
+    private final UUID productId = UUID.randomUUID();
+    private final UUID warehouseA = UUID.randomUUID();
+    private final UUID warehouseB = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void subscriberOnlyReceivesItsWarehouse() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.register(emitter, warehouseA, null, null);
+        await(() -> broadcaster.subscriberCount() == 1);
+
+        broadcaster.onDomainEvent(event(1L, warehouseB, -2));
+        broadcaster.onDomainEvent(event(2L, warehouseA, -5));
+
+        await(() -> emitter.frames.size() == 1);
+        assertThat(emitter.frames.get(0)).contains("id:2").contains("\"delta\":-5");
+    }
+
+    @Test
+    void reconnect_ReplaysEventsAfterLastEventId() {
+        when(outboxEventRepository.findAfter(eq(3L), any(), any())).thenReturn(List.of(
+                outbox(4L, warehouseA, 1), outbox(5L, warehouseB, 1)));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        broadcaster.register(emitter, null, productId, 3L);
+        await(() -> broadcaster.subscriberCount() == 1);
+        broadcaster.onDomainEvent(event(6L, warehouseA, 1));
+
+        await(() -> emitter.frames.size() == 3);
+        assertThat(emitter.frames).extracting(frame -> frame.substring(0, frame.indexOf('\n')))
+                .containsExactly("id:4", "id:5", "id:6");
+    }
+
+    @Test
+    void replayBeyondLimit_AsksClientToResync() {
+        List<OutboxEvent> missed = new ArrayList<>();
+        for (long sequence = 1; sequence <= 11; sequence++) {
+            missed.add(outbox(sequence, warehouseA, 1));
+        }
+        when(outboxEventRepository.findAfter(eq(0L), any(), any())).thenReturn(missed);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        broadcaster.register(emitter, null, null, 0L);
+
+        await(() -> emitter.frames.size() == 1);
+        assertThat(emitter.frames.get(0)).contains("event:resync");
+    }
+
+    @Test
+    void brokenConnection_IsUnsubscribed() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.broken = true;
+        broadcaster.register(emitter, null, null, null);
+        await(() -> broadcaster.subscriberCount() == 1);
+
+        broadcaster.onDomainEvent(event(1L, warehouseA, 1));
+
+        await(() -> broadcaster.subscriberCount() == 0);
+    }
+
+    @Test
+    void slowSubscriber_OverflowsAloneAndIsClosedForResume() throws Exception {
+        InventoryStreamBroadcaster small = new InventoryStreamBroadcaster(outboxEventRepository,
+                objectMapper, new SimpleMeterRegistry(), Duration.ofMinutes(1), 10, 2, 2, 100);
+        try {
+            RecordingEmitter slow = new RecordingEmitter();
+            slow.gate = new CountDownLatch(1);
+            RecordingEmitter fast = new RecordingEmitter();
+            small.register(slow, null, null, null);
+            small.register(fast, null, null, null);
+
+            // Rythmé sur le client rapide : son tampon ne contient jamais plus d'une trame,
+            // le lent (bloqué dans send) dépasse sa capacité de 2 au plus tard au 4e événement
+            for (long sequence = 1; sequence <= 5; sequence++) {
+                small.onDomainEvent(event(sequence, warehouseA, 1));
+                int expected = (int) sequence;
+                await(() -> fast.frames.size() == expected);
+            }
+
+            assertThat(small.subscriberCount()).isEqualTo(1);
+            slow.gate.countDown();
+            await(() -> slow.completed);
+            assertThat(slow.frames.size()).isLessThan(5);
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    // Un seul writer pour tous : chaque abonné est vidé par lots et repasse en file derrière les autres
+    @Test
+    void subscribers_ShareABoundedWriterPool() {
+        InventoryStreamBroadcaster single = new InventoryStreamBroadcaster(outboxEventRepository,
+                objectMapper, new SimpleMeterRegistry(), Duration.ofMinutes(1), 10, 100, 1, 10);
+        try {
+            List<RecordingEmitter> emitters = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                single.register(emitter, null, null, null);
+            }
+
+            for (long sequence = 1; sequence <= 100; sequence++) {
+                single.onDomainEvent(event(sequence, warehouseA, 1));
+            }
+
+            await(() -> emitters.stream().allMatch(emitter -> emitter.frames.size() == 100));
+            assertThat(single.subscriberCount()).isEqualTo(5);
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void liveEventAlsoReplayed_IsSentOnce() {
+        when(outboxEventRepository.findAfter(eq(3L), any(), any())).thenReturn(List.of(
+                outbox(4L, warehouseA, 1)));
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.gate = new CountDownLatch(1);
+
+        broadcaster.register(emitter, null, null, 3L);
+        broadcaster.onDomainEvent(event(4L, warehouseA, 1));
+        broadcaster.onDomainEvent(event(5L, warehouseA, 1));
+        emitter.gate.countDown();
+
+        await(() -> emitter.frames.size() == 2);
+        assertThat(emitter.frames).extracting(frame -> frame.substring(0, frame.indexOf('\n')))
+                .containsExactly("id:4", "id:5");
+    }
+
+    private DomainEvent event(long sequence, UUID warehouseId, int delta) {
+        return DomainEvent.of(outbox(sequence, warehouseId, delta));
+    }
+
+    private OutboxEvent outbox(long sequence, UUID warehouseId, int delta) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(sequence);
+        event.setDeliverySequence(sequence);
+        event.setEventType(DomainEvent.STOCK_CHANGED);
+        event.setAggregateType("inventory");
+        event.setAggregateId(UUID.randomUUID());
+        event.setOccurredAt(LocalDateTime.now());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(
+                    new StockChangedEvent(event.getAggregateId(), productId, warehouseId, delta, "SO-1", "Allocation")));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return event;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) throw new AssertionError("Condition non atteinte");
+            Thread.onSpinWait();
+        }
+    }
+
+    // Capture le texte SSE au lieu de l'écrire sur une réponse HTTP
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> frames = new CopyOnWriteArrayList<>();
+        volatile boolean broken;
+        volatile boolean completed;
+        volatile CountDownLatch gate;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) throw new IOException("Connexion fermée");
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            frames.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductRow;
+import com.example.demo.entity.Product;
+import com.example.demo.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@ExtendWith(OutputCaptureExtension.class)
+class KeysetPaginationTest {
+
+    // Hors de la plage des autres tests : seules les lignes créées ici sont parcourues
+    private static final LocalDateTime FIRST = LocalDateTime.of(2999, 1, 1, 0, 0);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void seekPages_WalkTiesOnCreatedAtWithoutGapOrDuplicate(CapturedOutput output) {
+        Set<UUID> created = Set.of(product(FIRST), product(FIRST), product(FIRST),
+                product(FIRST.plusDays(1)), product(FIRST.plusDays(1)));
+
+        List<ProductRow> seen = new ArrayList<>();
+        LocalDateTime createdAt = FIRST.minusDays(1);
+        UUID id = new UUID(0, 0);
+        List<ProductRow> page;
+        while (!(page = productRepository.findRowsAfter(createdAt, id, PageRequest.ofSize(2))).isEmpty()) {
+            seen.addAll(page);
+            createdAt = page.get(page.size() - 1).createdAt();
+            id = page.get(page.size() - 1).id();
+        }
+
+        assertThat(seen).extracting(ProductRow::id).containsExactlyInAnyOrderElementsOf(created);
+        assertThat(seen).extracting(ProductRow::createdAt).isSorted();
+        // Prédicat de ligne, borne de parcours de l'index (created_at, id)
+        assertThat(output.getOut().replace(" ", "")).contains(".created_at,p1_0.id)>(?,?)");
+    }
+
+    private UUID product(LocalDateTime createdAt) {
+        Product product = Product.builder()
+                .name("Page")
+                .sku("PG-" + UUID.randomUUID())
+                .price(BigDecimal.ONE)
+                .build();
+        product.setCreatedAt(createdAt);
+        return productRepository.save(product).getId();
+    }
+}
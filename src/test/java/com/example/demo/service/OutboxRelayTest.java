@@ -0,0 +1,221 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DomainEvent;
+import com.example.demo.dto.StockChangedEvent;
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.repository.OutboxEventRepository;
+import com.example.demo.repository.OutboxSequenceRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private OutboxSequenceRepository outboxSequenceRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer webhook;
+    private final List<String> webhookBodies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger webhookStatus = new AtomicInteger(200);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        outboxRelay.relay();
+        webhook = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        webhook.createContext("/events", exchange -> {
+            webhookBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(webhookStatus.get(), -1);
+            exchange.close();
+        });
+        webhook.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        webhook.stop(0);
+    }
+
+    @Test
+    void relay_DeliversCommittedEventsToInProcessListeners() {
+        UUID inventoryId = UUID.randomUUID();
+        publish(inventoryId);
+        transactionTemplate.executeWithoutResult(status -> {
+            publishWithoutTransactionCheck(UUID.randomUUID());
+            status.setRollbackOnly();
+        });
+
+        outboxRelay.relay();
+
+        assertThat(applicationEvents.stream(DomainEvent.class))
+                .filteredOn(event -> inventoryId.equals(event.aggregateId()))
+                .singleElement()
+                .satisfies(event -> assertThat(event.type()).isEqualTo(DomainEvent.STOCK_CHANGED));
+        assertThat(outboxEventRepository.lockUnpublished(10)).isEmpty();
+    }
+
+    @Test
+    void fileAndWebhookSinks_ReceiveNdjsonAndJsonArray() throws Exception {
+        Path file = tempDir.resolve("events.ndjson");
+        OutboxRelay relay = relayTo(new NdjsonFileEventSink(objectMapper, file), webhookSink());
+        UUID inventoryId = UUID.randomUUID();
+        publish(inventoryId);
+
+        assertThat(relay.relayBatch()).isEqualTo(1);
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(1);
+        JsonNode line = objectMapper.readTree(lines.get(0));
+        assertThat(line.get("aggregateId").asText()).isEqualTo(inventoryId.toString());
+        assertThat(line.get("payload").get("delta").asInt()).isEqualTo(-3);
+        assertThat(objectMapper.readTree(webhookBodies.get(0)).get(0).get("sequence").asLong())
+                .isEqualTo(line.get("sequence").asLong());
+    }
+
+    @Test
+    void failingWebhook_LeavesBatchForNextRound() {
+        OutboxRelay relay = relayTo(webhookSink());
+        publish(UUID.randomUUID());
+
+        webhookStatus.set(503);
+        assertThat(relay.relayBatch()).isZero();
+
+        webhookStatus.set(200);
+        assertThat(relay.relayBatch()).isEqualTo(1);
+        assertThat(webhookBodies).hasSize(2);
+    }
+
+    @Test
+    void lateCommittedEvent_IsDeliveredAfterWithAHigherSequence() throws Exception {
+        UUID late = UUID.randomUUID();
+        UUID early = UUID.randomUUID();
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Id attribué en premier, commit en dernier
+            Future<?> lateTransaction = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                publishWithoutTransactionCheck(late);
+                inserted.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            inserted.await();
+            publish(early);
+            outboxRelay.relay();
+
+            release.countDown();
+            lateTransaction.get();
+            outboxRelay.relay();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<DomainEvent> delivered = applicationEvents.stream(DomainEvent.class)
+                .filter(event -> late.equals(event.aggregateId()) || early.equals(event.aggregateId()))
+                .toList();
+        assertThat(delivered).extracting(DomainEvent::aggregateId).containsExactly(early, late);
+        assertThat(delivered.get(1).sequence()).isGreaterThan(delivered.get(0).sequence());
+        assertThat(outboxEventRepository.findAfter(delivered.get(0).sequence(), List.of(DomainEvent.STOCK_CHANGED),
+                PageRequest.ofSize(10))).extracting(OutboxEvent::getAggregateId).containsExactly(late);
+    }
+
+    @Test
+    void failedBatch_KeepsItsSequencesOnRedelivery() {
+        OutboxRelay relay = relayTo(webhookSink());
+        publish(UUID.randomUUID());
+
+        webhookStatus.set(503);
+        relay.relayBatch();
+        webhookStatus.set(200);
+        relay.relayBatch();
+
+        assertThat(webhookBodies).hasSize(2);
+        assertThat(webhookBodies).extracting(body -> sequenceOf(body)).containsOnly(sequenceOf(webhookBodies.get(0)));
+    }
+
+    @Test
+    void publishOutsideTransaction_IsRejected() {
+        assertThatThrownBy(() -> outboxPublisher.publish(DomainEvent.STOCK_CHANGED, "inventory", UUID.randomUUID(), "{}"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void publish(UUID inventoryId) {
+        transactionTemplate.executeWithoutResult(status -> publishWithoutTransactionCheck(inventoryId));
+    }
+
+    private void publishWithoutTransactionCheck(UUID inventoryId) {
+        OutboxEvent event = outboxPublisher.toEvent(DomainEvent.STOCK_CHANGED, "inventory", inventoryId,
+                new StockChangedEvent(inventoryId, UUID.randomUUID(), UUID.randomUUID(), -3, "SO-1", "Allocation"));
+        outboxPublisher.publishAll(List.of(event));
+    }
+
+    private long sequenceOf(String webhookBody) {
+        try {
+            return objectMapper.readTree(webhookBody).get(0).get("sequence").asLong();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private WebhookEventSink webhookSink() {
+        return new WebhookEventSink(objectMapper,
+                URI.create("http://localhost:" + webhook.getAddress().getPort() + "/events"), Duration.ofSeconds(2));
+    }
+
+    private OutboxRelay relayTo(EventSink... sinks) {
+        return new OutboxRelay(outboxEventRepository, outboxSequenceRepository, List.of(sinks), transactionTemplate,
+                new SimpleMeterRegistry(), 500, Duration.ofDays(7));
+    }
+}
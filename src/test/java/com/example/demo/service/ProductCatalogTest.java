@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductRow;
+import com.example.demo.entity.Product;
+import com.example.demo.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private MeterRegistry meterRegistry;
+    private ProductCatalog catalog;
+    private ProductRow product;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        catalog = new ProductCatalog(productRepository, meterRegistry, 100, Duration.ofMinutes(10));
+        product = new ProductRow(UUID.randomUUID(), LocalDateTime.now(), "Clavier", null, "KB-01",
+                new BigDecimal("25.00"), null);
+    }
+
+    @Test
+    void findReferences_LoadsOnlyUncachedIdsAndOmitsUnknownOnes() {
+        UUID unknown = UUID.randomUUID();
+        when(productRepository.findRowById(product.id())).thenReturn(Optional.of(product));
+        when(productRepository.findRowsByIdIn(Set.of(unknown))).thenReturn(List.of());
+        when(productRepository.getReferenceById(product.id())).thenReturn(new Product());
+        catalog.findById(product.id());
+
+        Map<UUID, Product> references = catalog.findReferences(List.of(product.id(), unknown));
+
+        assertThat(references).containsOnlyKeys(product.id());
+        verify(productRepository).findRowsByIdIn(Set.of(unknown));
+    }
+
+    @Test
+    void findReference_UnknownProduct_IsEmptyWithoutProxy() {
+        UUID unknown = UUID.randomUUID();
+        when(productRepository.findRowById(unknown)).thenReturn(Optional.empty());
+
+        assertThat(catalog.findReference(unknown)).isEmpty();
+        verify(productRepository, never()).getReferenceById(any());
+    }
+
+    @Test
+    void evict_DropsSkuIndexAndReportsHitsAndMisses() {
+        when(productRepository.findRowBySku("KB-01")).thenReturn(Optional.of(product));
+
+        catalog.findBySku("KB-01");
+        catalog.findBySku("KB-01");
+        catalog.evict(product.id());
+        catalog.findBySku("KB-01");
+
+        verify(productRepository, times(2)).findRowBySku("KB-01");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "products.bySku").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "products.bySku").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(2);
+    }
+}
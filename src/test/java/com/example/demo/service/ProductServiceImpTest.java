@@ -1,17 +1,26 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.dto.ProductDTO;
+import com.example.demo.dto.ProductRow;
 import com.example.demo.entity.Product;
 import com.example.demo.repository.InventoryRepository;
 import com.example.demo.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,15 +37,18 @@ class ProductServiceImpTest {
     @Mock
     private InventoryRepository inventoryRepository;
 
-    @InjectMocks
     private ProductServiceImp productService;
 
     private Product product;
+    private ProductRow productRow;
     private ProductDTO productDTO;
     private UUID productId;
 
     @BeforeEach
     void setUp() {
+        ProductCatalog productCatalog = new ProductCatalog(productRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+        productService = new ProductServiceImp(productRepository, inventoryRepository, productCatalog);
+
         productId = UUID.fromString("8945a242-f888-4814-bde4-6125127a65d1");
 
         product = Product.builder()
@@ -50,6 +62,9 @@ class ProductServiceImpTest {
                 .salesOrderLines(new ArrayList<>())
                 .build();
 
+        productRow = new ProductRow(productId, LocalDateTime.of(2024, 1, 1, 0, 0), "Laptop Dell",
+                "High performance laptop", "SKU123", new BigDecimal("1200.00"), null);
+
         productDTO = ProductDTO.builder()
                 .id(productId)
                 .name("Laptop Dell")
@@ -90,7 +105,7 @@ class ProductServiceImpTest {
 
     @Test
     void testGetProductById_Success() {
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.findRowById(productId)).thenReturn(Optional.of(productRow));
 
         ProductDTO result = productService.getProductById(productId);
 
@@ -98,48 +113,62 @@ class ProductServiceImpTest {
         assertEquals("Laptop Dell", result.getName());
         assertEquals("SKU123", result.getSku());
         assertEquals(productId, result.getId());
-        verify(productRepository, times(1)).findById(productId);
+        verify(productRepository, times(1)).findRowById(productId);
     }
 
     @Test
     void testGetProductById_NotFound_ThrowsException() {
         UUID randomId = UUID.randomUUID();
-        when(productRepository.findById(randomId)).thenReturn(Optional.empty());
+        when(productRepository.findRowById(randomId)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> productService.getProductById(randomId));
 
         assertEquals("Produit non trouvé avec l'id: " + randomId, exception.getMessage());
-        verify(productRepository, times(1)).findById(randomId);
+        verify(productRepository, times(1)).findRowById(randomId);
     }
 
     @Test
     void testGetAllProducts() {
-        when(productRepository.findAll()).thenReturn(Arrays.asList(product));
+        when(productRepository.findRowsFirstPage(any(Pageable.class))).thenReturn(Arrays.asList(productRow));
 
-        List<ProductDTO> result = productService.getAllProducts();
+        PageResponse<ProductDTO> result = productService.getAllProducts(PageQuery.first(50));
 
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("Laptop Dell", result.get(0).getName());
-        assertEquals("SKU123", result.get(0).getSku());
-        verify(productRepository, times(1)).findAll();
+        assertEquals(1, result.getItems().size());
+        assertEquals("Laptop Dell", result.getItems().get(0).getName());
+        assertEquals("SKU123", result.getItems().get(0).getSku());
+        assertFalse(result.isHasNext());
+        verify(productRepository, times(1)).findRowsFirstPage(PageRequest.ofSize(51));
     }
 
     @Test
     void testGetAllProducts_EmptyList() {
-        when(productRepository.findAll()).thenReturn(Collections.emptyList());
+        when(productRepository.findRowsFirstPage(any(Pageable.class))).thenReturn(Collections.emptyList());
 
-        List<ProductDTO> result = productService.getAllProducts();
+        PageResponse<ProductDTO> result = productService.getAllProducts(PageQuery.first(50));
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(productRepository, times(1)).findAll();
+        assertTrue(result.getItems().isEmpty());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void testGetAllProducts_OffsetPage() {
+        PageRequest request = PageRequest.of(2, 10, Sort.by("createdAt", "id"));
+        when(productRepository.findRows(request)).thenReturn(new PageImpl<>(List.of(productRow), request, 35));
+
+        PageResponse<ProductDTO> result = productService.getAllProducts(PageQuery.of(null, 2, 10));
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(2, result.getPage());
+        assertTrue(result.isHasNext());
+        verify(productRepository, never()).findRowsFirstPage(any());
     }
 
     @Test
     void testGetProductBySku_Success() {
-        when(productRepository.findBySku("SKU123")).thenReturn(Optional.of(product));
+        when(productRepository.findRowBySku("SKU123")).thenReturn(Optional.of(productRow));
 
         ProductDTO result = productService.getProductBySku("SKU123");
 
@@ -147,18 +176,18 @@ class ProductServiceImpTest {
         assertEquals("Laptop Dell", result.getName());
         assertEquals("SKU123", result.getSku());
         assertEquals(productId, result.getId());
-        verify(productRepository, times(1)).findBySku("SKU123");
+        verify(productRepository, times(1)).findRowBySku("SKU123");
     }
 
     @Test
     void testGetProductBySku_NotFound() {
-        when(productRepository.findBySku("UNKNOWN")).thenReturn(Optional.empty());
+        when(productRepository.findRowBySku("UNKNOWN")).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> productService.getProductBySku("UNKNOWN"));
 
         assertEquals("Produit non trouvé avec le SKU: UNKNOWN", exception.getMessage());
-        verify(productRepository, times(1)).findBySku("UNKNOWN");
+        verify(productRepository, times(1)).findRowBySku("UNKNOWN");
     }
 
     @Test
@@ -262,4 +291,46 @@ class ProductServiceImpTest {
         verify(productRepository, times(1)).findById(randomId);
         verify(productRepository, never()).delete(any(Product.class));
     }
-}
+
+    @Test
+    void testGetProductById_SecondCallServedFromCache() {
+        when(productRepository.findRowById(productId)).thenReturn(Optional.of(productRow));
+
+        productService.getProductById(productId);
+        ProductDTO result = productService.getProductById(productId);
+
+        assertEquals("Laptop Dell", result.getName());
+        verify(productRepository, times(1)).findRowById(productId);
+    }
+
+    @Test
+    void testGetProductBySku_UsesIdIndexFilledByIdLookup() {
+        when(productRepository.findRowById(productId)).thenReturn(Optional.of(productRow));
+
+        productService.getProductById(productId);
+        ProductDTO result = productService.getProductBySku("SKU123");
+
+        assertEquals(productId, result.getId());
+        verify(productRepository, never()).findRowBySku(anyString());
+    }
+
+    @Test
+    void testUpdateProduct_EvictsCachedEntry() {
+        ProductRow updatedRow = new ProductRow(productId, productRow.createdAt(), "Laptop Dell Updated",
+                null, "SKU124", new BigDecimal("1300.00"), null);
+        when(productRepository.findRowById(productId)).thenReturn(Optional.of(productRow), Optional.of(updatedRow));
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        productService.getProductById(productId);
+
+        productService.updateProduct(productId, ProductDTO.builder()
+                .name("Laptop Dell Updated")
+                .sku("SKU124")
+                .price(new BigDecimal("1300.00"))
+                .build());
+        ProductDTO result = productService.getProductById(productId);
+
+        assertEquals("Laptop Dell Updated", result.getName());
+        verify(productRepository, times(2)).findRowById(productId);
+    }
+}
\ No newline at end of file
@@ -5,10 +5,15 @@ import com.example.demo.dto.PurchaseOrderLineDTO;
 import com.example.demo.entity.*;
 import com.example.demo.enums.PurchaseOrderStatus;
 import com.example.demo.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -27,9 +32,19 @@ class PurchaseOrderServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private ProductRepository productRepository;
+    private ProductCatalog productCatalog;
+    @Mock
+    private StockAllocator stockAllocator;
+    @Mock
+    private InventoryJournal inventoryJournal;
+    @Mock
+    private BulkInsertRepository bulkInsertRepository;
+    @Spy
+    private SkuLockManager skuLockManager = new SkuLockManager(new SimpleMeterRegistry(), 8, Duration.ofSeconds(1));
     @Mock
-    private InventoryRepository inventoryRepository;
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private OutboxPublisher outboxPublisher;
 
     @InjectMocks
     private PurchaseOrderServiceImpl purchaseOrderService;
@@ -42,6 +57,10 @@ class PurchaseOrderServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(stockAllocator.retrying(any())).thenAnswer(inv ->
+                inv.<java.util.function.Supplier<?>>getArgument(0).get());
 
         supplier = new Supplier();
         supplier.setId(UUID.randomUUID());
@@ -80,20 +99,46 @@ class PurchaseOrderServiceImplTest {
         when(supplierRepository.findById(supplier.getId())).thenReturn(Optional.of(supplier));
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(purchaseOrderRepository.save(any(PurchaseOrder.class))).thenReturn(purchaseOrder);
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(productCatalog.findReferences(Set.of(product.getId()))).thenReturn(Map.of(product.getId(), product));
 
         PurchaseOrderDTO result = purchaseOrderService.createPurchaseOrder(dto);
 
         assertNotNull(result);
         assertEquals(PurchaseOrderStatus.DRAFT, result.getStatus());
         verify(purchaseOrderRepository, times(1)).save(any(PurchaseOrder.class));
-        verify(purchaseOrderLineRepository, times(1)).saveAll(anyList());
+        verify(bulkInsertRepository, times(1)).insertPurchaseOrderLines(argThat(lines ->
+                lines.size() == 1 && lines.get(0).getProduct() == product));
+        verify(productCatalog, never()).findReference(any());
+    }
+
+    @Test
+    void testCreatePurchaseOrder_UnknownProduct() {
+        PurchaseOrderLineDTO lineDTO = new PurchaseOrderLineDTO();
+        lineDTO.setProductId(product.getId());
+        lineDTO.setQuantity(5);
+        lineDTO.setUnitPrice(BigDecimal.valueOf(10));
+
+        PurchaseOrderDTO dto = new PurchaseOrderDTO();
+        dto.setSupplierId(supplier.getId());
+        dto.setCreatedByUserId(user.getId());
+        dto.setOrderLines(List.of(lineDTO));
+
+        when(supplierRepository.findById(supplier.getId())).thenReturn(Optional.of(supplier));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(purchaseOrderRepository.save(any(PurchaseOrder.class))).thenReturn(purchaseOrder);
+        when(productCatalog.findReferences(any())).thenReturn(Map.of());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> purchaseOrderService.createPurchaseOrder(dto));
+
+        assertEquals("Produit non trouvé avec l'id: " + product.getId(), exception.getMessage());
+        verify(bulkInsertRepository, never()).insertPurchaseOrderLines(any());
     }
 
     @Test
     void testGetPurchaseOrderById_NotFound() {
         UUID id = UUID.randomUUID();
-        when(purchaseOrderRepository.findById(id)).thenReturn(Optional.empty());
+        when(purchaseOrderRepository.findWithLinesById(id)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> purchaseOrderService.getPurchaseOrderById(id));
@@ -110,18 +155,27 @@ class PurchaseOrderServiceImplTest {
         line.setUnitPrice(BigDecimal.valueOf(5));
         purchaseOrder.getOrderLines().add(line);
 
-        Inventory inventory = new Inventory();
-        inventory.setProduct(product);
-        inventory.setQtyOnHand(20);
-
         when(purchaseOrderRepository.findById(purchaseOrder.getId())).thenReturn(Optional.of(purchaseOrder));
-        when(inventoryRepository.findByProductId(product.getId())).thenReturn(List.of(inventory));
+        when(purchaseOrderRepository.markReceived(purchaseOrder.getId())).thenReturn(1);
         when(purchaseOrderRepository.save(any(PurchaseOrder.class))).thenReturn(purchaseOrder);
+        UUID warehouseId = UUID.randomUUID();
+        when(stockAllocator.receive(product.getId(), 10)).thenReturn(warehouseId);
 
         PurchaseOrderDTO result = purchaseOrderService.updatePurchaseOrderStatus(purchaseOrder.getId(), PurchaseOrderStatus.RECEIVED);
 
-        verify(inventoryRepository, times(1)).save(any(Inventory.class));
+        verify(stockAllocator, times(1)).receive(product.getId(), 10);
+        verify(inventoryJournal).recordReceipt(eq(product.getId()), eq(warehouseId), eq(10), eq(purchaseOrder.getId().toString()), anyString());
         assertEquals(PurchaseOrderStatus.RECEIVED, result.getStatus());
-        assertEquals(30, inventory.getQtyOnHand());
+    }
+
+    @Test
+    void testUpdatePurchaseOrderStatus_ReceivedConcurrently_DoesNotCreditTwice() {
+        when(purchaseOrderRepository.findById(purchaseOrder.getId())).thenReturn(Optional.of(purchaseOrder));
+        when(purchaseOrderRepository.markReceived(purchaseOrder.getId())).thenReturn(0);
+
+        assertThrows(RuntimeException.class, () ->
+                purchaseOrderService.updatePurchaseOrderStatus(purchaseOrder.getId(), PurchaseOrderStatus.RECEIVED));
+
+        verify(stockAllocator, never()).receive(any(), anyInt());
     }
 }
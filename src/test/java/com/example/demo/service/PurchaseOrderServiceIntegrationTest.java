@@ -0,0 +1,79 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PurchaseOrderDTO;
+import com.example.demo.dto.PurchaseOrderLineDTO;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.Supplier;
+import com.example.demo.entity.User;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.PurchaseOrderLineRepository;
+import com.example.demo.repository.SupplierRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PurchaseOrderServiceIntegrationTest {
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+    @Autowired
+    private PurchaseOrderLineRepository purchaseOrderLineRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private SupplierRepository supplierRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void createPurchaseOrder_WithLines_PersistsEveryLine() {
+        Supplier supplier = new Supplier();
+        supplier.setName("Fournisseur PO");
+        UUID supplierId = supplierRepository.save(supplier).getId();
+        UUID userId = userRepository.save(User.builder()
+                .email("po-" + UUID.randomUUID() + "@test.local")
+                .build()).getId();
+        UUID first = product("PO-A");
+        UUID second = product("PO-B");
+
+        PurchaseOrderDTO dto = new PurchaseOrderDTO();
+        dto.setSupplierId(supplierId);
+        dto.setCreatedByUserId(userId);
+        dto.setOrderLines(List.of(line(first, 5), line(second, 7)));
+
+        PurchaseOrderDTO created = purchaseOrderService.createPurchaseOrder(dto);
+
+        assertThat(created.getOrderLines()).extracting(PurchaseOrderLineDTO::getProductId)
+                .containsExactlyInAnyOrder(first, second);
+        assertThat(purchaseOrderLineRepository.findByPurchaseOrderId(created.getId()))
+                .extracting(orderLine -> orderLine.getQuantity())
+                .containsExactlyInAnyOrder(5, 7);
+        assertThat(purchaseOrderService.getPurchaseOrderById(created.getId()).getOrderLines()).hasSize(2);
+    }
+
+    private UUID product(String prefix) {
+        return productRepository.save(Product.builder()
+                .name(prefix)
+                .sku(prefix + "-" + UUID.randomUUID())
+                .price(BigDecimal.ONE)
+                .build()).getId();
+    }
+
+    private PurchaseOrderLineDTO line(UUID productId, int quantity) {
+        PurchaseOrderLineDTO line = new PurchaseOrderLineDTO();
+        line.setProductId(productId);
+        line.setQuantity(quantity);
+        line.setUnitPrice(BigDecimal.TEN);
+        return line;
+    }
+}
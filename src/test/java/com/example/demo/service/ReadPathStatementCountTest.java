@@ -0,0 +1,173 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PurchaseOrderDTO;
+import com.example.demo.entity.*;
+import com.example.demo.enums.OrderStatus;
+import com.example.demo.enums.ShipmentStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compte les requêtes SQL émises par les chemins de lecture (statistiques Hibernate)
+ * pour détecter tout retour du N+1 sur les associations LAZY.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class ReadPathStatementCountTest {
+
+    private static final int ORDERS = 4;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private ShipmentService shipmentService;
+
+    @Autowired
+    private SalesOrderLineService salesOrderLineService;
+
+    private Statistics statistics;
+    private UUID supplierId;
+    private UUID purchaseOrderId;
+    private UUID salesOrderId;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder().email("stats-" + UUID.randomUUID() + "@test.local").build();
+        entityManager.persist(user);
+
+        Supplier supplier = new Supplier();
+        supplier.setName("Fournisseur");
+        entityManager.persist(supplier);
+        supplierId = supplier.getId();
+
+        Product first = product("STAT-A");
+        Product second = product("STAT-B");
+
+        for (int i = 0; i < ORDERS; i++) {
+            PurchaseOrder order = new PurchaseOrder();
+            order.setSupplier(supplier);
+            order.setCreatedBy(user);
+            entityManager.persist(order);
+            entityManager.persist(purchaseOrderLine(order, first));
+            entityManager.persist(purchaseOrderLine(order, second));
+            purchaseOrderId = order.getId();
+        }
+
+        Carrier carrier = new Carrier();
+        carrier.setName("Transporteur");
+        entityManager.persist(carrier);
+
+        SalesOrder salesOrder = new SalesOrder();
+        salesOrder.setUser(user);
+        salesOrder.setOrderStatus(OrderStatus.ICREATED);
+        entityManager.persist(salesOrder);
+        salesOrderId = salesOrder.getId();
+
+        for (int i = 0; i < 3; i++) {
+            Shipment shipment = new Shipment();
+            shipment.setTrackingNumber("TRK-STAT-" + i);
+            shipment.setStatus(ShipmentStatus.PLANNED);
+            shipment.setSalesOrder(salesOrder);
+            shipment.setCarrier(carrier);
+            entityManager.persist(shipment);
+
+            SalesOrderLine line = new SalesOrderLine();
+            line.setSalesOrder(salesOrder);
+            line.setProduct(i % 2 == 0 ? first : second);
+            line.setQuantity(1);
+            line.setUnitPrice(BigDecimal.TEN);
+            entityManager.persist(line);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllPurchaseOrders_LoadsLinesAndProductsForWholePageInOneQuery() {
+        List<PurchaseOrderDTO> orders = purchaseOrderService.getAllPurchaseOrders(PageQuery.first(50)).getItems();
+
+        assertThat(orders).hasSizeGreaterThanOrEqualTo(ORDERS);
+        assertThat(orders).filteredOn(order -> order.getSupplierId().equals(supplierId))
+                .hasSize(ORDERS)
+                .allSatisfy(order -> assertThat(order.getOrderLines()).hasSize(2));
+        // Page d'en-têtes projetés + lignes/produits de toute la page, sans entité gérée
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getPurchaseOrderById_SingleStatement() {
+        PurchaseOrderDTO order = purchaseOrderService.getPurchaseOrderById(purchaseOrderId);
+
+        assertThat(order.getOrderLines()).hasSize(2)
+                .allSatisfy(line -> assertThat(line.getProductSku()).startsWith("STAT-"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getPurchaseOrdersBySupplier_SingleStatement() {
+        assertThat(purchaseOrderService.getPurchaseOrdersBySupplier(supplierId)).hasSize(ORDERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getShipmentsByOrder_ReadsForeignKeysWithoutLoadingEntities() {
+        assertThat(shipmentService.getShipmentsByOrder(salesOrderId)).hasSize(3)
+                .allSatisfy(shipment -> assertThat(shipment.getCarrierId()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getSalesOrderLinesByOrder_ReadsForeignKeysWithoutLoadingEntities() {
+        assertThat(salesOrderLineService.getSalesOrderLinesByOrder(salesOrderId)).hasSize(3)
+                .allSatisfy(line -> assertThat(line.getProduct_id()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private Product product(String sku) {
+        Product product = Product.builder()
+                .name("Produit " + sku)
+                .sku(sku + "-" + UUID.randomUUID())
+                .price(new BigDecimal("10.00"))
+                .build();
+        entityManager.persist(product);
+        return product;
+    }
+
+    private PurchaseOrderLine purchaseOrderLine(PurchaseOrder order, Product product) {
+        PurchaseOrderLine line = new PurchaseOrderLine();
+        line.setPurchaseOrder(order);
+        line.setProduct(product);
+        line.setQuantity(5);
+        line.setUnitPrice(new BigDecimal("10.00"));
+        return line;
+    }
+}
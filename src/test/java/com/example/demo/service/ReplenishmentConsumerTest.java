@@ -0,0 +1,123 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Product;
+import com.example.demo.entity.PurchaseOrderLine;
+import com.example.demo.entity.Supplier;
+import com.example.demo.entity.User;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.PurchaseOrderLineRepository;
+import com.example.demo.repository.ReplenishmentRequestRepository;
+import com.example.demo.repository.SupplierRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReplenishmentConsumerTest {
+
+    @Autowired
+    private ReplenishmentService replenishmentService;
+    @Autowired
+    private ReplenishmentConsumer replenishmentConsumer;
+    @Autowired
+    private ReplenishmentRequestRepository replenishmentRequestRepository;
+    @Autowired
+    private PurchaseOrderLineRepository purchaseOrderLineRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private SupplierRepository supplierRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Product first;
+    private Product second;
+
+    @BeforeEach
+    void setUp() {
+        first = newProduct();
+        second = newProduct();
+        if (supplierRepository.findFirstByOrderByIdAsc().isEmpty()) {
+            Supplier supplier = new Supplier();
+            supplier.setName("Fournisseur réappro " + UUID.randomUUID());
+            supplierRepository.save(supplier);
+        }
+        if (userRepository.findFirstByOrderByIdAsc().isEmpty()) {
+            User user = new User();
+            user.setFirstName("Réappro");
+            user.setLastName("Auto");
+            user.setEmail("replenishment-" + UUID.randomUUID() + "@example.com");
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    void drain_CoalescesBackordersIntoOnePurchaseOrder() {
+        transactionTemplate.executeWithoutResult(status -> {
+            replenishmentService.requestReplenishment(first, 3);
+            replenishmentService.requestReplenishment(first, 4);
+            replenishmentService.requestReplenishment(second, 2);
+        });
+
+        assertThat(replenishmentConsumer.drain(LocalDateTime.now())).isEqualTo(1);
+
+        List<PurchaseOrderLine> firstLines = linesOf(first);
+        List<PurchaseOrderLine> secondLines = linesOf(second);
+        assertThat(firstLines).singleElement().satisfies(line -> {
+            assertThat(line.getQuantity()).isEqualTo(7);
+            assertThat(line.getBackorder()).isEqualTo(7);
+        });
+        assertThat(secondLines).singleElement()
+                .satisfies(line -> assertThat(line.getQuantity()).isEqualTo(2));
+        assertThat(firstLines.get(0).getPurchaseOrder().getId())
+                .isEqualTo(secondLines.get(0).getPurchaseOrder().getId());
+        assertThat(replenishmentRequestRepository.count()).isZero();
+    }
+
+    @Test
+    void rolledBackOrder_PublishesNothing() {
+        transactionTemplate.executeWithoutResult(status -> {
+            replenishmentService.requestReplenishment(first, 3);
+            status.setRollbackOnly();
+        });
+
+        replenishmentConsumer.drain(LocalDateTime.now());
+        assertThat(linesOf(first)).isEmpty();
+    }
+
+    @Test
+    void requestOutsideTransaction_IsRejected() {
+        assertThatThrownBy(() -> replenishmentService.requestReplenishment(first, 1))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    private List<PurchaseOrderLine> linesOf(Product product) {
+        return transactionTemplate.execute(status -> purchaseOrderLineRepository.findAll().stream()
+                .filter(line -> line.getProduct().getId().equals(product.getId()))
+                .toList());
+    }
+
+    private Product newProduct() {
+        return productRepository.save(Product.builder()
+                .name("Réappro")
+                .sku("RPL-" + UUID.randomUUID())
+                .price(BigDecimal.ONE)
+                .build());
+    }
+}
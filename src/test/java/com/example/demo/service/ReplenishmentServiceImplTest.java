@@ -0,0 +1,41 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Product;
+import com.example.demo.entity.ReplenishmentRequest;
+import com.example.demo.repository.ReplenishmentRequestRepository;
+import com.example.demo.service.impl.ReplenishmentServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplenishmentServiceImplTest {
+
+    @Mock
+    private ReplenishmentRequestRepository replenishmentRequestRepository;
+
+    @InjectMocks
+    private ReplenishmentServiceImpl replenishmentService;
+
+    @Test
+    void requestReplenishment_PublishesBackorderToOutbox() {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+
+        replenishmentService.requestReplenishment(product, 5);
+
+        ArgumentCaptor<ReplenishmentRequest> request = ArgumentCaptor.forClass(ReplenishmentRequest.class);
+        verify(replenishmentRequestRepository).save(request.capture());
+        assertThat(request.getValue().getProduct()).isSameAs(product);
+        assertThat(request.getValue().getQuantity()).isEqualTo(5);
+        assertThat(request.getValue().getRequestedAt()).isNotNull();
+    }
+}
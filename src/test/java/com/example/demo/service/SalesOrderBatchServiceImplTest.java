@@ -0,0 +1,169 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SalesOrderBatchRequest;
+import com.example.demo.dto.SalesOrderBatchResponse;
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.SalesOrder;
+import com.example.demo.entity.User;
+import com.example.demo.enums.OrderStatus;
+import com.example.demo.repository.SalesOrderLineRepository;
+import com.example.demo.repository.SalesOrderRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.impl.SalesOrderBatchServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesOrderBatchServiceImplTest {
+
+    @Mock
+    private SalesOrderRepository salesOrderRepository;
+    @Mock
+    private SalesOrderLineRepository salesOrderLineRepository;
+    @Mock
+    private ProductCatalog productCatalog;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private StockAllocator stockAllocator;
+    @Mock
+    private InventoryJournal inventoryJournal;
+    @Mock
+    private ReplenishmentService replenishmentService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private SalesOrderBatchServiceImpl batchService;
+
+    private User user;
+    private Product productLow;
+    private Product productHigh;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+
+        productLow = new Product();
+        productLow.setId(new UUID(0, 1));
+        productHigh = new Product();
+        productHigh.setId(new UUID(0, 2));
+
+        when(stockAllocator.retrying(any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void createSalesOrders_AllocatesOncePerProductInIdOrder() {
+        SalesOrderBatchRequest request = new SalesOrderBatchRequest(List.of(
+                order(line(productHigh, 4), line(productLow, 2)),
+                order(line(productHigh, 3))));
+
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(productCatalog.findReferences(any())).thenReturn(Map.of(productLow.getId(), productLow, productHigh.getId(), productHigh));
+        when(stockAllocator.allocate(productLow.getId(), 2)).thenReturn(allocation(productLow, 2, 2));
+        when(stockAllocator.allocate(productHigh.getId(), 7)).thenReturn(allocation(productHigh, 7, 5));
+        assignIdsOnSave();
+
+        SalesOrderBatchResponse response = batchService.createSalesOrders(request);
+
+        InOrder inOrder = inOrder(stockAllocator);
+        inOrder.verify(stockAllocator).allocate(productLow.getId(), 2);
+        inOrder.verify(stockAllocator).allocate(productHigh.getId(), 7);
+        verify(productCatalog, times(1)).findReferences(any());
+        verify(salesOrderLineRepository, times(1)).saveAll(any());
+        verify(replenishmentService).requestReplenishment(productHigh, 2);
+
+        assertThat(response.getOrders()).hasSize(2);
+        SalesOrderBatchResponse.LineResult first = response.getOrders().get(0).getLines().get(0);
+        assertThat(first.getAllocated()).isEqualTo(4);
+        assertThat(first.getBackorder()).isZero();
+        SalesOrderBatchResponse.LineResult last = response.getOrders().get(1).getLines().get(0);
+        assertThat(last.getAllocated()).isEqualTo(1);
+        assertThat(last.getBackorder()).isEqualTo(2);
+    }
+
+    @Test
+    void createSalesOrders_JournalsOneMovementPerOrderReferencingIt() {
+        SalesOrderBatchRequest request = new SalesOrderBatchRequest(List.of(
+                order(line(productLow, 3)),
+                order(line(productLow, 4))));
+        UUID warehouseA = new UUID(1, 1);
+        UUID warehouseB = new UUID(1, 2);
+
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(productCatalog.findReferences(any())).thenReturn(Map.of(productLow.getId(), productLow));
+        when(stockAllocator.allocate(productLow.getId(), 7)).thenReturn(new StockAllocation(productLow.getId(), 7,
+                List.of(new StockAllocation.Part(warehouseA, 2), new StockAllocation.Part(warehouseB, 5))));
+        assignIdsOnSave();
+
+        SalesOrderBatchResponse response = batchService.createSalesOrders(request);
+
+        UUID firstOrder = response.getOrders().get(0).getSalesOrderId();
+        UUID secondOrder = response.getOrders().get(1).getSalesOrderId();
+        verify(inventoryJournal).recordAllocation(new StockAllocation(productLow.getId(), 3,
+                        List.of(new StockAllocation.Part(warehouseA, 2), new StockAllocation.Part(warehouseB, 1))),
+                firstOrder.toString(), "Allocation lot de commandes");
+        verify(inventoryJournal).recordAllocation(new StockAllocation(productLow.getId(), 4,
+                        List.of(new StockAllocation.Part(warehouseB, 4))),
+                secondOrder.toString(), "Allocation lot de commandes");
+        verifyNoMoreInteractions(inventoryJournal);
+    }
+
+    @Test
+    void createSalesOrders_UnknownProduct_Throws() {
+        SalesOrderBatchRequest request = new SalesOrderBatchRequest(List.of(order(line(productLow, 1))));
+
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(productCatalog.findReferences(any())).thenReturn(Map.of());
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> batchService.createSalesOrders(request));
+
+        assertThat(ex.getMessage()).contains("Produit introuvable");
+        verify(stockAllocator, never()).allocate(any(), anyInt());
+    }
+
+    // Comme le persist JPA : l'id est attribué à l'enregistrement
+    private void assignIdsOnSave() {
+        when(salesOrderRepository.saveAll(any())).thenAnswer(inv -> {
+            Iterable<SalesOrder> orders = inv.getArgument(0);
+            orders.forEach(order -> order.setId(UUID.randomUUID()));
+            return orders;
+        });
+    }
+
+    private SalesOrderBatchRequest.Order order(SalesOrderBatchRequest.Line... lines) {
+        return new SalesOrderBatchRequest.Order(user.getId(), OrderStatus.ICREATED, List.of(lines));
+    }
+
+    private SalesOrderBatchRequest.Line line(Product product, int quantity) {
+        return new SalesOrderBatchRequest.Line(product.getId(), quantity, BigDecimal.TEN);
+    }
+
+    private StockAllocation allocation(Product product, int requested, int allocated) {
+        return new StockAllocation(product.getId(), requested,
+                List.of(new StockAllocation.Part(UUID.randomUUID(), allocated)));
+    }
+}
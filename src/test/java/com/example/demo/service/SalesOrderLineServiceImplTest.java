@@ -1,19 +1,25 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.SalesOrderLineDTO;
+import com.example.demo.dto.StockAllocation;
 import com.example.demo.entity.*;
-import com.example.demo.enums.PurchaseOrderStatus;
 import com.example.demo.repository.*;
-import com.example.demo.service.PurchaseOrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import com.example.demo.service.impl.SalesOrderLineServiceImpl;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -27,19 +33,19 @@ class SalesOrderLineServiceImplTest {
     @Mock
     private SalesOrderRepository salesOrderRepository;
     @Mock
-    private ProductRepository productRepository;
-    @Mock
-    private InventoryRepository inventoryRepository;
-    @Mock
-    private PurchaseOrderRepository purchaseOrderRepository;
+    private ProductCatalog productCatalog;
     @Mock
-    private PurchaseOrderLineRepository purchaseOrderLineRepository;
+    private StockAllocator stockAllocator;
     @Mock
-    private SupplierRepository supplierRepository;
+    private InventoryJournal inventoryJournal;
     @Mock
-    private UserRepository userRepository;
+    private ReplenishmentService replenishmentService;
+    @Spy
+    private SkuLockManager skuLockManager = new SkuLockManager(new SimpleMeterRegistry(), 8, Duration.ofSeconds(1));
     @Mock
-    private PurchaseOrderService purchaseOrderService;
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private SalesOrderLineServiceImpl salesOrderLineService;
@@ -47,11 +53,14 @@ class SalesOrderLineServiceImplTest {
     private SalesOrderLineDTO lineDTO;
     private SalesOrder order;
     private Product product;
-    private Inventory inventory;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(stockAllocator.retrying(any())).thenAnswer(inv ->
+                inv.<Supplier<?>>getArgument(0).get());
 
         order = new SalesOrder();
         order.setId(UUID.randomUUID());
@@ -59,10 +68,6 @@ class SalesOrderLineServiceImplTest {
         product = new Product();
         product.setId(UUID.randomUUID());
 
-        inventory = new Inventory();
-        inventory.setProduct(product);
-        inventory.setQtyOnHand(10);
-
         lineDTO = new SalesOrderLineDTO();
         lineDTO.setSales_order_id(order.getId());
         lineDTO.setProduct_id(product.getId());
@@ -73,8 +78,8 @@ class SalesOrderLineServiceImplTest {
     @Test
     void testCreateSalesOrderLine_Success() {
         when(salesOrderRepository.findById(order.getId())).thenReturn(Optional.of(order));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
-        when(inventoryRepository.findByProductId(product.getId())).thenReturn(List.of(inventory));
+        when(productCatalog.findReference(product.getId())).thenReturn(Optional.of(product));
+        when(stockAllocator.allocate(product.getId(), 5)).thenReturn(allocation(5, 5));
         when(salesOrderLineRepository.save(any(SalesOrderLine.class))).thenAnswer(inv -> {
             SalesOrderLine line = inv.getArgument(0);
             line.setId(UUID.randomUUID());
@@ -85,8 +90,10 @@ class SalesOrderLineServiceImplTest {
 
         assertThat(result).isNotNull();
         assertThat(result.getQuantity()).isEqualTo(5);
-        verify(inventoryRepository, times(1)).save(any(Inventory.class));
-        verify(purchaseOrderRepository, never()).save(any());
+        assertThat(result.getBackorder()).isZero();
+        assertThat(meterRegistry.counter("sales.order.line.allocations", "outcome", "full").count()).isEqualTo(1);
+        verify(stockAllocator, times(1)).allocate(product.getId(), 5);
+        verify(replenishmentService, never()).requestReplenishment(any(), anyInt());
     }
 
     @Test
@@ -94,26 +101,23 @@ class SalesOrderLineServiceImplTest {
         lineDTO.setQuantity(15); // الطلب أكبر من المخزون (10)
 
         when(salesOrderRepository.findById(order.getId())).thenReturn(Optional.of(order));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
-        when(inventoryRepository.findByProductId(product.getId())).thenReturn(List.of(inventory));
-        when(supplierRepository.findAll()).thenReturn(List.of(new Supplier()));
-        when(userRepository.findAll()).thenReturn(List.of(new User()));
-        when(purchaseOrderRepository.save(any(PurchaseOrder.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(purchaseOrderLineRepository.save(any(PurchaseOrderLine.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(productCatalog.findReference(product.getId())).thenReturn(Optional.of(product));
+        when(stockAllocator.allocate(product.getId(), 15)).thenReturn(allocation(15, 10));
         when(salesOrderLineRepository.save(any(SalesOrderLine.class))).thenAnswer(inv -> inv.getArgument(0));
 
         SalesOrderLineDTO result = salesOrderLineService.createSalesOrderLine(lineDTO);
 
         assertThat(result).isNotNull();
         assertThat(result.getBackorder()).isEqualTo(5); // car 15 - 10 = 5
-        verify(purchaseOrderRepository, times(1)).save(any(PurchaseOrder.class));
-        verify(purchaseOrderLineRepository, times(1)).save(any(PurchaseOrderLine.class));
+        assertThat(meterRegistry.counter("sales.order.line.allocations", "outcome", "partial").count()).isEqualTo(1);
+        verify(replenishmentService, times(1)).requestReplenishment(product, 5);
+        verify(inventoryJournal).recordAllocation(argThat(a -> a.allocated() == 10), eq(order.getId().toString()), anyString());
     }
 
     @Test
     void testCreateSalesOrderLine_ProductNotFound() {
         when(salesOrderRepository.findById(order.getId())).thenReturn(Optional.of(order));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.empty());
+        when(productCatalog.findReference(product.getId())).thenReturn(Optional.empty());
 
         RuntimeException ex = assertThrows(RuntimeException.class, () ->
                 salesOrderLineService.createSalesOrderLine(lineDTO)
@@ -125,13 +129,20 @@ class SalesOrderLineServiceImplTest {
     @Test
     void testCreateSalesOrderLine_NoInventory() {
         when(salesOrderRepository.findById(order.getId())).thenReturn(Optional.of(order));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
-        when(inventoryRepository.findByProductId(product.getId())).thenReturn(Collections.emptyList());
+        when(productCatalog.findReference(product.getId())).thenReturn(Optional.of(product));
+        when(stockAllocator.allocate(product.getId(), 5))
+                .thenThrow(new RuntimeException("Aucun inventaire trouvé pour le produit id: " + product.getId()));
 
         RuntimeException ex = assertThrows(RuntimeException.class, () ->
                 salesOrderLineService.createSalesOrderLine(lineDTO)
         );
 
         assertThat(ex.getMessage()).contains("Aucun inventaire trouvé");
+        verify(salesOrderLineRepository, never()).save(any());
+    }
+
+    private StockAllocation allocation(int requested, int allocated) {
+        return new StockAllocation(product.getId(), requested,
+                List.of(new StockAllocation.Part(UUID.randomUUID(), allocated)));
     }
 }
@@ -1,12 +1,18 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.dto.DomainEvent;
 import com.example.demo.dto.ShipmentDTO;
+import com.example.demo.dto.ShipmentRow;
+import com.example.demo.dto.ShipmentStatusChangedEvent;
 import com.example.demo.entity.Carrier;
 import com.example.demo.entity.SalesOrder;
 import com.example.demo.entity.Shipment;
+import com.example.demo.enums.ShipmentStatus;
 import com.example.demo.repository.CarrierRepository;
 import com.example.demo.repository.SalesOrderRepository;
 import com.example.demo.repository.ShipmentRepository;
+import com.example.demo.service.CarrierService;
+import com.example.demo.service.OutboxPublisher;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -32,16 +38,46 @@ class ShipmentServiceImplTest {
     @Mock
     private CarrierRepository carrierRepository;
 
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private CarrierService carrierService;
+
     @InjectMocks
     private ShipmentServiceImpl shipmentService;
 
+    @Test
+    void createShipment_WhenPreferredCarrierIsFull_ShouldUseReservedFallbackCarrier() {
+        UUID salesOrderId = UUID.randomUUID();
+        UUID preferredCarrierId = UUID.randomUUID();
+        UUID fallbackCarrierId = UUID.randomUUID();
+        ShipmentDTO dto = new ShipmentDTO();
+        dto.setTrackingNumber("TRK-FALLBACK");
+        dto.setStatus(ShipmentStatus.PENDING);
+        dto.setSalesOrderId(salesOrderId);
+        dto.setCarrierId(preferredCarrierId);
+        Carrier fallback = new Carrier();
+        fallback.setId(fallbackCarrierId);
+
+        when(shipmentRepository.existsByTrackingNumber("TRK-FALLBACK")).thenReturn(false);
+        when(salesOrderRepository.findById(salesOrderId)).thenReturn(Optional.of(new SalesOrder()));
+        when(carrierService.reserveCapacity(preferredCarrierId)).thenReturn(fallbackCarrierId);
+        when(carrierRepository.getReferenceById(fallbackCarrierId)).thenReturn(fallback);
+        when(shipmentRepository.save(any(Shipment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ShipmentDTO result = shipmentService.createShipment(dto);
+
+        assertEquals(fallbackCarrierId, result.getCarrierId());
+        verify(carrierRepository, never()).findById(any());
+    }
+
     @Test
     void getShipmentById_ShouldReturnShipment() {
         UUID shipmentId = UUID.randomUUID();
-        Shipment shipment = new Shipment();
-        shipment.setId(shipmentId);
+        ShipmentRow row = new ShipmentRow(shipmentId, null, "TRK-1", null, null, null, null, null, null);
 
-        when(shipmentRepository.findById(shipmentId)).thenReturn(Optional.of(shipment));
+        when(shipmentRepository.findRowById(shipmentId)).thenReturn(Optional.of(row));
 
         ShipmentDTO result = shipmentService.getShipmentById(shipmentId);
 
@@ -52,7 +88,7 @@ class ShipmentServiceImplTest {
     @Test
     void getShipmentById_WhenNotFound_ShouldThrowException() {
         UUID shipmentId = UUID.randomUUID();
-        when(shipmentRepository.findById(shipmentId)).thenReturn(Optional.empty());
+        when(shipmentRepository.findRowById(shipmentId)).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> shipmentService.getShipmentById(shipmentId));
     }
@@ -70,4 +106,20 @@ class ShipmentServiceImplTest {
 
         verify(shipmentRepository, times(1)).delete(shipment);
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateShipmentStatus_ShouldPublishStatusChange() {
+        UUID shipmentId = UUID.randomUUID();
+        Shipment shipment = new Shipment();
+        shipment.setId(shipmentId);
+        shipment.setStatus(ShipmentStatus.PENDING);
+
+        when(shipmentRepository.findById(shipmentId)).thenReturn(Optional.of(shipment));
+        when(shipmentRepository.save(shipment)).thenReturn(shipment);
+
+        shipmentService.updateShipmentStatus(shipmentId, ShipmentStatus.SHIPPED);
+
+        verify(outboxPublisher).publish(DomainEvent.SHIPMENT_STATUS_CHANGED, "shipment", shipmentId,
+                new ShipmentStatusChangedEvent(shipmentId, ShipmentStatus.PENDING, ShipmentStatus.SHIPPED));
+    }
+}
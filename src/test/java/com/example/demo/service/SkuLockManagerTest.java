@@ -0,0 +1,103 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkuLockManagerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SkuLockManager lockManager = new SkuLockManager(registry, 16, Duration.ofMillis(200));
+
+    @Test
+    void sameSku_IsSerialized() throws Exception {
+        UUID productId = UUID.randomUUID();
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> lockManager.withLocks(List.of(productId), () -> {
+                    maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                    sleep(5);
+                    return inside.decrementAndGet();
+                })));
+            }
+            for (Future<Integer> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(maxInside.get()).isEqualTo(1);
+        assertThat(registry.find("inventory.sku.lock.wait")
+                .tag("stripe", String.valueOf(lockManager.stripeOf(productId)))
+                .timer().count()).isEqualTo(8);
+    }
+
+    @Test
+    void heldStripe_TimesOutWithConflict() throws Exception {
+        UUID productId = UUID.randomUUID();
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> lockManager.withLocks(List.of(productId), () -> {
+                held.countDown();
+                await(release);
+                return null;
+            }));
+            held.await(1, TimeUnit.SECONDS);
+
+            assertThatThrownBy(() -> lockManager.withLocks(List.of(productId), () -> null))
+                    .isInstanceOf(CannotAcquireLockException.class);
+            assertThat(registry.counter("inventory.sku.lock.timeouts").count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void multipleSkus_AreReleasedAfterAction() {
+        List<UUID> productIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        assertThatThrownBy(() -> lockManager.withLocks(productIds, () -> {
+            throw new IllegalStateException("échec");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(lockManager.withLocks(productIds, () -> "libre")).isEqualTo("libre");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StockAllocation;
+import com.example.demo.dto.StockLevelDTO;
+import com.example.demo.entity.Inventory;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.Warehouse;
+import com.example.demo.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLedgerTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private StockLedger stockLedger;
+
+    private UUID productId;
+    private UUID warehouseA;
+    private UUID warehouseB;
+
+    @BeforeEach
+    void setUp() {
+        productId = UUID.randomUUID();
+        warehouseA = UUID.randomUUID();
+        warehouseB = UUID.randomUUID();
+    }
+
+    @Test
+    void allocate_SpreadsAcrossWarehousesAndReportsBackorder() {
+        when(inventoryRepository.findStockLevelsByProductId(productId)).thenReturn(List.of(
+                new StockLevelDTO(productId, warehouseA, 4),
+                new StockLevelDTO(productId, warehouseB, 3)));
+
+        StockAllocation allocation = stockLedger.allocate(productId, 10);
+
+        assertThat(allocation.allocated()).isEqualTo(7);
+        assertThat(allocation.backorder()).isEqualTo(3);
+        assertThat(stockLedger.available(productId)).isZero();
+    }
+
+    @Test
+    void isTracked_FalseWhenProductHasNoInventory() {
+        when(inventoryRepository.findStockLevelsByProductId(productId)).thenReturn(List.of());
+
+        assertThat(stockLedger.isTracked(productId)).isFalse();
+    }
+
+    @Test
+    void allocate_ConcurrentCallersNeverOversell() throws InterruptedException {
+        when(inventoryRepository.findStockLevelsByProductId(productId))
+                .thenReturn(List.of(new StockLevelDTO(productId, warehouseA, 100)));
+        stockLedger.isTracked(productId);
+
+        AtomicInteger allocated = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 500; i++) {
+            pool.submit(() -> allocated.addAndGet(stockLedger.allocate(productId, 1).allocated()));
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(allocated.get()).isEqualTo(100);
+        assertThat(stockLedger.available(productId)).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_WritesPendingDeltaOnce() {
+        when(inventoryRepository.findStockLevelsByProductId(productId))
+                .thenReturn(List.of(new StockLevelDTO(productId, warehouseA, 10)));
+        doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        stockLedger.allocate(productId, 3);
+        stockLedger.allocate(productId, 2);
+        stockLedger.flush();
+        stockLedger.flush();
+
+        verify(inventoryRepository, times(1)).adjustQtyOnHand(productId, warehouseA, -5);
+    }
+
+    @Test
+    void flush_RequeuesDeltaWhenDatabaseFails() {
+        when(inventoryRepository.findStockLevelsByProductId(productId))
+                .thenReturn(List.of(new StockLevelDTO(productId, warehouseA, 10)));
+        doThrow(new RuntimeException("db down")).doNothing()
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        stockLedger.allocate(productId, 3);
+        stockLedger.flush();
+        stockLedger.flush();
+
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+        verify(inventoryRepository, never()).adjustQtyOnHand(any(), any(), anyInt());
+    }
+
+    @Test
+    void track_AddsCommittedDeltaWithoutOverwritingConcurrentAllocations() {
+        when(inventoryRepository.findStockLevelsByProductId(productId))
+                .thenReturn(List.of(new StockLevelDTO(productId, warehouseA, 10)));
+        stockLedger.isTracked(productId);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stockLedger.track(inventory(warehouseA, 15), 5);
+            stockLedger.allocate(productId, 4);
+            assertThat(stockLedger.available(productId)).isEqualTo(6);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(stockLedger.available(productId)).isEqualTo(11);
+    }
+
+    @Test
+    void track_RolledBackWriteLeavesCounterUntouched() {
+        when(inventoryRepository.findStockLevelsByProductId(productId))
+                .thenReturn(List.of(new StockLevelDTO(productId, warehouseA, 10)));
+        stockLedger.isTracked(productId);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stockLedger.track(inventory(warehouseA, 50), 40);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(stockLedger.available(productId)).isEqualTo(10);
+    }
+
+    @Test
+    void rebuild_ReloadsLevelsFromInventoryTable() {
+        when(inventoryRepository.findAllStockLevels())
+                .thenReturn(List.of(new StockLevelDTO(productId, warehouseA, 7)));
+
+        stockLedger.rebuild();
+
+        assertThat(stockLedger.available(productId)).isEqualTo(7);
+        verify(inventoryRepository, never()).findStockLevelsByProductId(productId);
+    }
+
+    private Inventory inventory(UUID warehouseId, int qtyOnHand) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(warehouseId);
+        Inventory inventory = new Inventory();
+        inventory.setProduct(Product.builder().id(productId).build());
+        inventory.setWarehouse(warehouse);
+        inventory.setQtyOnHand(qtyOnHand);
+        return inventory;
+    }
+}
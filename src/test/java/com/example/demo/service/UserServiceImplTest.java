@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.PageQuery;
+import com.example.demo.dto.PageResponse;
 import com.example.demo.entity.User;
 import com.example.demo.enums.Role;
 import com.example.demo.exception.UserNotFoundException;
@@ -153,11 +155,12 @@ class UserServiceImplTest {
     @Test
     void testGetAllUsers() {
         List<User> users = List.of(user);
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findFirstPage(any())).thenReturn(users);
 
-        List<User> result = userService.getAllUsers();
+        PageResponse<User> result = userService.getAllUsers(PageQuery.first(50));
 
-        assertEquals(1, result.size());
-        assertEquals("John", result.get(0).getFirstName());
+        assertEquals(1, result.getItems().size());
+        assertEquals("John", result.getItems().get(0).getFirstName());
+        assertFalse(result.isHasNext());
     }
 }
\ No newline at end of file